@@ -13,23 +13,38 @@ import java.util.Set;
 
 public class App {
     public static void main(String[] args) {
+        // the MST backend can be chosen on the command line: kruskal (the default), prim or delaunay
+        Graph.MstAlgorithm mstAlgorithm = Graph.MstAlgorithm.KRUSKAL;
+        if (args.length > 0) {
+            try {
+                mstAlgorithm = Graph.MstAlgorithm.valueOf(args[0].toUpperCase());
+            } catch (IllegalArgumentException e) {
+                System.err.println("Unknown MST algorithm '" + args[0] + "'");
+                System.err.println("Usage: App [kruskal|prim|delaunay]");
+                return;
+            }
+        }
         System.out.println("Dataset with 585 points");
 
         Graph graph = getNodesFromDataset();
         graph.connectAllNodes();
+        long matrixStartTime = System.currentTimeMillis();
+        DistanceMatrix distances = graph.getDistanceMatrix();
+        long matrixEndTime = System.currentTimeMillis();
+        System.out.println("Time taken for distance matrix=" + (matrixEndTime - matrixStartTime) + " milliseconds");
         long startTime = System.currentTimeMillis();
-        List<Edge> mst = Christofides.findMST(graph);
+        List<Edge> mst = Christofides.findMST(graph, mstAlgorithm);
         long endTime = System.currentTimeMillis();
         double mstCost = 0.0;
         for (Edge e : mst) {
             mstCost += e.getDistance();
         }
 
-        System.out.println("Kruskal MST cost : " + String.format("%.2f", mstCost) + " meters");
-        System.out.println("Time taken for mst=" + (endTime - startTime) + " milliseconds");
+        System.out.println(mstAlgorithm.label() + " MST cost : " + String.format("%.2f", mstCost) + " meters");
+        System.out.println("Time taken for mst (" + mstAlgorithm.label() + ")=" + (endTime - startTime) + " milliseconds");
 
-        visualization(graph.getNodes(), Christofides.kruskalgos, null, 5, "Kruskal MST",
-                "Kruskal MST cost : " + String.format("%.2f", mstCost) + " meters" + ", " + "Time taken for mst="
+        visualization(graph.getNodes(), Christofides.kruskalgos, null, 5, mstAlgorithm.label() + " MST",
+                mstAlgorithm.label() + " MST cost : " + String.format("%.2f", mstCost) + " meters" + ", " + "Time taken for mst="
                         + (endTime - startTime) + " milliseconds",
                 false);
 
@@ -39,91 +54,146 @@ public class App {
         List<Node> oddDegrNodes = Christofides.findOddDegreeVertices(graph, mst);
 
         List<Edge> perfectMatchingEdges = Christofides.getMinimumWeightPerfectMatching(oddDegrNodes);
+        System.out.println("Perfect matching of " + oddDegrNodes.size() + " odd degree nodes ("
+                + Christofides.matchingMode(oddDegrNodes.size()) + ")");
 
         List<Node> eulerTour = Christofides.eulerTour(graph, mst, perfectMatchingEdges);
 
         List<Node> hamiltonCycle = Christofides.generateTSPTour(eulerTour);
         System.out.println("Hamiltonian cycle cost :"
-                + Math.round(Christofides.calculateTourLength(hamiltonCycle) * 100.0) / 100.0 + " meters");
+                + Math.round(Christofides.calculateTourLength(hamiltonCycle, distances) * 100.0) / 100.0 + " meters");
         long endTime1 = System.currentTimeMillis();
         System.out.println("Time taken for Christofides=" + ((endTime1 - startTime1)) + " milliseconds");
         System.out.println();
         visualization(graph.getNodes(), Christofides.calcGraphOperation(hamiltonCycle), Christofides.kruskalgos, 5,
                 "Christofides Tour using Kruskal MST",
-                "Hamiltonian cycle cost :" + Math.round(Christofides.calculateTourLength(hamiltonCycle) * 100.0) / 100.0
+                "Hamiltonian cycle cost :" + Math.round(Christofides.calculateTourLength(hamiltonCycle, distances) * 100.0) / 100.0
                         + " meters" + ", " + "Time taken for Christofides=" + ((endTime1 - startTime1))
                         + " milliseconds",
                 false);
 
         // generate TSP using Random Swap optimization
         long startTime2 = System.currentTimeMillis();
-        List<Node> randomTour = Christofides.randomSwapOptimise(hamiltonCycle, 30000);
+        List<Node> randomTour = Christofides.randomSwapOptimise(hamiltonCycle, 30000, distances);
         System.out.println("Random tour cost :"
-                + Math.round(Christofides.calculateTourLength(randomTour) * 100.0) / 100.0 + " meters");
+                + Math.round(Christofides.calculateTourLength(randomTour, distances) * 100.0) / 100.0 + " meters");
         long endTime2 = System.currentTimeMillis();
-        System.out.println("Time taken for RandomTour=" + (endTime2 - startTime2) / 1000 + " seconds");
+        System.out.println("Time taken for RandomTour=" + (endTime2 - startTime2) + " milliseconds");
         visualization(graph.getNodes(), Christofides.calcGraphOperation(randomTour),
                 Christofides.calcGraphOperation(hamiltonCycle), 5,
                 "RandomSwapping using Christofides Tour with 30000 swaps",
-                "Random tour cost :" + Math.round(Christofides.calculateTourLength(randomTour) * 100.0) / 100.0
-                        + " meters" + ", " + "Time taken for RandomTour=" + (endTime2 - startTime2) / 1000 + " seconds",
+                "Random tour cost :" + Math.round(Christofides.calculateTourLength(randomTour, distances) * 100.0) / 100.0
+                        + " meters" + ", " + "Time taken for RandomTour=" + (endTime2 - startTime2) + " milliseconds",
+                false);
+        System.out.println();
+
+        // Iterated local search: double-bridge kicks and neighbour-list 2-opt/Or-opt
+        long startTime18 = System.currentTimeMillis();
+        List<Node> ilsTour = Christofides.iteratedLocalSearch(hamiltonCycle, distances, 2000);
+        System.out.println("Iterated Local Search tour cost :"
+                + Math.round(Christofides.calculateTourLength(ilsTour, distances) * 100.0) / 100.0 + " meters");
+        long endTime18 = System.currentTimeMillis();
+        System.out.println("Time taken for Iterated Local Search=" + (endTime18 - startTime18) + " milliseconds");
+        visualization(graph.getNodes(), Christofides.calcGraphOperation(ilsTour),
+                Christofides.calcGraphOperation(hamiltonCycle), 5, "Iterated Local Search using Christofides Tour",
+                "Iterated Local Search tour cost :"
+                        + Math.round(Christofides.calculateTourLength(ilsTour, distances) * 100.0) / 100.0 + " meters" + ", "
+                        + "Time taken for Iterated Local Search=" + (endTime18 - startTime18) + " milliseconds",
                 false);
         System.out.println();
 
         // generate TSP using 2 Opt Optimization
         long startTime3 = System.currentTimeMillis();
-        List<Node> twoOptTour = Christofides.twoOpt(hamiltonCycle);
+        // the full O(n^2) neighbourhood is fine for the sample data, big datasets use neighbour lists
+        TwoOpt twoOpt = new TwoOpt(distances, hamiltonCycle.size() > 5000
+                ? TwoOpt.Strategy.NEIGHBOR_LISTS : TwoOpt.Strategy.FIRST_IMPROVEMENT);
+        List<Node> twoOptTour = twoOpt.optimise(hamiltonCycle);
         System.out.println("Two Opt tour cost :"
-                + Math.round(Christofides.calculateTourLength(twoOptTour) * 100.0) / 100.0 + " meters");
+                + Math.round(Christofides.calculateTourLength(twoOptTour, distances) * 100.0) / 100.0 + " meters");
+        System.out.println("2OPT moves evaluated=" + twoOpt.getMovesEvaluated() + ", applied="
+                + twoOpt.getMovesApplied());
         long endTime3 = System.currentTimeMillis();
-        System.out.println("Time taken for 2OPT=" + (endTime3 - startTime3) / 1000 + " seconds");
+        System.out.println("Time taken for 2OPT=" + (endTime3 - startTime3) + " milliseconds");
         visualization(graph.getNodes(), Christofides.calcGraphOperation(twoOptTour),
                 Christofides.calcGraphOperation(hamiltonCycle), 5, "2Opt Optimization using Christofides Tour",
-                "Two Opt tour cost :" + Math.round(Christofides.calculateTourLength(twoOptTour) * 100.0) / 100.0
-                        + " meters" + ", " + "Time taken for 2OPT=" + (endTime3 - startTime3) / 1000 + " seconds",
+                "Two Opt tour cost :" + Math.round(Christofides.calculateTourLength(twoOptTour, distances) * 100.0) / 100.0
+                        + " meters" + ", " + "Time taken for 2OPT=" + (endTime3 - startTime3) + " milliseconds",
                 false);
         System.out.println();
 
         // simulated annealing
         long startTime8 = System.currentTimeMillis();
-        List<Node> simulatedAnneTour = Christofides.simulatedAnnealingOptimizeTour(hamiltonCycle);
+        List<Node> simulatedAnneTour = Christofides.simulatedAnnealingOptimizeTour(hamiltonCycle, distances);
         System.out.println("Simu Anne tour cost :"
-                + Math.round(Christofides.calculateTourLength(simulatedAnneTour) * 100.0) / 100.0 + " meters");
+                + Math.round(Christofides.calculateTourLength(simulatedAnneTour, distances) * 100.0) / 100.0 + " meters");
         long endTime8 = System.currentTimeMillis();
-        System.out.println("Time taken for Simulated Annealing=" + (endTime8 - startTime8) / 1000 + " seconds");
+        System.out.println("Time taken for Simulated Annealing=" + (endTime8 - startTime8) + " milliseconds");
         visualization(graph.getNodes(), Christofides.calcGraphOperation(simulatedAnneTour),
                 Christofides.calcGraphOperation(hamiltonCycle), 5,
                 "SimulatedAnnealing Optimization using Christofides Tour",
                 "Simu Anne tour cost :"
-                        + Math.round(Christofides.calculateTourLength(simulatedAnneTour) * 100.0) / 100.0 + " meters"
-                        + ", " + "Time taken for Simulated Annealing=" + (endTime8 - startTime8) / 1000 + " seconds",
+                        + Math.round(Christofides.calculateTourLength(simulatedAnneTour, distances) * 100.0) / 100.0 + " meters"
+                        + ", " + "Time taken for Simulated Annealing=" + (endTime8 - startTime8) + " milliseconds",
                 false);
         System.out.println();
 
         // simulated annealing with 2Opt
         long startTime4 = System.currentTimeMillis();
-        List<Node> simulatedAnneTourwith2Opt = Christofides.simulatedAnnealingOptimizeTour(twoOptTour);
+        List<Node> simulatedAnneTourwith2Opt = Christofides.simulatedAnnealingOptimizeTour(twoOptTour, distances);
         System.out.println("Simu Anne with 2Opt tour cost :"
-                + Math.round(Christofides.calculateTourLength(simulatedAnneTourwith2Opt) * 100.0) / 100.0 + " meters");
+                + Math.round(Christofides.calculateTourLength(simulatedAnneTourwith2Opt, distances) * 100.0) / 100.0 + " meters");
         long endTime4 = System.currentTimeMillis();
         System.out.println(
-                "Time taken for Simulated Annealing with 2OptTour=" + (endTime4 - startTime4) / 1000 + " seconds");
+                "Time taken for Simulated Annealing with 2OptTour=" + (endTime4 - startTime4) + " milliseconds");
 
         visualization(graph.getNodes(), Christofides.calcGraphOperation(simulatedAnneTourwith2Opt),
                 Christofides.calcGraphOperation(twoOptTour), 5, "SimulatedAnnealing Optimization using 2Opt Tour",
                 "Simu Anne with 2Opt tour cost :"
-                        + Math.round(Christofides.calculateTourLength(simulatedAnneTourwith2Opt) * 100.0) / 100.0
+                        + Math.round(Christofides.calculateTourLength(simulatedAnneTourwith2Opt, distances) * 100.0) / 100.0
                         + " meters" + ", " + "Time taken for Simulated Annealing with 2OptTour="
-                        + (endTime4 - startTime4) / 1000 + " seconds",
+                        + (endTime4 - startTime4) + " milliseconds",
+                false);
+
+        System.out.println();
+
+        // simulated annealing within a fixed time budget
+        long startTime13 = System.currentTimeMillis();
+        List<Node> budgetedAnneTour = Christofides.simulatedAnnealingOptimizeTour(hamiltonCycle, distances, 2000);
+        System.out.println("Time-budgeted Simu Anne tour cost :"
+                + Math.round(Christofides.calculateTourLength(budgetedAnneTour, distances) * 100.0) / 100.0 + " meters");
+        long endTime13 = System.currentTimeMillis();
+        System.out.println("Time taken for Time-budgeted Simulated Annealing=" + (endTime13 - startTime13)
+                + " milliseconds");
+        visualization(graph.getNodes(), Christofides.calcGraphOperation(budgetedAnneTour),
+                Christofides.calcGraphOperation(hamiltonCycle), 5,
+                "Time-budgeted SimulatedAnnealing using Christofides Tour",
+                "Time-budgeted Simu Anne tour cost :"
+                        + Math.round(Christofides.calculateTourLength(budgetedAnneTour, distances) * 100.0) / 100.0 + " meters"
+                        + ", " + "Time taken for Time-budgeted Simulated Annealing=" + (endTime13 - startTime13)
+                        + " milliseconds",
                 false);
+        System.out.println();
 
+        // parallel tempering, one annealing replica per core within a fixed time budget
+        long startTime12 = System.currentTimeMillis();
+        List<Node> temperingTour = Christofides.parallelTemperingOptimizeTour(hamiltonCycle, distances, 2000);
+        System.out.println("Parallel Tempering tour cost :"
+                + Math.round(Christofides.calculateTourLength(temperingTour, distances) * 100.0) / 100.0 + " meters");
+        long endTime12 = System.currentTimeMillis();
+        System.out.println("Time taken for Parallel Tempering=" + (endTime12 - startTime12) + " milliseconds");
+        visualization(graph.getNodes(), Christofides.calcGraphOperation(temperingTour),
+                Christofides.calcGraphOperation(hamiltonCycle), 5, "Parallel Tempering using Christofides Tour",
+                "Parallel Tempering tour cost :"
+                        + Math.round(Christofides.calculateTourLength(temperingTour, distances) * 100.0) / 100.0 + " meters"
+                        + ", " + "Time taken for Parallel Tempering=" + (endTime12 - startTime12) + " milliseconds",
+                false);
         System.out.println();
 
         // Genetic algo Optimization with Christofides Tour
         long startTime5 = System.currentTimeMillis();
-        List<Node> genetictsp = TSPGenetic.TSPGenAlgo(hamiltonCycle);
+        List<Node> genetictsp = TSPGenetic.TSPGenAlgo(hamiltonCycle, distances);
         System.out.println("Genetic TSP with Chritofides tour cost :"
-                + Math.round(Christofides.calculateTourLength(genetictsp) * 100.0) / 100.0 + " meters");
+                + Math.round(Christofides.calculateTourLength(genetictsp, distances) * 100.0) / 100.0 + " meters");
         long endTime5 = System.currentTimeMillis();
         System.out.println(
                 "Time taken for Genetic Algo with Christofides tour=" + (endTime5 - startTime5) / 1000 + " seconds");
@@ -131,7 +201,7 @@ public class App {
         visualization(graph.getNodes(), Christofides.calcGraphOperation(genetictsp),
                 Christofides.calcGraphOperation(hamiltonCycle), 5, "Genetic Algo Optimization using Christofides Tour",
                 "Genetic TSP with Christofides tour cost :"
-                        + Math.round(Christofides.calculateTourLength(genetictsp) * 100.0) / 100.0 + " meters" + ", "
+                        + Math.round(Christofides.calculateTourLength(genetictsp, distances) * 100.0) / 100.0 + " meters" + ", "
                         + "Time taken for Genetic Algo with Christofides tour=" + (endTime5 - startTime5) / 1000
                         + " seconds",
                 true);
@@ -140,16 +210,16 @@ public class App {
 
         // Genetic algo Optimization with 2OPT Tour
         long startTime6 = System.currentTimeMillis();
-        List<Node> genetictspwith2Opt = TSPGenetic.TSPGenAlgo(twoOptTour);
+        List<Node> genetictspwith2Opt = TSPGenetic.TSPGenAlgo(twoOptTour, distances);
         System.out.println("Genetic TSP with 2Opt tour cost :"
-                + Math.round(Christofides.calculateTourLength(genetictspwith2Opt) * 100.0) / 100.0 + " meters");
+                + Math.round(Christofides.calculateTourLength(genetictspwith2Opt, distances) * 100.0) / 100.0 + " meters");
         long endTime6 = System.currentTimeMillis();
         System.out.println("Time taken for Genetic Algo with 2OPT tour=" + (endTime6 - startTime6) / 1000 + " seconds");
 
         visualization(graph.getNodes(), Christofides.calcGraphOperation(genetictspwith2Opt),
                 Christofides.calcGraphOperation(twoOptTour), 5, "Genetic Algo Optimization using 2OPT Tour",
                 "Genetic TSP with 2OPT tour cost :"
-                        + Math.round(Christofides.calculateTourLength(genetictspwith2Opt) * 100.0) / 100.0 + " meters"
+                        + Math.round(Christofides.calculateTourLength(genetictspwith2Opt, distances) * 100.0) / 100.0 + " meters"
                         + ", " + "Time taken for Genetic Algo with 2OPT tour=" + (endTime6 - startTime6) / 1000
                         + " seconds",
                 true);
@@ -158,9 +228,9 @@ public class App {
 
         // Genetic algo Optimization with SimulatedAnnealing Tour
         long startTime7 = System.currentTimeMillis();
-        List<Node> genetictspwithSA = TSPGenetic.TSPGenAlgo(simulatedAnneTour);
+        List<Node> genetictspwithSA = TSPGenetic.TSPGenAlgo(simulatedAnneTour, distances);
         System.out.println("Genetic TSP with SimulatedAnnealing tour cost :"
-                + Math.round(Christofides.calculateTourLength(genetictspwithSA) * 100.0) / 100.0 + " meters");
+                + Math.round(Christofides.calculateTourLength(genetictspwithSA, distances) * 100.0) / 100.0 + " meters");
         long endTime7 = System.currentTimeMillis();
         System.out.println("Time taken for Genetic Algo with SimulatedAnnealing tour=" + (endTime7 - startTime7) / 1000
                 + " seconds");
@@ -169,7 +239,7 @@ public class App {
                 Christofides.calcGraphOperation(simulatedAnneTour), 5,
                 "Genetic Algo Optimization using SimualatedAnnealing Tour",
                 "Genetic TSP with SimulatedAnnealing tour cost :"
-                        + Math.round(Christofides.calculateTourLength(genetictspwithSA) * 100.0) / 100.0 + " meters"
+                        + Math.round(Christofides.calculateTourLength(genetictspwithSA, distances) * 100.0) / 100.0 + " meters"
                         + ", " + "Time taken for Genetic Algo with SimulatedAnnealing tour="
                         + (endTime7 - startTime7) / 1000 + " seconds",
                 true);
@@ -178,9 +248,9 @@ public class App {
 
         // Genetic algo Optimization with SimulatedAnnealing Tour
         long startTime9 = System.currentTimeMillis();
-        List<Node> genetictspwithSA2Opt = TSPGenetic.TSPGenAlgo(simulatedAnneTourwith2Opt);
+        List<Node> genetictspwithSA2Opt = TSPGenetic.TSPGenAlgo(simulatedAnneTourwith2Opt, distances);
         System.out.println("Genetic TSP with SimulatedAnnealing tour(done on 2OPT tour) cost :"
-                + Math.round(Christofides.calculateTourLength(genetictspwithSA) * 100.0) / 100.0 + " meters");
+                + Math.round(Christofides.calculateTourLength(genetictspwithSA, distances) * 100.0) / 100.0 + " meters");
         long endTime9 = System.currentTimeMillis();
         System.out.println("Time taken for Genetic Algo with SimulatedAnnealing tour(done on 2Opt tour)="
                 + (endTime9 - startTime9) / 1000 + " seconds");
@@ -189,13 +259,70 @@ public class App {
                 Christofides.calcGraphOperation(simulatedAnneTourwith2Opt), 5,
                 "Genetic Algo Optimization using SimualatedAnnealing Tour(done on 2OPT tour)",
                 "Genetic TSP with SimulatedAnnealing tour(done on 2OPT tour) cost :"
-                        + Math.round(Christofides.calculateTourLength(genetictspwithSA) * 100.0) / 100.0 + " meters"
+                        + Math.round(Christofides.calculateTourLength(genetictspwithSA, distances) * 100.0) / 100.0 + " meters"
                         + ", " + "Time taken for Genetic Algo with SimulatedAnnealing tour(done on 2OPT tour)="
                         + (endTime9 - startTime9) / 1000 + " seconds",
                 true);
 
         System.out.println();
 
+        // Island-model Genetic algo with Christofides Tour
+        long startTime14 = System.currentTimeMillis();
+        List<Node> islandtsp = TSPGenetic.TSPGenIslandAlgo(hamiltonCycle, distances);
+        System.out.println("Island Genetic TSP with Christofides tour cost :"
+                + Math.round(Christofides.calculateTourLength(islandtsp, distances) * 100.0) / 100.0 + " meters");
+        long endTime14 = System.currentTimeMillis();
+        System.out.println("Time taken for Island Genetic Algo with Christofides tour=" + (endTime14 - startTime14)
+                + " milliseconds");
+
+        visualization(graph.getNodes(), Christofides.calcGraphOperation(islandtsp),
+                Christofides.calcGraphOperation(hamiltonCycle), 5, "Island Genetic Algo using Christofides Tour",
+                "Island Genetic TSP with Christofides tour cost :"
+                        + Math.round(Christofides.calculateTourLength(islandtsp, distances) * 100.0) / 100.0 + " meters" + ", "
+                        + "Time taken for Island Genetic Algo with Christofides tour=" + (endTime14 - startTime14)
+                        + " milliseconds",
+                true);
+
+        System.out.println();
+
+        // Memetic Genetic algo with Christofides Tour
+        long startTime15 = System.currentTimeMillis();
+        List<Node> memetictsp = TSPGenetic.TSPGenMemeticAlgo(hamiltonCycle, distances);
+        System.out.println("Memetic Genetic TSP with Christofides tour cost :"
+                + Math.round(Christofides.calculateTourLength(memetictsp, distances) * 100.0) / 100.0 + " meters");
+        long endTime15 = System.currentTimeMillis();
+        System.out.println("Time taken for Memetic Genetic Algo with Christofides tour=" + (endTime15 - startTime15)
+                + " milliseconds");
+
+        visualization(graph.getNodes(), Christofides.calcGraphOperation(memetictsp),
+                Christofides.calcGraphOperation(hamiltonCycle), 5, "Memetic Genetic Algo using Christofides Tour",
+                "Memetic Genetic TSP with Christofides tour cost :"
+                        + Math.round(Christofides.calculateTourLength(memetictsp, distances) * 100.0) / 100.0 + " meters" + ", "
+                        + "Time taken for Memetic Genetic Algo with Christofides tour=" + (endTime15 - startTime15)
+                        + " milliseconds",
+                true);
+
+        System.out.println();
+
+        // EAX Genetic algo with Christofides Tour
+        long startTime16 = System.currentTimeMillis();
+        List<Node> eaxtsp = TSPGenetic.TSPGenEAXAlgo(hamiltonCycle, distances);
+        System.out.println("EAX Genetic TSP with Christofides tour cost :"
+                + Math.round(Christofides.calculateTourLength(eaxtsp, distances) * 100.0) / 100.0 + " meters");
+        long endTime16 = System.currentTimeMillis();
+        System.out.println("Time taken for EAX Genetic Algo with Christofides tour=" + (endTime16 - startTime16)
+                + " milliseconds");
+
+        visualization(graph.getNodes(), Christofides.calcGraphOperation(eaxtsp),
+                Christofides.calcGraphOperation(hamiltonCycle), 5, "EAX Genetic Algo using Christofides Tour",
+                "EAX Genetic TSP with Christofides tour cost :"
+                        + Math.round(Christofides.calculateTourLength(eaxtsp, distances) * 100.0) / 100.0 + " meters" + ", "
+                        + "Time taken for EAX Genetic Algo with Christofides tour=" + (endTime16 - startTime16)
+                        + " milliseconds",
+                true);
+
+        System.out.println();
+
         // 3OPT
 //		List<Node> threeOptTour = Christofides.ThreeOptChristofides(hamiltonCycle);
 //		System.out.println("TSP using three Opt :" + threeOptTour.size());
@@ -204,29 +331,29 @@ public class App {
 //		System.out.println("TSP using three Opt :" + threeOptTour.size());
 //		System.out.println("three Opt tour cost :" + Christofides.calculateTourLength(threeOptTour));
 
-        // K-Opt
-//        long startTime10 = System.currentTimeMillis();
-//        List<Node> KOptTour = Christofides.kOpt(hamiltonCycle, 5);
-//        System.out.println("K-Opt tour cost :" + Math.round(Christofides.calculateTourLength(KOptTour) * 100.0) / 100.0 + " meters");
-//        long endTime10 = System.currentTimeMillis();
-//        System.out.println("Time taken for K-Opt =" + (endTime10 - startTime10) / 1000 + " seconds");
-//        visualization(graph.getNodes(), Christofides.calcGraphOperation(KOptTour),
-//                Christofides.calcGraphOperation(hamiltonCycle), 5, "K-Opt using Christofides Tour",
-//                "K-Opt tour cost :" + Math.round(Christofides.calculateTourLength(KOptTour) * 100.0) / 100.0 + " meters"
-//                + ", " + "Time taken for K-Opt=" + (endTime10 - startTime10) / 1000 + " seconds",false);
-//        System.out.println();
-
-        // AntColony
-//        long startTime11 = System.currentTimeMillis();
-//        List<Node> ACOTour = Christofides.aCOpt(hamiltonCycle);
-//        System.out.println("Ant Colony tour cost :" + Math.round(Christofides.calculateTourLength(ACOTour) * 100.0) / 100.0 + " meters");
-//        long endTime11 = System.currentTimeMillis();
-//        System.out.println("Time taken for Ant Colony=" + (endTime11 - startTime11) / 1000 + " seconds");
-//        visualization(graph.getNodes(), Christofides.calcGraphOperation(ACOTour),
-//                Christofides.calcGraphOperation(hamiltonCycle), 5, "AntColony Optimization using Christofides Tour",
-//                "Ant Colony tour cost :" + Math.round(Christofides.calculateTourLength(ACOTour) * 100.0) / 100.0 + " meters"
-//                + ", " + "Time taken for Ant Colony=" + (endTime11 - startTime11) / 1000 + " seconds",false);
-//        System.out.println();
+        // K-Opt (Lin-Kernighan)
+        long startTime10 = System.currentTimeMillis();
+        List<Node> KOptTour = Christofides.kOpt(hamiltonCycle, LinKernighan.DEFAULT_MAX_DEPTH, distances);
+        System.out.println("K-Opt tour cost :" + Math.round(Christofides.calculateTourLength(KOptTour, distances) * 100.0) / 100.0 + " meters");
+        long endTime10 = System.currentTimeMillis();
+        System.out.println("Time taken for K-Opt =" + (endTime10 - startTime10) + " milliseconds");
+        visualization(graph.getNodes(), Christofides.calcGraphOperation(KOptTour),
+                Christofides.calcGraphOperation(hamiltonCycle), 5, "K-Opt using Christofides Tour",
+                "K-Opt tour cost :" + Math.round(Christofides.calculateTourLength(KOptTour, distances) * 100.0) / 100.0 + " meters"
+                + ", " + "Time taken for K-Opt=" + (endTime10 - startTime10) + " milliseconds",false);
+        System.out.println();
+
+        // AntColony (MAX-MIN ant system)
+        long startTime17 = System.currentTimeMillis();
+        List<Node> ACOTour = Christofides.aCOpt(hamiltonCycle, distances);
+        System.out.println("Ant Colony tour cost :" + Math.round(Christofides.calculateTourLength(ACOTour, distances) * 100.0) / 100.0 + " meters");
+        long endTime17 = System.currentTimeMillis();
+        System.out.println("Time taken for Ant Colony=" + (endTime17 - startTime17) + " milliseconds");
+        visualization(graph.getNodes(), Christofides.calcGraphOperation(ACOTour),
+                Christofides.calcGraphOperation(hamiltonCycle), 5, "AntColony Optimization using Christofides Tour",
+                "Ant Colony tour cost :" + Math.round(Christofides.calculateTourLength(ACOTour, distances) * 100.0) / 100.0 + " meters"
+                + ", " + "Time taken for Ant Colony=" + (endTime17 - startTime17) + " milliseconds",false);
+        System.out.println();
     }
 
     public static Graph getNodesFromDataset() {
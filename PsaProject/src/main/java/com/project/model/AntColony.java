@@ -0,0 +1,321 @@
+package com.project.model;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+// MAX-MIN Ant System. Ants only choose among the nearest-neighbour candidates of their city, with
+// probability proportional to pheromone * eta^beta; the eta^beta part is computed once and multiplied
+// into a choice table after every pheromone update, so construction needs no Math.pow. When every
+// candidate is visited the ant takes the nearest unvisited city. Pheromone lives on candidate edges
+// only (one row of neighbors.k() per city). After each iteration every trail evaporates and a single
+// tour deposits 1 / length on its edges: the iteration best, or the best so far every
+// GLOBAL_BEST_INTERVAL iterations. Trails are kept within [tauMin, tauMax], both derived from the
+// best length, and reset to tauMax once the colony has not improved for STAGNATION iterations.
+// Ants build their tours in parallel on the common fork-join pool, each with its own random stream,
+// and the pheromone update runs in parallel with one row of the trail table per task.
+public class AntColony {
+
+    public static final int DEFAULT_ANTS = 25;
+    public static final int DEFAULT_ITERATIONS = 500;
+    public static final double DEFAULT_BETA = 3.0;
+    public static final double DEFAULT_EVAPORATION = 0.1;
+    static final int DEFAULT_CANDIDATES = 15;
+
+    static final int GLOBAL_BEST_INTERVAL = 10;
+    static final int STAGNATION = 150;
+    // probability that an ant builds the best tour once trails have converged, used to place tauMin
+    private static final double P_BEST = 0.05;
+
+    private final DistanceMatrix distances;
+    private final NeighborLists neighbors;
+    private final int ants;
+    private final int iterations;
+    private final double beta;
+    private final double evaporation;
+    private final long seed;
+    private double bestLength;
+    private int bestIteration;
+    private int resets;
+
+    public AntColony(DistanceMatrix distances) {
+        this(distances, NeighborLists.nearest(distances, DEFAULT_CANDIDATES), DEFAULT_ANTS, DEFAULT_ITERATIONS,
+                DEFAULT_BETA, DEFAULT_EVAPORATION, System.nanoTime());
+    }
+
+    public AntColony(DistanceMatrix distances, NeighborLists neighbors, int ants, int iterations, double beta,
+                     double evaporation, long seed) {
+        if (ants < 1) {
+            throw new IllegalArgumentException("at least one ant is needed");
+        }
+        if (evaporation <= 0 || evaporation >= 1) {
+            throw new IllegalArgumentException("evaporation must be in (0, 1)");
+        }
+        this.distances = distances;
+        this.neighbors = neighbors;
+        this.ants = ants;
+        this.iterations = iterations;
+        this.beta = beta;
+        this.evaporation = evaporation;
+        this.seed = seed;
+    }
+
+    public List<Node> optimise(List<Node> nodes) {
+        return optimise(Tour.of(nodes, distances)).toNodes();
+    }
+
+    // runs the colony and returns the best tour found, never longer than start; start is not modified
+    // and its first city stays first
+    public Tour optimise(Tour start) {
+        int[] cities = start.order();
+        int n = cities.length;
+        int[] best = cities.clone();
+        bestLength = Tour.length(best, distances);
+        bestIteration = 0;
+        resets = 0;
+        if (n < 5) {
+            return new Tour(start.getNodeStore(), best);
+        }
+        Trails trails = new Trails(cities);
+        // one random stream per ant, so a seeded run gives the same tour on any number of cores
+        SplittableRandom seeds = new SplittableRandom(seed);
+        Ant[] colony = new Ant[ants];
+        for (int a = 0; a < ants; a++) {
+            colony[a] = new Ant(cities, seeds.split());
+        }
+        int sinceImprovement = 0;
+
+        for (int iteration = 1; iteration <= iterations; iteration++) {
+            IntStream.range(0, ants).parallel().forEach(a -> colony[a].construct(trails));
+            Ant iterationBest = colony[0];
+            for (int a = 1; a < ants; a++) {
+                if (colony[a].length < iterationBest.length) {
+                    iterationBest = colony[a];
+                }
+            }
+            if (iterationBest.length < bestLength - TwoOpt.EPSILON) {
+                bestLength = iterationBest.length;
+                System.arraycopy(iterationBest.tour, 0, best, 0, n);
+                bestIteration = iteration;
+                sinceImprovement = 0;
+            } else if (++sinceImprovement >= STAGNATION) {
+                trails.reset();
+                resets++;
+                sinceImprovement = 0;
+                continue;
+            }
+            if (iteration % GLOBAL_BEST_INTERVAL == 0) {
+                trails.update(best, bestLength);
+            } else {
+                trails.update(iterationBest.tour, iterationBest.length);
+            }
+        }
+        return new Tour(start.getNodeStore(), rotate(best, cities[0]));
+    }
+
+    private static int[] rotate(int[] order, int first) {
+        int n = order.length;
+        int[] result = new int[n];
+        int offset = 0;
+        while (order[offset] != first) {
+            offset++;
+        }
+        for (int i = 0; i < n; i++) {
+            int p = offset + i;
+            result[i] = order[p >= n ? p - n : p];
+        }
+        return result;
+    }
+
+    // pheromone and choice values of the candidate edges, row city * k
+    final class Trails {
+        private final int[] cities;
+        private final int k;
+        private final double[] etaBeta;
+        private final double[] pheromone;
+        private final double[] choice;
+        // position of every city in the tour being deposited
+        private final int[] position;
+        private double tauMax;
+        private double tauMin;
+
+        Trails(int[] cities) {
+            this.cities = cities;
+            this.k = neighbors.k();
+            int storeSize = distances.size();
+            etaBeta = new double[storeSize * k];
+            pheromone = new double[storeSize * k];
+            choice = new double[storeSize * k];
+            position = new int[storeSize];
+            for (int city : cities) {
+                for (int r = 0; r < neighbors.count(city); r++) {
+                    double d = distances.distance(city, neighbors.get(city, r));
+                    // coincident cities get the heuristic of a very short edge instead of infinity
+                    etaBeta[city * k + r] = Math.pow(1.0 / Math.max(d, 1e-9), beta);
+                }
+            }
+            limits(bestLength);
+            reset();
+        }
+
+        private void limits(double length) {
+            tauMax = 1.0 / (evaporation * length);
+            double root = Math.pow(P_BEST, 1.0 / cities.length);
+            double average = cities.length / 2.0;
+            tauMin = Math.min(tauMax, tauMax * (1 - root) / ((average - 1) * root));
+        }
+
+        void reset() {
+            for (int city : cities) {
+                for (int r = 0; r < neighbors.count(city); r++) {
+                    pheromone[city * k + r] = tauMax;
+                    choice[city * k + r] = tauMax * etaBeta[city * k + r];
+                }
+            }
+        }
+
+        // evaporation on every candidate edge and a deposit of 1 / length along the given tour. Each
+        // city's row is a stripe that one task updates on its own: the row's deposits are the tour
+        // edges at that city, found through the city's tour position, so no two tasks touch the same
+        // entry and nothing is locked
+        void update(int[] tour, double length) {
+            limits(bestLength);
+            int n = tour.length;
+            for (int i = 0; i < n; i++) {
+                position[tour[i]] = i;
+            }
+            double keep = 1 - evaporation;
+            double deposit = 1.0 / length;
+            IntStream.range(0, cities.length).parallel().forEach(i -> {
+                int city = cities[i];
+                int p = position[city];
+                int prev = tour[p == 0 ? n - 1 : p - 1];
+                int next = tour[p + 1 == n ? 0 : p + 1];
+                for (int r = 0; r < neighbors.count(city); r++) {
+                    int slot = city * k + r;
+                    int other = neighbors.get(city, r);
+                    double tau = pheromone[slot] * keep;
+                    if (other == prev || other == next) {
+                        tau += deposit;
+                    }
+                    tau = Math.max(tauMin, Math.min(tauMax, tau));
+                    pheromone[slot] = tau;
+                    choice[slot] = tau * etaBeta[slot];
+                }
+            });
+        }
+    }
+
+    // one ant's construction state, random stream and last tour, reused every iteration
+    final class Ant {
+        private final int[] cities;
+        private final SplittableRandom random;
+        final int[] tour;
+        double length;
+        // unvisited cities in remaining[0 .. remainingCount - 1]; slot[c] is c's index there, -1 once
+        // visited and for cities of the store that are not on the tour
+        private final int[] remaining;
+        private final int[] slot;
+        private int remainingCount;
+        private final double[] weights;
+
+        Ant(int[] cities, SplittableRandom random) {
+            this.cities = cities;
+            this.random = random;
+            tour = new int[cities.length];
+            remaining = new int[cities.length];
+            slot = new int[distances.size()];
+            Arrays.fill(slot, -1);
+            weights = new double[neighbors.k()];
+        }
+
+        // builds a new tour and its length
+        void construct(Trails trails) {
+            int[] into = tour;
+            int n = cities.length;
+            for (int i = 0; i < n; i++) {
+                remaining[i] = cities[i];
+                slot[cities[i]] = i;
+            }
+            remainingCount = n;
+            int current = cities[random.nextInt(n)];
+            visit(current);
+            into[0] = current;
+            double length = 0;
+            for (int step = 1; step < n; step++) {
+                int next = chooseCandidate(trails, current);
+                if (next < 0) {
+                    next = nearestUnvisited(current);
+                }
+                visit(next);
+                into[step] = next;
+                length += distances.distance(current, next);
+                current = next;
+            }
+            this.length = length + distances.distance(current, into[0]);
+        }
+
+        private void visit(int city) {
+            int index = slot[city];
+            int last = remaining[--remainingCount];
+            remaining[index] = last;
+            slot[last] = index;
+            slot[city] = -1;
+        }
+
+        // roulette wheel over the unvisited candidates; -1 when all of them are visited
+        private int chooseCandidate(Trails trails, int city) {
+            int count = neighbors.count(city);
+            int row = city * trails.k;
+            double total = 0;
+            for (int r = 0; r < count; r++) {
+                double w = slot[neighbors.get(city, r)] >= 0 ? trails.choice[row + r] : 0;
+                weights[r] = w;
+                total += w;
+            }
+            if (total <= 0) {
+                return -1;
+            }
+            double x = random.nextDouble() * total;
+            int last = -1;
+            for (int r = 0; r < count; r++) {
+                if (weights[r] > 0) {
+                    last = r;
+                    x -= weights[r];
+                    if (x < 0) {
+                        break;
+                    }
+                }
+            }
+            return neighbors.get(city, last);
+        }
+
+        private int nearestUnvisited(int city) {
+            int nearest = remaining[0];
+            double nearestDistance = distances.distance(city, nearest);
+            for (int i = 1; i < remainingCount; i++) {
+                double d = distances.distance(city, remaining[i]);
+                if (d < nearestDistance) {
+                    nearestDistance = d;
+                    nearest = remaining[i];
+                }
+            }
+            return nearest;
+        }
+    }
+
+    public double getBestLength() {
+        return bestLength;
+    }
+
+    // iteration that found the returned tour, 0 when no ant beat the start tour
+    public int getBestIteration() {
+        return bestIteration;
+    }
+
+    // how often the trails were reset after stagnating
+    public int getResets() {
+        return resets;
+    }
+}
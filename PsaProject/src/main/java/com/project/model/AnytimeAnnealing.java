@@ -0,0 +1,119 @@
+package com.project.model;
+
+// Simulated annealing that runs for a wall-clock budget instead of a fixed schedule. The start
+// temperature is calibrated from sampled move deltas so that an average uphill move is accepted
+// with INITIAL_ACCEPTANCE. After that the temperature follows the acceptance rate: the target rate
+// decays geometrically from INITIAL_ACCEPTANCE to FINAL_ACCEPTANCE over the budget, and each block
+// of steps nudges the temperature towards it. stop() may be called from any thread; the run then
+// ends after the current block and hands back the best tour so far, which getBestSoFar() also
+// returns while the run is going. A stop is never cleared by optimise itself, so one issued before
+// the run starts still ends it at once; reset() makes the instance usable for another run.
+public class AnytimeAnnealing {
+
+    static final int CALIBRATION_SAMPLES = 2000;
+    static final double INITIAL_ACCEPTANCE = 0.5;
+    static final double FINAL_ACCEPTANCE = 0.001;
+    // steps between two looks at the clock, the acceptance rate and the stop flag
+    static final int BLOCK = 10000;
+    // bounds on how much one block may change the temperature
+    private static final double MAX_COOLING = 0.8;
+    private static final double MAX_WARMING = 1.1;
+
+    private final DistanceMatrix distances;
+    private final long seed;
+    private volatile boolean stopped;
+    private volatile Tour bestSoFar;
+    private double initialTemperature;
+    private double finalTemperature;
+    private long movesTried;
+
+    public AnytimeAnnealing(DistanceMatrix distances) {
+        this(distances, System.nanoTime());
+    }
+
+    public AnytimeAnnealing(DistanceMatrix distances, long seed) {
+        this.distances = distances;
+        this.seed = seed;
+    }
+
+    public Tour optimise(Tour start, long budgetMillis) {
+        long begin = System.nanoTime();
+        long deadline = begin + budgetMillis * 1000000L;
+        bestSoFar = start.copy();
+        if (start.size() < 5) {
+            return bestSoFar;
+        }
+        SimulatedAnnealing chain = new SimulatedAnnealing(distances, start, seed);
+        double temperature = calibrate(chain);
+        initialTemperature = temperature;
+        double published = chain.getBestCost();
+        while (!stopped && !Thread.currentThread().isInterrupted()) {
+            long now = System.nanoTime();
+            if (now >= deadline) {
+                break;
+            }
+            double progress = (now - begin) / (double) (deadline - begin);
+            double target = INITIAL_ACCEPTANCE * Math.pow(FINAL_ACCEPTANCE / INITIAL_ACCEPTANCE, progress);
+            int accepted = 0;
+            for (int step = 0; step < BLOCK; step++) {
+                if (chain.step(temperature)) {
+                    accepted++;
+                }
+            }
+            double rate = Math.max(accepted, 1) / (double) BLOCK;
+            // cool while more moves get through than the target allows, warm up when the chain freezes early
+            double factor = Math.pow(target / rate, 0.1);
+            temperature *= Math.max(MAX_COOLING, Math.min(MAX_WARMING, factor));
+            if (chain.getBestCost() < published) {
+                published = chain.getBestCost();
+                bestSoFar = chain.getBest();
+            }
+        }
+        finalTemperature = temperature;
+        movesTried = chain.getMovesTried();
+        return bestSoFar;
+    }
+
+    // start temperature at which the mean uphill delta of random proposals is accepted with INITIAL_ACCEPTANCE
+    private static double calibrate(SimulatedAnnealing chain) {
+        double uphill = 0;
+        int count = 0;
+        for (int i = 0; i < CALIBRATION_SAMPLES; i++) {
+            double delta = chain.propose();
+            if (delta > 0) {
+                uphill += delta;
+                count++;
+            }
+        }
+        if (count == 0) {
+            return 1;
+        }
+        return -(uphill / count) / Math.log(INITIAL_ACCEPTANCE);
+    }
+
+    // asks a running or upcoming optimise() to finish after its current block
+    public void stop() {
+        stopped = true;
+    }
+
+    // clears an earlier stop() before the next run
+    public void reset() {
+        stopped = false;
+    }
+
+    public Tour getBestSoFar() {
+        return bestSoFar;
+    }
+
+    public double getInitialTemperature() {
+        return initialTemperature;
+    }
+
+    public double getFinalTemperature() {
+        return finalTemperature;
+    }
+
+    public long getMovesTried() {
+        return movesTried;
+    }
+}
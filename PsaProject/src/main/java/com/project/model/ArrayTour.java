@@ -0,0 +1,111 @@
+package com.project.model;
+
+import java.util.Arrays;
+
+// Tour stored as an order array plus the position of every city, so next/prev/between are O(1).
+// Cities of the store that are not on the tour have position -1. A reversal flips the shorter of
+// the two paths, which costs up to n/2 swaps; TwoLevelTour is the choice for large tours.
+public class ArrayTour implements OrientedTour {
+
+    private final int[] order;
+    private final int[] pos;
+    private final int n;
+
+    public ArrayTour(int[] cities, int storeSize) {
+        this.order = cities.clone();
+        this.n = order.length;
+        this.pos = new int[storeSize];
+        Arrays.fill(pos, -1);
+        for (int i = 0; i < n; i++) {
+            pos[order[i]] = i;
+        }
+    }
+
+    @Override
+    public int size() {
+        return n;
+    }
+
+    @Override
+    public boolean contains(int city) {
+        return pos[city] >= 0;
+    }
+
+    @Override
+    public int next(int city) {
+        int p = pos[city] + 1;
+        return order[p == n ? 0 : p];
+    }
+
+    @Override
+    public int prev(int city) {
+        int p = pos[city] - 1;
+        return order[p < 0 ? n - 1 : p];
+    }
+
+    @Override
+    public boolean between(int a, int b, int c) {
+        int pa = pos[a];
+        int pb = pos[b];
+        int pc = pos[c];
+        if (pa <= pc) {
+            return pa <= pb && pb <= pc;
+        }
+        return pb >= pa || pb <= pc;
+    }
+
+    @Override
+    public void reversePath(int from, int to) {
+        int i = pos[from];
+        int j = pos[to];
+        int length = j - i;
+        if (length < 0) {
+            length += n;
+        }
+        length++;
+        if (2 * length > n) {
+            // flipping the rest of the tour gives the same cycle for less work
+            int start = j + 1 == n ? 0 : j + 1;
+            j = i == 0 ? n - 1 : i - 1;
+            i = start;
+            length = n - length;
+        }
+        for (int s = 0; s < length / 2; s++) {
+            int ci = order[i];
+            int cj = order[j];
+            order[i] = cj;
+            pos[cj] = i;
+            order[j] = ci;
+            pos[ci] = j;
+            i = i + 1 == n ? 0 : i + 1;
+            j = j == 0 ? n - 1 : j - 1;
+        }
+    }
+
+    @Override
+    public int[] toOrder(int first) {
+        int[] result = new int[n];
+        writeOrder(first, result);
+        return result;
+    }
+
+    // toOrder into an existing array
+    void writeOrder(int first, int[] into) {
+        int start = pos[first];
+        for (int i = 0; i < n; i++) {
+            int p = start + i;
+            into[i] = order[p >= n ? p - n : p];
+        }
+    }
+
+    // replaces the tour by another order of the same cities, so one instance can serve many tours
+    void load(int[] cities) {
+        for (int city : order) {
+            pos[city] = -1;
+        }
+        System.arraycopy(cities, 0, order, 0, n);
+        for (int i = 0; i < n; i++) {
+            pos[order[i]] = i;
+        }
+    }
+}
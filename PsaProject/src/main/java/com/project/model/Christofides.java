@@ -1,6 +1,5 @@
 package com.project.model;
 
-import com.project.utility.DeepCopyUtils;
 import com.project.visualization.GraphOperation;
 
 import java.util.*;
@@ -20,7 +19,11 @@ public class Christofides {
     }
 
     public static List<Edge> findMST(Graph graph) {
-        List<Edge> kruskaledges = graph.kruskalMST();
+        return findMST(graph, Graph.MstAlgorithm.KRUSKAL);
+    }
+
+    public static List<Edge> findMST(Graph graph, Graph.MstAlgorithm algorithm) {
+        List<Edge> kruskaledges = graph.minimumSpanningTree(algorithm);
         for (Edge e : kruskaledges) {
             kruskalgos.add(GraphOperation.addEdge(e));
         }
@@ -48,43 +51,44 @@ public class Christofides {
         return oddDegreeNodes;
     }
 
-    public static List<Edge> getMinimumWeightPerfectMatching(List<Node> oddDegreeNodes) {
-        Graph subgraph = new Graph(oddDegreeNodes);
-        subgraph.connectAllNodes();
-        return subgraph.getMinimumWeightPerfectMatching();
-    }
+    // the blossom matching is cubic: about half a second at this many odd-degree nodes
+    public static final int EXACT_MATCHING_LIMIT = 700;
 
-    private static void dfs(Node node, List<Node> eulerTour, List<Edge> edges, Set<Node> visited,
-                            Map<Node, List<Node>> adjacenyMatrix) {
+    // exact blossom matching while the odd-degree set is small enough, spatial greedy plus 2-opt beyond
+    public static PerfectMatching.Mode matchingMode(int oddDegreeCount) {
+        return oddDegreeCount <= EXACT_MATCHING_LIMIT ? PerfectMatching.Mode.BLOSSOM : PerfectMatching.Mode.GREEDY;
+    }
 
-        visited.add(node);
-        for (Node v : adjacenyMatrix.get(node)) {
-            if (!visited.contains(v)) {
-                eulerTour.add(node);
-                eulerTour.add(v);
+    public static List<Edge> getMinimumWeightPerfectMatching(List<Node> oddDegreeNodes) {
+        return getMinimumWeightPerfectMatching(oddDegreeNodes, matchingMode(oddDegreeNodes.size()));
+    }
 
-                Edge matchedEdge = edges.get(0);
-                for (Edge edge : edges) {
-                    if (edge.source.crimeId == node.crimeId && edge.destination.crimeId == v.crimeId) {
-                        matchedEdge = edge;
-                        break;
-                    }
-                }
-                edges.remove(matchedEdge);
-                dfs(v, eulerTour, edges, visited, adjacenyMatrix);
-            }
-        }
+    public static List<Edge> getMinimumWeightPerfectMatching(List<Node> oddDegreeNodes, PerfectMatching.Mode mode) {
+        return new PerfectMatching(mode).match(oddDegreeNodes);
     }
 
     // Step 5: Find an Eulerian circuit in the Eulerian graph
+    // Hierholzer's algorithm over the MST plus matching edges, with an explicit stack so long
+    // circuits cannot overflow the call stack. Each walked edge is removed from both endpoints.
     public static List<Node> eulerTour(Graph graph, List<Edge> mst, List<Edge> perfEdges) {
         List<Node> eulerTour = new ArrayList<>();
         List<Edge> combineEdges = new ArrayList<>(mst);
         combineEdges.addAll(perfEdges);
-        Map<Node, List<Node>> adjacencyMatrix = graph.adjacencyMatrix();
-        Set<Node> visited = new HashSet<>();
-        Node startNode = combineEdges.get(0).source;
-        dfs(startNode, eulerTour, combineEdges, visited, adjacencyMatrix);
+        Map<Node, List<Node>> adjacencyMatrix = graph.adjacencyMatrix(combineEdges);
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(combineEdges.get(0).source);
+        while (!stack.isEmpty()) {
+            Node node = stack.peek();
+            List<Node> neighbours = adjacencyMatrix.get(node);
+            if (neighbours.isEmpty()) {
+                eulerTour.add(stack.pop());
+            } else {
+                Node next = neighbours.remove(neighbours.size() - 1);
+                adjacencyMatrix.get(next).remove(node);
+                stack.push(next);
+            }
+        }
+        Collections.reverse(eulerTour);
         return eulerTour;
     }
 
@@ -102,93 +106,70 @@ public class Christofides {
     }
 
     public static List<Node> randomSwapOptimise(List<Node> tspTour, Integer iterations) {
-        List<Node> randomSwapTour = tspTour;
-        double currMaxTourLength = calculateTourLength(randomSwapTour);
-        for (int i = 0; i < iterations; i++) {
-            int randomIndexOne = (int) (Math.random() * tspTour.size());
-            int randomIndexTwo = (int) (Math.random() * tspTour.size());
-            List<Node> swappedTour = DeepCopyUtils.deepCopy(randomSwapTour);
-            swap(swappedTour, randomIndexOne, randomIndexTwo);
-            double swappedTourLength = calculateTourLength(swappedTour);
-            if (swappedTourLength < currMaxTourLength) {
-                currMaxTourLength = swappedTourLength;
-                randomSwapTour = DeepCopyUtils.deepCopy(swappedTour);
-            }
-        }
-        return randomSwapTour;
+        return randomSwapOptimise(tspTour, iterations, DistanceMatrix.forNodes(tspTour));
+    }
+
+    public static List<Node> randomSwapOptimise(List<Node> tspTour, Integer iterations, DistanceMatrix distances) {
+        return randomSwapOptimise(Tour.of(tspTour, distances), iterations, distances).toNodes();
+    }
+
+    // improving random swaps scored from the edges they touch, see RandomSwap; tspTour is not modified
+    public static Tour randomSwapOptimise(Tour tspTour, int iterations, DistanceMatrix distances) {
+        return new RandomSwap(distances).optimise(tspTour, iterations);
+    }
+
+    public static List<Node> iteratedLocalSearch(List<Node> tour, DistanceMatrix distances, long budgetMillis) {
+        return iteratedLocalSearch(Tour.of(tour, distances), distances, budgetMillis).toNodes();
+    }
+
+    // double-bridge kicks and neighbour-list 2-opt/Or-opt for the given wall-clock time
+    public static Tour iteratedLocalSearch(Tour tour, DistanceMatrix distances, long budgetMillis) {
+        return new IteratedLocalSearch(distances).optimise(tour, budgetMillis);
     }
 
     public static List<Node> twoOpt(List<Node> nodes) {
-        boolean improved = true;
-        while (improved) {
-            improved = false;
-            for (int i = 1; i < nodes.size() - 1; i++) {
-                for (int j = i + 1; j < nodes.size(); j++) {
-                    double distanceBefore = calculateTourLength(nodes);
-                    List<Node> newNodes = twoOptSwap(nodes, i, j);
-                    double distanceAfter = calculateTourLength(newNodes);
-                    if (distanceAfter < distanceBefore) {
-                        nodes = newNodes;
-                        improved = true;
-                    }
-                }
-            }
-        }
-        return nodes;
+        return twoOpt(nodes, DistanceMatrix.forNodes(nodes));
     }
 
-    private static List<Node> twoOptSwap(List<Node> nodes, int i, int j) {
-        List<Node> newNodes = new ArrayList<Node>();
-        for (int k = 0; k < i; k++) {
-            newNodes.add(nodes.get(k));
-        }
-        for (int k = j; k >= i; k--) {
-            newNodes.add(nodes.get(k));
-        }
-        for (int k = j + 1; k < nodes.size(); k++) {
-            newNodes.add(nodes.get(k));
-        }
-        return newNodes;
+    public static List<Node> twoOpt(List<Node> nodes, DistanceMatrix distances) {
+        return twoOpt(Tour.of(nodes, distances), distances).toNodes();
+    }
+
+    // improves the tour in place, see TwoOpt
+    public static Tour twoOpt(Tour nodes, DistanceMatrix distances) {
+        return new TwoOpt(distances).optimise(nodes);
+    }
+
+    public static Tour twoOpt(Tour nodes, DistanceMatrix distances, TwoOpt.Strategy strategy) {
+        return new TwoOpt(distances, strategy).optimise(nodes);
     }
 
     // 3 OPT
     public static List<Node> threeOpt(List<Node> tour) {
+        return threeOpt(tour, DistanceMatrix.forNodes(tour));
+    }
+
+    public static List<Node> threeOpt(List<Node> tour, DistanceMatrix distances) {
+        return threeOpt(Tour.of(tour, distances), distances).toNodes();
+    }
+
+    // exhaustive 3-opt: every triple of edges (a,b) (c,d) (e,f) is cut and the best of the seven
+    // reconnections is applied if it shortens the tour. The old version compared moves it did not
+    // apply and looped forever; this one only takes real gains, so it settles. O(n^3) per pass, see
+    // kOpt for the neighbour-list Lin-Kernighan that scales
+    public static Tour threeOpt(Tour tour, DistanceMatrix distances) {
+        int[] t = tour.order();
+        int n = t.length;
         boolean improvement = true;
         while (improvement) {
             improvement = false;
-            for (int i = 0; i < tour.size() - 3; i++) {
-                for (int j = i + 2; j < tour.size() - 1; j++) {
-                    for (int k = j + 2; k < tour.size(); k++) {
-                        double distA = Graph.calculateDistance(tour.get(i), tour.get(i + 1))
-                                + Graph.calculateDistance(tour.get(j), tour.get(j + 1))
-                                + Graph.calculateDistance(tour.get(k), tour.get(k - 1));
-                        double distB = Graph.calculateDistance(tour.get(i), tour.get(j))
-                                + Graph.calculateDistance(tour.get(i + 1), tour.get(j + 1))
-                                + Graph.calculateDistance(tour.get(k), tour.get(k - 1));
-                        double distC = Graph.calculateDistance(tour.get(i), tour.get(j + 1))
-                                + Graph.calculateDistance(tour.get(i + 1), tour.get(j))
-                                + Graph.calculateDistance(tour.get(k), tour.get(k - 1));
-                        double distD = Graph.calculateDistance(tour.get(i), tour.get(j + 1))
-                                + Graph.calculateDistance(tour.get(i + 1), tour.get(k))
-                                + Graph.calculateDistance(tour.get(j), tour.get(k - 1));
-                        double distE = Graph.calculateDistance(tour.get(i), tour.get(k))
-                                + Graph.calculateDistance(tour.get(j + 1), tour.get(i + 1))
-                                + Graph.calculateDistance(tour.get(j), tour.get(k - 1));
-                        if (distB < distA) {
-                            reverse(tour, i + 1, j);
-                            reverse(tour, j + 1, k);
-                            improvement = true;
-                        } else if (distC < distA) {
-                            swap1(tour, i + 1, j);
-                            swap1(tour, j + 1, k);
-                            improvement = true;
-                        } else if (distD < distA) {
-                            swap1(tour, i + 1, k);
-                            reverse(tour, j + 1, k);
-                            improvement = true;
-                        } else if (distE < distA) {
-                            swap1(tour, i + 1, j);
-                            swap1(tour, k, j + 1);
+            for (int i = 0; i < n - 2; i++) {
+                for (int j = i + 1; j < n - 1; j++) {
+                    for (int k = j + 1; k < n; k++) {
+                        if (i == 0 && k == n - 1) {
+                            continue;
+                        }
+                        if (threeOptMove(tour, distances, i, j, k)) {
                             improvement = true;
                         }
                     }
@@ -198,6 +179,64 @@ public class Christofides {
         return tour;
     }
 
+    // segments a | b..c | d..e | f with a at i, c at j, e at k
+    private static boolean threeOptMove(Tour tour, DistanceMatrix distances, int i, int j, int k) {
+        int[] t = tour.order();
+        int a = t[i], b = t[i + 1], c = t[j], d = t[j + 1], e = t[k], f = t[(k + 1) % t.length];
+        double removed = distances.distance(a, b) + distances.distance(c, d) + distances.distance(e, f);
+        double[] added = {
+                // 2-opt moves, one edge kept
+                distances.distance(a, c) + distances.distance(b, d) + distances.distance(e, f),
+                distances.distance(a, b) + distances.distance(c, e) + distances.distance(d, f),
+                distances.distance(a, e) + distances.distance(d, c) + distances.distance(b, f),
+                // pure 3-opt moves
+                distances.distance(a, c) + distances.distance(b, e) + distances.distance(d, f),
+                distances.distance(a, d) + distances.distance(e, c) + distances.distance(b, f),
+                distances.distance(a, e) + distances.distance(d, b) + distances.distance(c, f),
+                distances.distance(a, d) + distances.distance(e, b) + distances.distance(c, f) };
+        int best = -1;
+        double gain = 1e-9;
+        for (int m = 0; m < added.length; m++) {
+            if (removed - added[m] > gain) {
+                gain = removed - added[m];
+                best = m;
+            }
+        }
+        // each reconnection as reversals of b..c, d..e and b..e
+        int tail = i + 1 + k - j;
+        switch (best) {
+            case 0:
+                tour.reverse(i + 1, j);
+                break;
+            case 1:
+                tour.reverse(j + 1, k);
+                break;
+            case 2:
+                tour.reverse(i + 1, k);
+                break;
+            case 3:
+                tour.reverse(i + 1, j);
+                tour.reverse(j + 1, k);
+                break;
+            case 4:
+                tour.reverse(i + 1, k);
+                tour.reverse(i + 1, tail - 1);
+                break;
+            case 5:
+                tour.reverse(i + 1, k);
+                tour.reverse(tail, k);
+                break;
+            case 6:
+                tour.reverse(i + 1, k);
+                tour.reverse(i + 1, tail - 1);
+                tour.reverse(tail, k);
+                break;
+            default:
+                return false;
+        }
+        return true;
+    }
+
     public static void reverse(List<Node> tour, int start, int end) {
         while (start < end) {
             Node tmp = tour.get(start);
@@ -217,6 +256,14 @@ public class Christofides {
 
     // 3 OPT Second Method
     public static List<Node> threeOptChristofides(List<Node> nodes) {
+        return threeOptChristofides(nodes, DistanceMatrix.forNodes(nodes));
+    }
+
+    public static List<Node> threeOptChristofides(List<Node> nodes, DistanceMatrix distances) {
+        return threeOptChristofides(Tour.of(nodes, distances), distances).toNodes();
+    }
+
+    public static Tour threeOptChristofides(Tour nodes, DistanceMatrix distances) {
         int improvementCount = 0;
         do {
             improvementCount = 0;
@@ -224,8 +271,8 @@ public class Christofides {
                 for (int j = i + 1; j < nodes.size() - 1; j++)
                     for (int k = j + 1; k < nodes.size(); k++) {
 
-                        List<Node> newNodes = Swap(nodes, i, j, k);
-                        if (Christofides.calculateTourLength(newNodes) < Christofides.calculateTourLength(nodes)) {
+                        Tour newNodes = Swap(nodes, i, j, k);
+                        if (newNodes.length(distances) < nodes.length(distances)) {
                             nodes = newNodes;
                             improvementCount++;
                         }
@@ -250,297 +297,107 @@ public class Christofides {
 
         return newCities;
     }
-    // 3 OPT second Method finish
 
-    // K Opt tour
-    public static List<Node> kOpt(List<Node> tour, int k) {
-        int n = tour.size();
-        List<Node> segment = new ArrayList<>(k + 1);
-        List<Node> newTour = new ArrayList<>(n);
-        List<Node> flipped = new ArrayList<>(k + 1);
-
-        for (Node node : tour) {
-            newTour.add(node);
-        }
+    public static Tour Swap(Tour nodes, int i, int j, int k) {
+        int[] cities = nodes.order();
+        int[] newCities = new int[cities.length];
+        int count = 0;
+        for (int x = 0; x <= i; x++)
+            newCities[count++] = cities[x];
 
-        for (int i = 0; i < n - k; i++) {
-            for (int j = i + k; j < n; j++) {
-                segment.clear();
-                flipped.clear();
-                for (int x = 0; x <= k; x++) {
-                    segment.add(newTour.get((i + x) % n));
-                }
+        for (int x = j + 1; x <= k; x++)
+            newCities[count++] = cities[x];
 
-                int count = 0;
-                for (int x = k; x >= 0; x--) {
-                    flipped.add(segment.get(x));
-                    count++;
-                }
+        for (int x = i + 1; x <= j; x++)
+            newCities[count++] = cities[x];
 
-                count = 0;
-                for (int x = i + 1; x < i + k; x++) {
-                    newTour.set(x, flipped.get(count));
-                    count++;
-                }
+        for (int x = k + 1; x < cities.length; x++)
+            newCities[count++] = cities[x];
 
-                count = 0;
-                for (int x = i + k; x <= j; x++) {
-                    newTour.set(x, segment.get(count));
-                    count++;
-                }
+        return new Tour(nodes.getNodeStore(), newCities);
+    }
+    // 3 OPT second Method finish
 
-                count = 0;
-                for (int x = j + 1; x < n; x++) {
-                    newTour.set(x, tour.get((i + k + 1 + count) % n));
-                    count++;
-                }
+    // K Opt tour
+    public static List<Node> kOpt(List<Node> tour, int k) {
+        return kOpt(tour, k, DistanceMatrix.forNodes(tour));
+    }
 
-                if (calculateTourLength(newTour) < calculateTourLength(tour)) {
-                    tour.clear();
-                    for (Node node : newTour) {
-                        tour.add(node);
-                    }
-                }
-            }
-        }
+    public static List<Node> kOpt(List<Node> tour, int k, DistanceMatrix distances) {
+        return kOpt(Tour.of(tour, distances), k, distances).toNodes();
+    }
 
-        return tour;
+    // k is the deepest chain of sequential exchanges Lin-Kernighan may build from one edge
+    public static Tour kOpt(Tour tour, int k, DistanceMatrix distances) {
+        NeighborLists neighbors = NeighborLists.nearest(distances, LinKernighan.DEFAULT_NEIGHBORS);
+        return new LinKernighan(distances, neighbors, k).optimise(tour);
     }
 
     // K Opt tour finish
 
     // SIMULATED ANNEALING
     public static List<Node> simulatedAnnealingOptimizeTour(List<Node> tour) {
-        Random rand = new Random();
-        double temperature = 700;
-        // double coolingRate = 0.003;
-        double coolingRate = 0.00001;
-        List<Node> currentSolution = new ArrayList<>(tour);
-        List<Node> bestSolution = new ArrayList<>(tour);
-
-        while (temperature > 1) {
-            List<Node> newSolution = new ArrayList<>(currentSolution);
-
-            // Generate a new neighboring solution by randomly swapping two nodes
-            int i = rand.nextInt(newSolution.size() - 1) + 1;
-            int j = rand.nextInt(newSolution.size() - 1) + 1;
-            Node tmp = newSolution.get(i);
-            newSolution.set(i, newSolution.get(j));
-            newSolution.set(j, tmp);
-
-            // Compute the cost of the new and current solutions
-//            double currentCost = computeTourCost(currentSolution);
-//            double newCost = computeTourCost(newSolution);
-            double currentCost = calculateTourLength(currentSolution);
-            double newCost = calculateTourLength(newSolution);
-
-            // Decide whether to accept the new solution or not
-            if (newCost < currentCost) {
-                currentSolution = new ArrayList<>(newSolution);
-            } else if (Math.exp((currentCost - newCost) / temperature) > rand.nextDouble()) {
-                currentSolution = new ArrayList<>(newSolution);
-            }
-
-            // Update the best solution found so far
-            if (calculateTourLength(currentSolution) < calculateTourLength(bestSolution)) {
-                bestSolution = new ArrayList<>(currentSolution);
-            }
-
-            // Decrease the temperature
-            temperature *= 1 - coolingRate;
-        }
-
-        return currentSolution;
+        return simulatedAnnealingOptimizeTour(tour, DistanceMatrix.forNodes(tour));
     }
-    // SIMULATED ANNEALING FINISH
-
-    // ANT COLONY OPTIMIZATION
-    // In this example, we're creating an instance of AntColonyOptimization with 10
-    // ants, alpha = 1.0, beta = 5.0, evaporation rate = 0.5, and Q = 100.0.
-    public static class Ant {
-
-        private final List<Integer> visited;
-        private final boolean[] visitedArray;
-        private int current;
-        private List<Node> nodes;
-        private int numNodes;
-        private double[][] distances;
-
-        public Ant(int start, List<Node> nodes, double[][] distances) {
-            this.distances = distances;
-            this.nodes = nodes;
-            this.numNodes = nodes.size();
-            this.visited = new ArrayList<>(numNodes);
-            this.visitedArray = new boolean[numNodes];
-            this.current = start;
-            visited.add(current);
-            visitedArray[current] = true;
-            //();
-        }
-
-        public boolean isComplete() {
-            return visited.size() == numNodes;
-        }
 
-        public void move(double[][] distances, double[][] pheromones, double alpha, double beta, Random rand) {
-            double[] probabilities = new double[numNodes];
-            double totalProb = 0.0;
-
-            // Calculate probabilities for next move
-            for (int i = 0; i < numNodes; i++) {
-                if (!visitedArray[i]) {
-                    double pheromone = Math.pow(pheromones[current][i], alpha);
-                    double distance = Math.pow(1.0 / distances[current][i], beta);
-                    probabilities[i] = pheromone * distance;
-                    totalProb += probabilities[i];
-                }
-            }
-
-            // Choose next node randomly based on probabilities
-            double r = rand.nextDouble() * totalProb;
-            double sum = 0.0;
-            int next = -1;
-            for (int i = 0; i < numNodes; i++) {
-                if (!visitedArray[i]) {
-                    sum += probabilities[i];
-                    if (sum >= r) {
-                        next = i;
-                        break;
-                    }
-                }
-            }
+    public static List<Node> simulatedAnnealingOptimizeTour(List<Node> tour, DistanceMatrix distances) {
+        return simulatedAnnealingOptimizeTour(Tour.of(tour, distances), distances).toNodes();
+    }
 
-            // Move to next node
-            visited.add(next);
-            visitedArray[next] = true;
-            current = next;
-        }
+    // same 700 -> 1 geometric schedule as before, but each step is an O(1) delta on one tour and the
+    // best tour seen is returned rather than wherever the chain ended
+    public static Tour simulatedAnnealingOptimizeTour(Tour tour, DistanceMatrix distances) {
+        SimulatedAnnealing annealing = new SimulatedAnnealing(distances, tour, new SplittableRandom());
+        return annealing.anneal(SimulatedAnnealing.DEFAULT_START_TEMPERATURE,
+                SimulatedAnnealing.DEFAULT_END_TEMPERATURE, SimulatedAnnealing.DEFAULT_COOLING_RATE);
+    }
 
-        public double getTourLength(double[][] distances) {
-            double tourLength = 0.0;
-            for (int i = 0; i < visited.size() - 1; i++) {
-                int from = visited.get(i);
-                int to = visited.get(i + 1);
-                tourLength += distances[from][to];
-            }
-            tourLength += distances[visited.get(numNodes - 1)][visited.get(0)];
-            return tourLength;
-        }
+    public static List<Node> simulatedAnnealingOptimizeTour(List<Node> tour, DistanceMatrix distances,
+                                                            long budgetMillis) {
+        return simulatedAnnealingOptimizeTour(Tour.of(tour, distances), distances, budgetMillis).toNodes();
+    }
 
-        public List<Node> getTour(List<Node> nodes) {
-            List<Node> tour = new ArrayList<>(numNodes);
-            for (int i = 0; i < visited.size(); i++) {
-                tour.add(nodes.get(visited.get(i)));
-            }
-            return tour;
-        }
+    // time-budgeted variant: calibrated start temperature and cooling driven by the acceptance rate
+    public static Tour simulatedAnnealingOptimizeTour(Tour tour, DistanceMatrix distances, long budgetMillis) {
+        return new AnytimeAnnealing(distances).optimise(tour, budgetMillis);
+    }
+    // SIMULATED ANNEALING FINISH
 
-        public void reset(int start) {
-            visited.clear();
-            Arrays.fill(visitedArray, false);
-            current = start;
-            visited.add(current);
-            visitedArray[current] = true;
-        }
+    // PARALLEL TEMPERING
+    public static List<Node> parallelTemperingOptimizeTour(List<Node> tour, long budgetMillis) {
+        return parallelTemperingOptimizeTour(tour, DistanceMatrix.forNodes(tour), budgetMillis);
+    }
 
-        public boolean visits(int i, int j) {
-            int idx_i = visited.indexOf(i);
-            int idx_j = visited.indexOf(j);
-            if (idx_i == -1 || idx_j == -1) {
-                return false;
-            }
-            return Math.abs(idx_i - idx_j) == 1 || Math.abs(idx_i - idx_j) == numNodes - 1;
-        }
+    public static List<Node> parallelTemperingOptimizeTour(List<Node> tour, DistanceMatrix distances,
+                                                           long budgetMillis) {
+        return parallelTemperingOptimizeTour(Tour.of(tour, distances), distances, budgetMillis).toNodes();
+    }
 
-        public int getTourLength() {
-            return visited.size();
-        }
+    // one annealing replica per core for the given wall-clock time
+    public static Tour parallelTemperingOptimizeTour(Tour tour, DistanceMatrix distances, long budgetMillis) {
+        return new ParallelTempering(distances).optimise(tour, budgetMillis);
     }
+    // PARALLEL TEMPERING FINISH
 
+    // ANT COLONY OPTIMIZATION
     public static List<Node> aCOpt(List<Node> nodes) {
+        return aCOpt(nodes, DistanceMatrix.forNodes(nodes));
+    }
 
-        // initialize Attributes
-        Random rand = new Random();
-        int numNodes = nodes.size();
-
-        double alpha = 1.0;
-        double beta = 5.0; // can range in 1.0-5.0
-        double evaporationRate = 0.5; // can range in 0.1-0.5
-        double initialPheromoneLevel = 1.0;
-        int maxIterations = 100;
-        int numAnts = 10;
-
-        double[][] pheromones = new double[numNodes][numNodes];
-        for (int i = 0; i < numNodes; i++) {
-            for (int j = i + 1; j < numNodes; j++) {
-                pheromones[i][j] = initialPheromoneLevel;
-                pheromones[j][i] = initialPheromoneLevel;
-            }
-        }
-        double distances[][] = new double[numNodes][numNodes];
-        for (int i = 0; i < numNodes; i++) {
-            for (int j = 0; j < numNodes; j++) {
-                distances[i][j] = Graph.calculateDistance(nodes.get(i), nodes.get(j));
-            }
-        }
-
-        // Initialize ants
-        Ant[] ants = new Ant[numAnts];
-        for (int i = 0; i < numAnts; i++) {
-            ants[i] = new Ant(rand.nextInt(numNodes), nodes, distances);
-        }
-
-        // Main loop
-        for (int iter = 0; iter < maxIterations; iter++) {
-            // Move ants
-            for (Ant ant : ants) {
-                while (!ant.isComplete()) {
-                    ant.move(distances, pheromones, alpha, beta, rand);
-                }
-            }
-
-            // Update pheromones
-            for (int i = 0; i < numNodes; i++) {
-                for (int j = i + 1; j < numNodes; j++) {
-                    double deltaPheromone = 0.0;
-                    for (Ant ant : ants) {
-                        if (ant.visits(i, j)) {
-                            deltaPheromone += 1.0 / ant.getTourLength();
-                        }
-                    }
-                    pheromones[i][j] = (1 - evaporationRate) * pheromones[i][j] + deltaPheromone;
-                    pheromones[j][i] = pheromones[i][j];
-                }
-            }
-
-            // Reset ants
-            for (Ant ant : ants) {
-                ant.reset(rand.nextInt(numNodes));
-            }
-        }
+    public static List<Node> aCOpt(List<Node> nodes, DistanceMatrix distanceMatrix) {
+        return aCOpt(Tour.of(nodes, distanceMatrix), distanceMatrix).toNodes();
+    }
 
-        // Return best tour found by any ant
-        double bestTourLength = Double.MAX_VALUE;
-        List<Node> bestTour = null;
-        for (Ant ant : ants) {
-            double tourLength = ant.getTourLength(distances);
-            if (tourLength < bestTourLength) {
-                bestTourLength = tourLength;
-                bestTour = ant.getTour(nodes);
-            }
-        }
-        return bestTour;
+    // MAX-MIN ant system on nearest-neighbour candidate lists, see AntColony
+    public static Tour aCOpt(Tour nodes, DistanceMatrix distanceMatrix) {
+        return new AntColony(distanceMatrix).optimise(nodes);
     }
 
     // ANT COLONY OPTIMIZATION FINISH
 
-    private static void swap(List<Node> nodes, Integer i, Integer j) {
-        Node nodeI = nodes.get(i);
-        Node nodeJ = nodes.get(j);
-        nodes.set(i, nodeJ);
-        nodes.set(j, nodeI);
-    }
-
+    // original haversine version, kept as is for the baseline tests whose expected costs were recorded
+    // with it: the i < size - 2 bound leaves out the edge into the last node. Report costs with
+    // calculateTourLength(tour, distances), which matches the Tour.length the solvers minimise
     public static double calculateTourLength(List<Node> tour) {
         double length = 0;
         for (int i = 0; i < tour.size() - 2; i++) {
@@ -557,4 +414,16 @@ public class Christofides {
         length += Graph.calculateDistance(source, destination);
         return length;
     }
+
+    // length of the closed tour read from a precomputed matrix, every edge included as in Tour.length
+    public static double calculateTourLength(List<Node> tour, DistanceMatrix distances) {
+        if (tour.size() < 2) {
+            return 0;
+        }
+        double length = distances.distance(tour.get(tour.size() - 1), tour.get(0));
+        for (int i = 0; i < tour.size() - 1; i++) {
+            length += distances.distance(tour.get(i), tour.get(i + 1));
+        }
+        return length;
+    }
 }
\ No newline at end of file
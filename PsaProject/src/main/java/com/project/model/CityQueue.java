@@ -0,0 +1,47 @@
+package com.project.model;
+
+// FIFO of cities whose don't-look bit is off; a city is queued at most once at a time.
+class CityQueue {
+
+    private final int[] queue;
+    private final boolean[] queued;
+    private int head;
+    private int size;
+
+    // capacity is the number of cities on the tour, storeSize the range of city indices
+    CityQueue(int capacity, int storeSize) {
+        this.queue = new int[capacity];
+        this.queued = new boolean[storeSize];
+    }
+
+    void push(int city) {
+        if (!queued[city]) {
+            queued[city] = true;
+            int tail = head + size;
+            queue[tail >= queue.length ? tail - queue.length : tail] = city;
+            size++;
+        }
+    }
+
+    int poll() {
+        int city = queue[head];
+        head = head + 1 == queue.length ? 0 : head + 1;
+        size--;
+        queued[city] = false;
+        return city;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        while (size > 0) {
+            poll();
+        }
+    }
+
+    int capacity() {
+        return queue.length;
+    }
+}
@@ -0,0 +1,39 @@
+package com.project.model;
+
+// Distance "matrix" that stores nothing per pair: every lookup runs the haversine on coordinates
+// converted to radians once per node, so memory stays O(n) at any size. Used above
+// DistanceMatrix.MAX_MAPPED_NODES, where even the memory-mapped float triangle would not fit on disk;
+// neighbour-list search only looks at O(n * k) pairs, so the extra trig per lookup is affordable there.
+public class ComputedDistanceMatrix extends DistanceMatrix {
+
+    private final double[] lat;
+    private final double[] lon;
+    private final double[] cosLat;
+
+    public ComputedDistanceMatrix(NodeStore store) {
+        super(store);
+        int n = store.size();
+        lat = new double[n];
+        lon = new double[n];
+        cosLat = new double[n];
+        for (int i = 0; i < n; i++) {
+            lat[i] = Math.toRadians(store.latitude(i));
+            lon[i] = Math.toRadians(store.longitude(i));
+            cosLat[i] = Math.cos(lat[i]);
+        }
+    }
+
+    @Override
+    public double distance(int i, int j) {
+        if (i == j) {
+            return 0;
+        }
+        // larger index first, the argument order PackedDistanceMatrix fills its rows in
+        if (i < j) {
+            int tmp = i;
+            i = j;
+            j = tmp;
+        }
+        return Graph.haversine(lat[i], lon[i], cosLat[i], lat[j], lon[j], cosLat[j]);
+    }
+}
@@ -0,0 +1,592 @@
+package com.project.model;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+// Delaunay triangulation of points in the plane by the sweep-hull algorithm: points are inserted in
+// order of their distance from the circumcentre of a seed triangle, each new point is joined to the
+// part of the convex hull it can see, and new triangles are legalised by edge flips until every
+// triangle has an empty circumcircle. A hash over the hull by pseudo-angle finds the visible part of
+// the hull in near-constant time, so the whole run is O(n log n) in practice, dominated by the sort.
+// Triangles are stored as three consecutive corner indices in triangles[], clockwise, and
+// halfedges[e] is the opposite half-edge of half-edge e (from triangles[e] to the next corner), or -1
+// on the hull.
+// Points that coincide with an earlier one are not triangulated; edges() joins each of them to the
+// point it duplicates, so the edge graph always spans every point. When all points are collinear
+// there are no triangles and edges() is the path along the line.
+public final class Delaunay {
+
+    private static final double EPSILON = Math.ulp(1.0);
+    // relative rounding error bounds of the two floating-point determinants (after Shewchuk)
+    private static final double ORIENT_BOUND = (3 + 16 * EPSILON) * EPSILON;
+    private static final double IN_CIRCLE_BOUND = (10 + 96 * EPSILON) * EPSILON;
+
+    private final double[] x;
+    private final double[] y;
+    private final int n;
+    private int[] triangles;
+    private int[] halfedges;
+    private int trianglesLength;
+    // point i was skipped as a duplicate of linkedTo[i]; -1 for points that are triangulated
+    private final int[] linkedTo;
+    // points sorted along the line when they are all collinear, null otherwise
+    private int[] collinear;
+
+    // sweep-hull state
+    private final int[] hullPrev;
+    private final int[] hullNext;
+    private final int[] hullTri;
+    private final int[] hullHash;
+    private final int hashSize;
+    private int hullStart;
+    private double cx;
+    private double cy;
+    private int[] edgeStack = new int[512];
+
+    public Delaunay(double[] x, double[] y) {
+        if (x.length != y.length) {
+            throw new IllegalArgumentException("x and y must have the same length");
+        }
+        this.x = x;
+        this.y = y;
+        this.n = x.length;
+        int maxTriangles = Math.max(2 * n - 5, 0);
+        triangles = new int[maxTriangles * 3];
+        halfedges = new int[maxTriangles * 3];
+        linkedTo = new int[n];
+        Arrays.fill(linkedTo, -1);
+        hashSize = (int) Math.ceil(Math.sqrt(n));
+        hullPrev = new int[n];
+        hullNext = new int[n];
+        hullTri = new int[n];
+        hullHash = new int[Math.max(hashSize, 1)];
+        triangulate();
+    }
+
+    // triangulation of the store's nodes in an equirectangular projection around their mean
+    // latitude, in metres. Over a city-sized area the projection keeps distances within a fraction of
+    // a percent of the haversine ones, so the triangulation holds the geodesic nearest neighbours
+    public static Delaunay of(NodeStore store) {
+        int count = store.size();
+        double[] px = new double[count];
+        double[] py = new double[count];
+        double meanLat = 0;
+        double meanLon = 0;
+        for (int i = 0; i < count; i++) {
+            meanLat += store.latitude(i);
+            meanLon += store.longitude(i);
+        }
+        meanLat = count == 0 ? 0 : meanLat / count;
+        meanLon = count == 0 ? 0 : meanLon / count;
+        // centred coordinates keep the predicates' products small
+        double scale = Math.cos(Math.toRadians(meanLat));
+        for (int i = 0; i < count; i++) {
+            px[i] = Graph.EARTH_RADIUS_METRES * Math.toRadians(store.longitude(i) - meanLon) * scale;
+            py[i] = Graph.EARTH_RADIUS_METRES * Math.toRadians(store.latitude(i) - meanLat);
+        }
+        return new Delaunay(px, py);
+    }
+
+    private void triangulate() {
+        if (n == 0) {
+            return;
+        }
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxX = Math.max(maxX, x[i]);
+            maxY = Math.max(maxY, y[i]);
+        }
+        double centreX = (minX + maxX) / 2;
+        double centreY = (minY + maxY) / 2;
+
+        // seed triangle: the point nearest the centre, its nearest distinct point, and the point
+        // making the smallest circumcircle with them
+        int i0 = 0;
+        double minDist = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            double d = squaredDistance(centreX, centreY, x[i], y[i]);
+            if (d < minDist) {
+                i0 = i;
+                minDist = d;
+            }
+        }
+        int i1 = -1;
+        minDist = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            double d = squaredDistance(x[i0], y[i0], x[i], y[i]);
+            if (i != i0 && d < minDist && d > 0) {
+                i1 = i;
+                minDist = d;
+            }
+        }
+        int i2 = -1;
+        double minRadius = Double.POSITIVE_INFINITY;
+        if (i1 >= 0) {
+            for (int i = 0; i < n; i++) {
+                if (i == i0 || i == i1) {
+                    continue;
+                }
+                double r = circumradius(x[i0], y[i0], x[i1], y[i1], x[i], y[i]);
+                if (r < minRadius) {
+                    i2 = i;
+                    minRadius = r;
+                }
+            }
+        }
+        if (i2 < 0 || Double.isInfinite(minRadius)) {
+            triangulateCollinear();
+            return;
+        }
+        if (orient(x[i0], y[i0], x[i1], y[i1], x[i2], y[i2])) {
+            int tmp = i1;
+            i1 = i2;
+            i2 = tmp;
+        }
+        circumcentre(x[i0], y[i0], x[i1], y[i1], x[i2], y[i2]);
+
+        int[] ids = new int[n];
+        double[] dists = new double[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = i;
+            dists[i] = squaredDistance(x[i], y[i], cx, cy);
+        }
+        quicksort(ids, dists, 0, n - 1);
+
+        hullStart = i0;
+        hullNext[i0] = hullPrev[i2] = i1;
+        hullNext[i1] = hullPrev[i0] = i2;
+        hullNext[i2] = hullPrev[i1] = i0;
+        hullTri[i0] = 0;
+        hullTri[i1] = 1;
+        hullTri[i2] = 2;
+        Arrays.fill(hullHash, -1);
+        hullHash[hashKey(x[i0], y[i0])] = i0;
+        hullHash[hashKey(x[i1], y[i1])] = i1;
+        hullHash[hashKey(x[i2], y[i2])] = i2;
+        addTriangle(i0, i1, i2, -1, -1, -1);
+
+        double xp = 0;
+        double yp = 0;
+        int previous = -1;
+        for (int k = 0; k < n; k++) {
+            int i = ids[k];
+            double px = x[i];
+            double py = y[i];
+            boolean seed = i == i0 || i == i1 || i == i2;
+            if (k > 0 && Math.abs(px - xp) <= EPSILON && Math.abs(py - yp) <= EPSILON) {
+                if (!seed) {
+                    linkedTo[i] = previous;
+                }
+                continue;
+            }
+            xp = px;
+            yp = py;
+            previous = i;
+            if (seed) {
+                continue;
+            }
+
+            // a hull edge visible from the point, starting from the hull point at a similar angle
+            int start = 0;
+            int key = hashKey(px, py);
+            for (int j = 0; j < hashSize; j++) {
+                start = hullHash[(key + j) % hashSize];
+                if (start != -1 && start != hullNext[start]) {
+                    break;
+                }
+            }
+            start = hullPrev[start];
+            int e = start;
+            int q;
+            while (!orient(px, py, x[e], y[e], x[q = hullNext[e]], y[q])) {
+                e = q;
+                if (e == start) {
+                    e = -1;
+                    break;
+                }
+            }
+            if (e == -1) {
+                // nothing visible: the point lies on the hull within rounding, i.e. (almost) on an
+                // earlier point; it is joined to the nearest triangulated point afterwards
+                linkedTo[i] = i;
+                continue;
+            }
+
+            int t = addTriangle(e, i, hullNext[e], -1, -1, hullTri[e]);
+            hullTri[i] = legalize(t + 2);
+            hullTri[e] = t;
+
+            // walk forward through the hull, adding triangles and flipping where needed
+            int next = hullNext[e];
+            while (orient(px, py, x[next], y[next], x[q = hullNext[next]], y[q])) {
+                t = addTriangle(next, i, q, hullTri[i], -1, hullTri[next]);
+                hullTri[i] = legalize(t + 2);
+                hullNext[next] = next;
+                next = q;
+            }
+            // and backward from the first visible edge
+            if (e == start) {
+                while (orient(px, py, x[q = hullPrev[e]], y[q], x[e], y[e])) {
+                    t = addTriangle(q, i, e, -1, hullTri[e], hullTri[q]);
+                    legalize(t + 2);
+                    hullTri[q] = t;
+                    hullNext[e] = e;
+                    e = q;
+                }
+            }
+            hullStart = hullPrev[i] = e;
+            hullNext[e] = hullPrev[next] = i;
+            hullNext[i] = next;
+            hullHash[hashKey(px, py)] = i;
+            hullHash[hashKey(x[e], y[e])] = e;
+        }
+        linkStragglers();
+    }
+
+    // all points on one line: sorted along it, duplicates joined to their predecessor
+    private void triangulateCollinear() {
+        int[] ids = new int[n];
+        double[] dists = new double[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = i;
+            double dx = x[i] - x[0];
+            dists[i] = dx != 0 ? dx : y[i] - y[0];
+        }
+        quicksort(ids, dists, 0, n - 1);
+        collinear = ids;
+    }
+
+    // points skipped because nothing on the hull was visible from them get the nearest
+    // triangulated point; this only happens for near-coincident points, so the scan is rare
+    private void linkStragglers() {
+        for (int i = 0; i < n; i++) {
+            if (linkedTo[i] != i) {
+                continue;
+            }
+            int nearest = -1;
+            double nearestDistance = Double.POSITIVE_INFINITY;
+            for (int j = 0; j < n; j++) {
+                if (linkedTo[j] == -1) {
+                    double d = squaredDistance(x[i], y[i], x[j], y[j]);
+                    if (d < nearestDistance) {
+                        nearestDistance = d;
+                        nearest = j;
+                    }
+                }
+            }
+            linkedTo[i] = nearest;
+        }
+    }
+
+    // flips half-edge a and the edges it exposes until they are all locally Delaunay; returns the
+    // half-edge that ends up in a's place opposite the new point
+    private int legalize(int a) {
+        int i = 0;
+        int ar;
+        while (true) {
+            int b = halfedges[a];
+            int a0 = a - a % 3;
+            ar = a0 + (a + 2) % 3;
+            if (b == -1) {
+                if (i == 0) {
+                    break;
+                }
+                a = edgeStack[--i];
+                continue;
+            }
+            int b0 = b - b % 3;
+            int al = a0 + (a + 1) % 3;
+            int bl = b0 + (b + 2) % 3;
+            int p0 = triangles[ar];
+            int pr = triangles[a];
+            int pl = triangles[al];
+            int p1 = triangles[bl];
+            boolean illegal = inCircle(x[p0], y[p0], x[pr], y[pr], x[pl], y[pl], x[p1], y[p1]);
+            if (illegal) {
+                triangles[a] = p1;
+                triangles[b] = p0;
+                int hbl = halfedges[bl];
+                if (hbl == -1) {
+                    // the flipped edge was on the hull: point the hull at its new half-edge
+                    int e = hullStart;
+                    do {
+                        if (hullTri[e] == bl) {
+                            hullTri[e] = a;
+                            break;
+                        }
+                        e = hullPrev[e];
+                    } while (e != hullStart);
+                }
+                link(a, hbl);
+                link(b, halfedges[ar]);
+                link(ar, bl);
+                int br = b0 + (b + 1) % 3;
+                if (i == edgeStack.length) {
+                    edgeStack = Arrays.copyOf(edgeStack, 2 * i);
+                }
+                edgeStack[i++] = br;
+            } else {
+                if (i == 0) {
+                    break;
+                }
+                a = edgeStack[--i];
+            }
+        }
+        return ar;
+    }
+
+    private void link(int a, int b) {
+        halfedges[a] = b;
+        if (b != -1) {
+            halfedges[b] = a;
+        }
+    }
+
+    private int addTriangle(int i0, int i1, int i2, int a, int b, int c) {
+        int t = trianglesLength;
+        triangles[t] = i0;
+        triangles[t + 1] = i1;
+        triangles[t + 2] = i2;
+        link(t, a);
+        link(t + 1, b);
+        link(t + 2, c);
+        trianglesLength += 3;
+        return t;
+    }
+
+    private int hashKey(double px, double py) {
+        return (int) Math.floor(pseudoAngle(px - cx, py - cy) * hashSize) % hashSize;
+    }
+
+    // monotone in the angle of (dx, dy), in [0, 1)
+    private static double pseudoAngle(double dx, double dy) {
+        double p = dx / (Math.abs(dx) + Math.abs(dy));
+        return (dy > 0 ? 3 - p : 1 + p) / 4;
+    }
+
+    // true when r lies to the right of the line p -> q. The floating-point determinant decides unless
+    // it is within its rounding error of zero, in which case it is recomputed exactly; without this,
+    // nearly collinear points can produce flipped slivers
+    private static boolean orient(double px, double py, double qx, double qy, double rx, double ry) {
+        double left = (qy - py) * (rx - qx);
+        double right = (qx - px) * (ry - qy);
+        double det = left - right;
+        if (Math.abs(det) > ORIENT_BOUND * (Math.abs(left) + Math.abs(right))) {
+            return det < 0;
+        }
+        BigDecimal exact = difference(qy, py).multiply(difference(rx, qx))
+                .subtract(difference(qx, px).multiply(difference(ry, qy)));
+        return exact.signum() < 0;
+    }
+
+    // true when p lies inside the circumcircle of the clockwise triangle a, b, c; exact near zero
+    // like orient
+    private static boolean inCircle(double ax, double ay, double bx, double by, double cx, double cy,
+                                    double px, double py) {
+        double dx = ax - px;
+        double dy = ay - py;
+        double ex = bx - px;
+        double ey = by - py;
+        double fx = cx - px;
+        double fy = cy - py;
+        double ap = dx * dx + dy * dy;
+        double bp = ex * ex + ey * ey;
+        double cp = fx * fx + fy * fy;
+        double det = dx * (ey * cp - bp * fy) - dy * (ex * cp - bp * fx) + ap * (ex * fy - ey * fx);
+        double permanent = Math.abs(dx) * (Math.abs(ey) * cp + bp * Math.abs(fy))
+                + Math.abs(dy) * (Math.abs(ex) * cp + bp * Math.abs(fx))
+                + ap * (Math.abs(ex * fy) + Math.abs(ey * fx));
+        if (Math.abs(det) > IN_CIRCLE_BOUND * permanent) {
+            return det < 0;
+        }
+        BigDecimal edx = difference(ax, px);
+        BigDecimal edy = difference(ay, py);
+        BigDecimal eex = difference(bx, px);
+        BigDecimal eey = difference(by, py);
+        BigDecimal efx = difference(cx, px);
+        BigDecimal efy = difference(cy, py);
+        BigDecimal eap = edx.multiply(edx).add(edy.multiply(edy));
+        BigDecimal ebp = eex.multiply(eex).add(eey.multiply(eey));
+        BigDecimal ecp = efx.multiply(efx).add(efy.multiply(efy));
+        BigDecimal exact = edx.multiply(eey.multiply(ecp).subtract(ebp.multiply(efy)))
+                .subtract(edy.multiply(eex.multiply(ecp).subtract(ebp.multiply(efx))))
+                .add(eap.multiply(eex.multiply(efy).subtract(eey.multiply(efx))));
+        return exact.signum() < 0;
+    }
+
+    private static BigDecimal difference(double a, double b) {
+        return new BigDecimal(a).subtract(new BigDecimal(b));
+    }
+
+    private static double squaredDistance(double ax, double ay, double bx, double by) {
+        double dx = ax - bx;
+        double dy = ay - by;
+        return dx * dx + dy * dy;
+    }
+
+    // squared circumradius, infinite for collinear points
+    private static double circumradius(double ax, double ay, double bx, double by, double cx, double cy) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        double ex = cx - ax;
+        double ey = cy - ay;
+        double bl = dx * dx + dy * dy;
+        double cl = ex * ex + ey * ey;
+        double d = 0.5 / (dx * ey - dy * ex);
+        double rx = (ey * bl - dy * cl) * d;
+        double ry = (dx * cl - ex * bl) * d;
+        double r = rx * rx + ry * ry;
+        return Double.isNaN(r) ? Double.POSITIVE_INFINITY : r;
+    }
+
+    private void circumcentre(double ax, double ay, double bx, double by, double px, double py) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        double ex = px - ax;
+        double ey = py - ay;
+        double bl = dx * dx + dy * dy;
+        double cl = ex * ex + ey * ey;
+        double d = 0.5 / (dx * ey - dy * ex);
+        cx = ax + (ey * bl - dy * cl) * d;
+        cy = ay + (dx * cl - ex * bl) * d;
+    }
+
+    // sorts ids by dists, insertion sort below 20 elements
+    private static void quicksort(int[] ids, double[] dists, int left, int right) {
+        while (right - left > 20) {
+            int median = (left + right) >>> 1;
+            int i = left + 1;
+            int j = right;
+            swap(ids, median, i);
+            if (dists[ids[left]] > dists[ids[right]]) {
+                swap(ids, left, right);
+            }
+            if (dists[ids[i]] > dists[ids[right]]) {
+                swap(ids, i, right);
+            }
+            if (dists[ids[left]] > dists[ids[i]]) {
+                swap(ids, left, i);
+            }
+            int temp = ids[i];
+            double tempDist = dists[temp];
+            while (true) {
+                do {
+                    i++;
+                } while (dists[ids[i]] < tempDist);
+                do {
+                    j--;
+                } while (dists[ids[j]] > tempDist);
+                if (j < i) {
+                    break;
+                }
+                swap(ids, i, j);
+            }
+            ids[left + 1] = ids[j];
+            ids[j] = temp;
+            // recurse into the smaller side and loop over the larger one, so the stack stays shallow
+            if (right - i + 1 >= j - left) {
+                quicksort(ids, dists, left, j - 1);
+                left = i;
+            } else {
+                quicksort(ids, dists, i, right);
+                right = j - 1;
+            }
+        }
+        for (int i = left + 1; i <= right; i++) {
+            int temp = ids[i];
+            double tempDist = dists[temp];
+            int j = i - 1;
+            while (j >= left && dists[ids[j]] > tempDist) {
+                ids[j + 1] = ids[j];
+                j--;
+            }
+            ids[j + 1] = temp;
+        }
+    }
+
+    private static void swap(int[] array, int i, int j) {
+        int tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public int triangleCount() {
+        return trianglesLength / 3;
+    }
+
+    // corner (0, 1 or 2) of triangle t, clockwise
+    public int corner(int t, int corner) {
+        return triangles[3 * t + corner];
+    }
+
+    // half-edge opposite to e in the neighbouring triangle, -1 on the hull
+    public int halfedge(int e) {
+        return halfedges[e];
+    }
+
+    // every triangle edge once, plus the links of skipped duplicates (or the path through collinear
+    // points), weighted by the Euclidean distance in the plane
+    public SparseGraph edges() {
+        return edges(null);
+    }
+
+    // the same edges weighted by the store's haversine distance instead, in the argument order
+    // PackedDistanceMatrix uses so the weights equal the matrix entries
+    public SparseGraph edges(NodeStore store) {
+        int capacity = trianglesLength + n;
+        int[] sources = new int[capacity];
+        int[] destinations = new int[capacity];
+        int m = 0;
+        if (collinear != null) {
+            for (int k = 1; k < n; k++) {
+                sources[m] = collinear[k - 1];
+                destinations[m++] = collinear[k];
+            }
+        } else {
+            for (int e = 0; e < trianglesLength; e++) {
+                // one of the two half-edges of an inner edge, and every hull edge
+                if (halfedges[e] < e) {
+                    sources[m] = triangles[e];
+                    destinations[m++] = triangles[e % 3 == 2 ? e - 2 : e + 1];
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                if (linkedTo[i] >= 0) {
+                    sources[m] = i;
+                    destinations[m++] = linkedTo[i];
+                }
+            }
+        }
+        double[] weights = new double[m];
+        if (store == null) {
+            for (int e = 0; e < m; e++) {
+                weights[e] = Math.sqrt(squaredDistance(x[sources[e]], y[sources[e]],
+                        x[destinations[e]], y[destinations[e]]));
+            }
+        } else {
+            double[] lat = new double[n];
+            double[] lon = new double[n];
+            double[] cosLat = new double[n];
+            for (int i = 0; i < n; i++) {
+                lat[i] = Math.toRadians(store.latitude(i));
+                lon[i] = Math.toRadians(store.longitude(i));
+                cosLat[i] = Math.cos(lat[i]);
+            }
+            for (int e = 0; e < m; e++) {
+                int i = Math.max(sources[e], destinations[e]);
+                int j = Math.min(sources[e], destinations[e]);
+                weights[e] = Graph.haversine(lat[i], lon[i], cosLat[i], lat[j], lon[j], cosLat[j]);
+            }
+        }
+        return new SparseGraph(n, sources, destinations, weights, m);
+    }
+}
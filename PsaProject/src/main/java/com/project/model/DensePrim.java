@@ -0,0 +1,143 @@
+package com.project.model;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// Prim's algorithm on the complete graph of n nodes in O(n^2) time and O(n) memory: every node keeps
+// the distance to its nearest tree node in a key array, and each step attaches the unattached node
+// with the smallest key and relaxes the rest against it. Distances come from a DistanceMatrix or,
+// when none has been built, straight from the coordinates with the same haversine the matrix uses.
+// Once enough nodes are left, a step's scan is split into chunks on the common fork-join pool; the
+// chunk minima are reduced in chunk order, so the tree is the same on any number of cores.
+final class DensePrim {
+
+    // unattached nodes below which a step is scanned on the calling thread
+    static final int PARALLEL_THRESHOLD = 2048;
+    private static final int CHUNK = 1024;
+
+    private final int n;
+    private final DistanceMatrix matrix;
+    private final double[] lat;
+    private final double[] lon;
+    private final double[] cosLat;
+
+    // order[k] is the node attached at step k, joined to parent[order[k]] by an edge of key[order[k]]
+    private final int[] order;
+    private final int[] parent;
+    private final double[] key;
+
+    DensePrim(DistanceMatrix matrix) {
+        this.n = matrix.size();
+        this.matrix = matrix;
+        this.lat = null;
+        this.lon = null;
+        this.cosLat = null;
+        order = new int[n];
+        parent = new int[n];
+        key = new double[n];
+    }
+
+    DensePrim(List<Node> nodes) {
+        this.n = nodes.size();
+        this.matrix = null;
+        lat = new double[n];
+        lon = new double[n];
+        cosLat = new double[n];
+        for (int i = 0; i < n; i++) {
+            lat[i] = Math.toRadians(nodes.get(i).getLatitude());
+            lon[i] = Math.toRadians(nodes.get(i).getLongitude());
+            cosLat[i] = Math.cos(lat[i]);
+        }
+        order = new int[n];
+        parent = new int[n];
+        key = new double[n];
+    }
+
+    private double distance(int i, int j) {
+        if (matrix != null) {
+            return matrix.distance(i, j);
+        }
+        // larger index first, the argument order PackedDistanceMatrix fills its rows in
+        return i > j ? Graph.haversine(lat[i], lon[i], cosLat[i], lat[j], lon[j], cosLat[j])
+                : Graph.haversine(lat[j], lon[j], cosLat[j], lat[i], lon[i], cosLat[i]);
+    }
+
+    // grows the tree from node 0
+    DensePrim run() {
+        if (n == 0) {
+            return this;
+        }
+        Arrays.fill(key, Double.POSITIVE_INFINITY);
+        Arrays.fill(parent, -1);
+        // unattached nodes in remaining[0 .. left - 1]
+        int[] remaining = new int[n];
+        for (int i = 0; i < n; i++) {
+            remaining[i] = i;
+        }
+        int[] chunkBest = new int[(n + CHUNK - 1) / CHUNK];
+        int left = n;
+        int next = 0;
+        key[0] = 0;
+        for (int step = 0; step < n; step++) {
+            int u = remaining[next];
+            remaining[next] = remaining[--left];
+            order[step] = u;
+            if (left == 0) {
+                break;
+            }
+            int count = left;
+            if (count < PARALLEL_THRESHOLD) {
+                next = relax(u, remaining, 0, count);
+            } else {
+                int chunks = (count + CHUNK - 1) / CHUNK;
+                IntStream.range(0, chunks).parallel().forEach(c ->
+                        chunkBest[c] = relax(u, remaining, c * CHUNK, Math.min(count, (c + 1) * CHUNK)));
+                next = chunkBest[0];
+                for (int c = 1; c < chunks; c++) {
+                    if (key[remaining[chunkBest[c]]] < key[remaining[next]]) {
+                        next = chunkBest[c];
+                    }
+                }
+            }
+        }
+        return this;
+    }
+
+    // relaxes remaining[from .. to - 1] against the newly attached node u; returns the position of
+    // the smallest key among them
+    private int relax(int u, int[] remaining, int from, int to) {
+        int best = from;
+        double bestKey = Double.POSITIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            int v = remaining[i];
+            double d = distance(u, v);
+            if (d < key[v]) {
+                key[v] = d;
+                parent[v] = u;
+            }
+            if (key[v] < bestKey) {
+                bestKey = key[v];
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    int size() {
+        return n;
+    }
+
+    // node attached at the given step; step 0 is the root
+    int attached(int step) {
+        return order[step];
+    }
+
+    int parent(int node) {
+        return parent[node];
+    }
+
+    double key(int node) {
+        return key[node];
+    }
+}
@@ -0,0 +1,51 @@
+package com.project.model;
+
+// Union-find over the integers 0 .. size - 1 in two int arrays. find() halves the path it walks, so
+// it needs no recursion however long a chain gets, and union() hangs the lower-ranked root under the
+// higher one, which keeps every tree logarithmic in depth.
+final class DisjointSet {
+
+    private final int[] parent;
+    private final byte[] rank;
+    private int sets;
+
+    DisjointSet(int size) {
+        parent = new int[size];
+        rank = new byte[size];
+        for (int i = 0; i < size; i++) {
+            parent[i] = i;
+        }
+        sets = size;
+    }
+
+    int find(int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    // merges the sets of a and b; false when they were already one set
+    boolean union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) {
+            return false;
+        }
+        if (rank[rootA] < rank[rootB]) {
+            parent[rootA] = rootB;
+        } else if (rank[rootA] > rank[rootB]) {
+            parent[rootB] = rootA;
+        } else {
+            parent[rootB] = rootA;
+            rank[rootA]++;
+        }
+        sets--;
+        return true;
+    }
+
+    int sets() {
+        return sets;
+    }
+}
@@ -0,0 +1,68 @@
+package com.project.model;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+// Pairwise distances over a fixed list of nodes, indexed by the position of each node in its NodeStore.
+// Solvers look distances up here instead of calling Graph.calculateDistance in their inner loops.
+public abstract class DistanceMatrix {
+
+    // above this many nodes the packed double[] gets too large for a default heap and the matrix is memory-mapped
+    public static final int MAX_IN_HEAP_NODES = 10000;
+    // above this many nodes even the mapped float triangle (5 GB here, 80 GB at 200k) is too large and
+    // distances are computed from the coordinates on every lookup
+    public static final int MAX_MAPPED_NODES = 50000;
+
+    protected final NodeStore store;
+
+    protected DistanceMatrix(NodeStore store) {
+        this.store = store;
+    }
+
+    public static DistanceMatrix of(List<Node> nodes) {
+        return new PackedDistanceMatrix(NodeStore.of(nodes));
+    }
+
+    public static DistanceMatrix forNodes(List<Node> nodes) {
+        return forNodes(nodes, defaultCacheDirectory());
+    }
+
+    // in-heap for small instances, a memory-mapped file in the cache directory that is reused by later
+    // runs on the same dataset for medium ones, and no stored matrix at all for the largest
+    public static DistanceMatrix forNodes(List<Node> nodes, Path cacheDirectory) {
+        if (nodes.size() <= MAX_IN_HEAP_NODES) {
+            return of(nodes);
+        }
+        if (nodes.size() > MAX_MAPPED_NODES) {
+            return new ComputedDistanceMatrix(NodeStore.of(nodes));
+        }
+        return MappedDistanceMatrix.inDirectory(NodeStore.of(nodes), cacheDirectory);
+    }
+
+    public static Path defaultCacheDirectory() {
+        return Paths.get(System.getProperty("java.io.tmpdir"), "psaproject-distances");
+    }
+
+    public abstract double distance(int i, int j);
+
+    public double distance(Node source, Node destination) {
+        return distance(indexOf(source), indexOf(destination));
+    }
+
+    public int indexOf(Node node) {
+        return store.indexOf(node);
+    }
+
+    public boolean contains(Node node) {
+        return store.contains(node);
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    public NodeStore getNodeStore() {
+        return store;
+    }
+}
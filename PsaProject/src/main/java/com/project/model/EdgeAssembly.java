@@ -0,0 +1,382 @@
+package com.project.model;
+
+import java.util.SplittableRandom;
+
+// Edge assembly crossover (EAX) for TSPGenetic. The edges in which parents A and B differ are split
+// into AB-cycles, closed walks that alternate between an edge of A and an edge of B. Taking A,
+// dropping the A-edges of one AB-cycle and adding its B-edges keeps every city at degree two but
+// usually leaves several subtours; these are merged greedily, smallest first, with the cheapest
+// 2-exchange towards a neighbour-list candidate in another subtour. Several AB-cycles are tried per
+// mating and the shortest child is kept (the single-cycle "EAX-1AB" strategy).
+// Not thread-safe: every breeding slice owns one instance with its own scratch arrays.
+class EdgeAssembly {
+
+    private final DistanceMatrix distances;
+    private final NeighborLists neighbors;
+    private final int tries;
+
+    // two tour neighbours per city, at [2c] and [2c + 1]; -1 marks an unused slot
+    private final int[] adjA;
+    private final int[] adjB;
+    // A-edges and B-edges not common to both parents and not yet used by an AB-cycle
+    private final int[] freeA;
+    private final int[] freeB;
+    private final int[] child;
+    private final int[] bestChild;
+
+    // the alternating walk; path edge i runs from path[i] to path[i + 1] and is an A-edge for even i
+    private final int[] path;
+    // latest path index holding a city with each parity, and the index it shadowed
+    private final int[] last;
+    private final int[] shadowed;
+
+    // AB-cycles as city runs in cycleCities, cycle c spanning cycleStart[c] .. cycleStart[c + 1] - 1,
+    // always beginning with an A-edge
+    private final int[] cycleCities;
+    private final int[] cycleStart;
+    private int cycleCount;
+    private final int[] cycleOrder;
+
+    // subtour label and size per label while merging
+    private final int[] component;
+    private final int[] componentSize;
+    private final int[] members;
+
+    EdgeAssembly(DistanceMatrix distances, NeighborLists neighbors, int routeLength, int tries) {
+        this.distances = distances;
+        this.neighbors = neighbors;
+        this.tries = tries;
+        int storeSize = distances.size();
+        adjA = new int[2 * storeSize];
+        adjB = new int[2 * storeSize];
+        freeA = new int[2 * storeSize];
+        freeB = new int[2 * storeSize];
+        child = new int[2 * storeSize];
+        bestChild = new int[2 * storeSize];
+        path = new int[2 * routeLength + 2];
+        last = new int[2 * storeSize];
+        shadowed = new int[2 * routeLength + 2];
+        cycleCities = new int[2 * routeLength + 2];
+        cycleStart = new int[routeLength + 1];
+        cycleOrder = new int[routeLength];
+        component = new int[storeSize];
+        componentSize = new int[routeLength];
+        members = new int[routeLength];
+    }
+
+    // writes the best of up to 'tries' single-AB-cycle children of a and b into into; a copy of a
+    // when the parents share every edge
+    void crossover(int[] a, int[] b, int[] into, SplittableRandom random) {
+        int n = a.length;
+        if (n < 5) {
+            System.arraycopy(a, 0, into, 0, n);
+            return;
+        }
+        link(a, adjA);
+        link(b, adjB);
+        for (int city : a) {
+            for (int s = 0; s < 2; s++) {
+                int other = adjA[2 * city + s];
+                freeA[2 * city + s] = hasEdge(adjB, city, other) ? -1 : other;
+                other = adjB[2 * city + s];
+                freeB[2 * city + s] = hasEdge(adjA, city, other) ? -1 : other;
+            }
+        }
+        buildCycles(a, random);
+        if (cycleCount == 0) {
+            System.arraycopy(a, 0, into, 0, n);
+            return;
+        }
+
+        double lengthA = Tour.length(a, distances);
+        double best = Double.MAX_VALUE;
+        for (int c = 0; c < cycleCount; c++) {
+            cycleOrder[c] = c;
+        }
+        int attempts = Math.min(tries, cycleCount);
+        for (int t = 0; t < attempts; t++) {
+            // partial Fisher-Yates, so every attempt gets a different cycle
+            int pick = t + random.nextInt(cycleCount - t);
+            int cycle = cycleOrder[pick];
+            cycleOrder[pick] = cycleOrder[t];
+            cycleOrder[t] = cycle;
+
+            for (int city : a) {
+                child[2 * city] = adjA[2 * city];
+                child[2 * city + 1] = adjA[2 * city + 1];
+            }
+            double length = lengthA + applyCycle(cycle) + mergeSubtours(a);
+            if (length < best - TwoOpt.EPSILON) {
+                best = length;
+                for (int city : a) {
+                    bestChild[2 * city] = child[2 * city];
+                    bestChild[2 * city + 1] = child[2 * city + 1];
+                }
+            }
+        }
+        walk(bestChild, a[0], into);
+    }
+
+    private static void link(int[] route, int[] adj) {
+        int n = route.length;
+        for (int i = 0; i < n; i++) {
+            int city = route[i];
+            adj[2 * city] = route[i == 0 ? n - 1 : i - 1];
+            adj[2 * city + 1] = route[i + 1 == n ? 0 : i + 1];
+        }
+    }
+
+    private static boolean hasEdge(int[] adj, int a, int b) {
+        return adj[2 * a] == b || adj[2 * a + 1] == b;
+    }
+
+    // a random remaining edge at city, removed from both of its ends; -1 when none is left
+    private static int takeEdge(int[] free, int city, SplittableRandom random) {
+        int first = free[2 * city];
+        int second = free[2 * city + 1];
+        int other;
+        if (first >= 0 && second >= 0) {
+            other = random.nextBoolean() ? first : second;
+        } else {
+            other = first >= 0 ? first : second;
+        }
+        if (other >= 0) {
+            dropSlot(free, city, other);
+            dropSlot(free, other, city);
+        }
+        return other;
+    }
+
+    private static void dropSlot(int[] adj, int city, int other) {
+        if (adj[2 * city] == other) {
+            adj[2 * city] = -1;
+        } else {
+            adj[2 * city + 1] = -1;
+        }
+    }
+
+    private static void replaceSlot(int[] adj, int city, int from, int to) {
+        if (adj[2 * city] == from) {
+            adj[2 * city] = to;
+        } else {
+            adj[2 * city + 1] = to;
+        }
+    }
+
+    // Every city has as many free A-edges as free B-edges, so an alternating walk can always go on
+    // until it revisits a city at a path index of the same parity; the closed part is then cut out as
+    // an AB-cycle and the walk continues from where the cycle started.
+    private void buildCycles(int[] a, SplittableRandom random) {
+        cycleCount = 0;
+        cycleStart[0] = 0;
+        for (int city : a) {
+            last[2 * city] = -1;
+            last[2 * city + 1] = -1;
+        }
+        for (int start : a) {
+            while (freeA[2 * start] >= 0 || freeA[2 * start + 1] >= 0) {
+                path[0] = start;
+                push(0);
+                int length = 0;
+                do {
+                    int next = takeEdge((length & 1) == 0 ? freeA : freeB, path[length], random);
+                    path[++length] = next;
+                    int j = last[2 * next + (length & 1)];
+                    if (j >= 0) {
+                        cutCycle(j, length);
+                        length = j;
+                    } else {
+                        push(length);
+                    }
+                } while (length > 0);
+                last[2 * start] = shadowed[0];
+            }
+        }
+    }
+
+    // records path[index] as the latest occurrence of its city with the index's parity
+    private void push(int index) {
+        int slot = 2 * path[index] + (index & 1);
+        shadowed[index] = last[slot];
+        last[slot] = index;
+    }
+
+    // moves the closed walk path[j..end] (path[end] == path[j]) into the cycle list; the path goes on
+    // from index j
+    private void cutCycle(int j, int end) {
+        for (int i = end - 1; i > j; i--) {
+            last[2 * path[i] + (i & 1)] = shadowed[i];
+        }
+        int out = cycleStart[cycleCount];
+        // store the cycle so that it begins with an A-edge
+        int offset = (j & 1) == 0 ? 0 : 1;
+        int edges = end - j;
+        for (int k = 0; k < edges; k++) {
+            cycleCities[out++] = path[j + (k + offset) % edges];
+        }
+        cycleCount++;
+        cycleStart[cycleCount] = out;
+    }
+
+    // drops the A-edges of the cycle from child and adds its B-edges; returns the change in length
+    private double applyCycle(int cycle) {
+        int from = cycleStart[cycle];
+        int to = cycleStart[cycle + 1];
+        int edges = to - from;
+        double delta = 0;
+        for (int k = 0; k < edges; k += 2) {
+            int u = cycleCities[from + k];
+            int v = cycleCities[from + (k + 1) % edges];
+            dropSlot(child, u, v);
+            dropSlot(child, v, u);
+            delta -= distances.distance(u, v);
+        }
+        for (int k = 1; k < edges; k += 2) {
+            int u = cycleCities[from + k];
+            int v = cycleCities[from + (k + 1) % edges];
+            replaceSlot(child, u, -1, v);
+            replaceSlot(child, v, -1, u);
+            delta += distances.distance(u, v);
+        }
+        return delta;
+    }
+
+    // joins the subtours of child into one tour; returns the added length
+    private double mergeSubtours(int[] a) {
+        for (int city : a) {
+            component[city] = -1;
+        }
+        int components = 0;
+        for (int city : a) {
+            if (component[city] < 0) {
+                componentSize[components] = label(city, components);
+                components++;
+            }
+        }
+        double added = 0;
+        for (int remaining = components; remaining > 1; remaining--) {
+            int smallest = -1;
+            for (int c = 0; c < components; c++) {
+                if (componentSize[c] > 0 && (smallest < 0 || componentSize[c] < componentSize[smallest])) {
+                    smallest = c;
+                }
+            }
+            added += mergeInto(a, smallest);
+        }
+        return added;
+    }
+
+    // labels the subtour through start and returns its size
+    private int label(int start, int label) {
+        int size = 0;
+        int prev = -1;
+        int city = start;
+        do {
+            component[city] = label;
+            size++;
+            int next = child[2 * city] != prev ? child[2 * city] : child[2 * city + 1];
+            prev = city;
+            city = next;
+        } while (city != start);
+        return size;
+    }
+
+    // cheapest 2-exchange between subtour 'label' and any other subtour, applied
+    private double mergeInto(int[] a, int label) {
+        int size = 0;
+        int prev = -1;
+        int city = -1;
+        for (int c : a) {
+            if (component[c] == label) {
+                city = c;
+                break;
+            }
+        }
+        int start = city;
+        do {
+            members[size++] = city;
+            int next = child[2 * city] != prev ? child[2 * city] : child[2 * city + 1];
+            prev = city;
+            city = next;
+        } while (city != start);
+
+        double best = Double.MAX_VALUE;
+        int bestU = -1;
+        int bestU2 = -1;
+        int bestV = -1;
+        int bestV2 = -1;
+        for (int m = 0; m < size; m++) {
+            int u = members[m];
+            for (int r = 0; r < neighbors.count(u); r++) {
+                int v = neighbors.get(u, r);
+                if (component[v] < 0 || component[v] == label) {
+                    continue;
+                }
+                for (int su = 0; su < 2; su++) {
+                    int u2 = child[2 * u + su];
+                    for (int sv = 0; sv < 2; sv++) {
+                        int v2 = child[2 * v + sv];
+                        double delta = distances.distance(u, v) + distances.distance(u2, v2)
+                                - distances.distance(u, u2) - distances.distance(v, v2);
+                        if (delta < best) {
+                            best = delta;
+                            bestU = u;
+                            bestU2 = u2;
+                            bestV = v;
+                            bestV2 = v2;
+                        }
+                    }
+                }
+            }
+        }
+        if (bestU < 0) {
+            // no candidate of this subtour lies outside it: fall back to the full scan
+            for (int m = 0; m < size; m++) {
+                int u = members[m];
+                for (int v : a) {
+                    if (component[v] == label) {
+                        continue;
+                    }
+                    for (int su = 0; su < 2; su++) {
+                        int u2 = child[2 * u + su];
+                        for (int sv = 0; sv < 2; sv++) {
+                            int v2 = child[2 * v + sv];
+                            double delta = distances.distance(u, v) + distances.distance(u2, v2)
+                                    - distances.distance(u, u2) - distances.distance(v, v2);
+                            if (delta < best) {
+                                best = delta;
+                                bestU = u;
+                                bestU2 = u2;
+                                bestV = v;
+                                bestV2 = v2;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        replaceSlot(child, bestU, bestU2, bestV);
+        replaceSlot(child, bestU2, bestU, bestV2);
+        replaceSlot(child, bestV, bestV2, bestU);
+        replaceSlot(child, bestV2, bestV, bestU2);
+        int target = component[bestV];
+        for (int m = 0; m < size; m++) {
+            component[members[m]] = target;
+        }
+        componentSize[target] += size;
+        componentSize[label] = 0;
+        return best;
+    }
+
+    // the tour held in adj as an order array starting at first
+    private static void walk(int[] adj, int first, int[] into) {
+        int prev = -1;
+        int city = first;
+        for (int i = 0; i < into.length; i++) {
+            into[i] = city;
+            int next = adj[2 * city] != prev ? adj[2 * city] : adj[2 * city + 1];
+            prev = city;
+            city = next;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.project.model;
+
+// Walks the unordered node pairs of an implicit complete graph as primitive (i, j, w) triples.
+// Pairs come in the same order as the packed distance matrix: (1,0), (2,0), (2,1), (3,0), ...
+// so the k-th pair can also be reached directly with moveTo(k).
+public class EdgeCursor {
+
+    private final DistanceMatrix distances;
+    private final int size;
+    private int i = 1;
+    private int j = -1;
+
+    public EdgeCursor(DistanceMatrix distances) {
+        this.distances = distances;
+        this.size = distances.size();
+    }
+
+    public boolean next() {
+        j++;
+        if (j == i) {
+            i++;
+            j = 0;
+        }
+        return i < size;
+    }
+
+    public void moveTo(long pair) {
+        int row = (int) ((1 + Math.sqrt(1 + 8.0 * pair)) / 2);
+        while ((long) row * (row - 1) / 2 > pair) {
+            row--;
+        }
+        while ((long) (row + 1) * row / 2 <= pair) {
+            row++;
+        }
+        i = row;
+        j = (int) (pair - (long) row * (row - 1) / 2);
+    }
+
+    public void reset() {
+        i = 1;
+        j = -1;
+    }
+
+    // the larger node index of the current pair
+    public int source() {
+        return i;
+    }
+
+    public int destination() {
+        return j;
+    }
+
+    public double weight() {
+        return distances.distance(i, j);
+    }
+
+    public static long pairCount(int nodeCount) {
+        return (long) nodeCount * (nodeCount - 1) / 2;
+    }
+}
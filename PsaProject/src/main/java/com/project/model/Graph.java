@@ -2,10 +2,37 @@ package com.project.model;
 
 import java.io.Serializable;
 import java.util.*;
+import java.util.stream.IntStream;
 
 public class Graph implements Serializable {
+
+	// how minimumSpanningTree builds the tree
+	public enum MstAlgorithm {
+		// sorted edges and union-find, for explicit edge lists and the implicit complete graph
+		KRUSKAL("Kruskal"),
+		// O(n^2) scan over a key array, complete graphs only
+		PRIM("Prim"),
+		// Kruskal over the about 3n edges of the Delaunay triangulation, complete graphs only
+		DELAUNAY("Delaunay");
+
+		private final String label;
+
+		MstAlgorithm(String label) {
+			this.label = label;
+		}
+
+		public String label() {
+			return label;
+		}
+	}
+
+	// radius used by haversine and by every projection of the nodes onto the sphere
+	static final double EARTH_RADIUS_METRES = 6378 * 1000;
+
 	List<Node> nodes;
 	List<Edge> edges;
+	boolean complete;
+	private transient DistanceMatrix distanceMatrix;
 
 	public Graph() {
 		this.nodes = new ArrayList<>();
@@ -25,6 +52,7 @@ public class Graph implements Serializable {
 
 	public void addNode(Node node) {
 		nodes.add(node);
+		distanceMatrix = null;
 	}
 
 	public void addEdge(Node source, Node destination) {
@@ -34,83 +62,237 @@ public class Graph implements Serializable {
 	}
 
 	public static double calculateDistance(Node source, Node destination) {
-		int R = 6378; // Earth's radius in km
 		double lat1 = Math.toRadians(source.getLatitude());
 		double lat2 = Math.toRadians(destination.getLatitude());
 		double lon1 = Math.toRadians(source.getLongitude());
 		double lon2 = Math.toRadians(destination.getLongitude());
+		return haversine(lat1, lon1, Math.cos(lat1), lat2, lon2, Math.cos(lat2));
+	}
+
+	// haversine on coordinates already converted to radians, so callers can cache cos(latitude) per node
+	static double haversine(double lat1, double lon1, double cosLat1, double lat2, double lon2, double cosLat2) {
 		double dLat = lat2 - lat1;
 		double dLon = lon2 - lon1;
 		double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
-				+ Math.cos(lat1) * Math.cos(lat2) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+				+ cosLat1 * cosLat2 * Math.sin(dLon / 2) * Math.sin(dLon / 2);
 		double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-		double distance = R * c * 1000;
+		double distance = EARTH_RADIUS_METRES * c;
 		return distance;
 	}
 
+	// built once on first use and shared by every solver working on this graph
+	public DistanceMatrix getDistanceMatrix() {
+		if (distanceMatrix == null || distanceMatrix.size() != nodes.size()) {
+			distanceMatrix = DistanceMatrix.forNodes(nodes);
+		}
+		return distanceMatrix;
+	}
+
+	public NodeStore getNodeStore() {
+		return getDistanceMatrix().getNodeStore();
+	}
+
 	// connecting an edge from one edge to all edges
+	// the complete graph stays implicit: edges are read from the distance matrix when they are needed
+	// instead of allocating an Edge for every pair of nodes
 	public void connectAllNodes() {
-		for (int i = 0; i < nodes.size(); i++) {
-			Node node1 = nodes.get(i);
-			for (int j = 0; j < nodes.size(); j++) {
-				if (i != j) {
-					Node node2 = nodes.get(j);
-					this.addEdge(node1, node2);
-				}
+		this.complete = true;
+	}
 
-			}
+	public boolean isComplete() {
+		return complete;
+	}
+
+	public EdgeCursor edgeCursor() {
+		if (!complete) {
+			throw new IllegalStateException("Edge cursor is only available once all nodes are connected");
 		}
+		return new EdgeCursor(getDistanceMatrix());
 	}
 
-	public List<Edge> kruskalMST() {
+	public List<Edge> minimumSpanningTree(MstAlgorithm algorithm) {
+		switch (algorithm) {
+			case PRIM:
+				return primMST();
+			case DELAUNAY:
+				return delaunayMST();
+			default:
+				return kruskalMST();
+		}
+	}
+
+	// Prim over the implicit complete graph without any edge list (see DensePrim). Distances are read
+	// from the distance matrix when one has been built and computed from the coordinates otherwise,
+	// so the tree never needs O(n^2) memory of its own
+	public List<Edge> primMST() {
+		if (!complete) {
+			throw new IllegalStateException("Prim MST is only available once all nodes are connected");
+		}
+		DensePrim prim = distanceMatrix != null && distanceMatrix.size() == nodes.size()
+				? new DensePrim(distanceMatrix) : new DensePrim(nodes);
+		prim.run();
 		List<Edge> mst = new ArrayList<>();
-		Collections.sort(edges, Comparator.comparingDouble(e -> e.distance));
+		for (int step = 1; step < prim.size(); step++) {
+			int node = prim.attached(step);
+			mst.add(new Edge(nodes.get(prim.parent(node)), nodes.get(node), prim.key(node)));
+		}
+		return mst;
+	}
 
-		Map<Node, Node> parents = new HashMap<>();
-		for (Node node : this.nodes) {
-			parents.put(node, node);
+	// The Euclidean MST is a subgraph of the Delaunay triangulation, so Kruskal only has to look at
+	// the triangulation's edges, weighted by haversine. Needs neither a distance matrix nor an edge
+	// list, and runs in O(n log n)
+	public List<Edge> delaunayMST() {
+		if (!complete) {
+			throw new IllegalStateException("Delaunay MST is only available once all nodes are connected");
+		}
+		NodeStore store = NodeStore.of(nodes);
+		SparseGraph triangulation = Delaunay.of(store).edges(store);
+		List<Edge> mst = new ArrayList<>();
+		for (int e : triangulation.minimumSpanningTree()) {
+			mst.add(new Edge(nodes.get(triangulation.source(e)), nodes.get(triangulation.destination(e)),
+					triangulation.weight(e)));
+		}
+		return mst;
+	}
+
+	// Kruskal on primitives: edges are ordered as packed long keys (see sortKey) and joined through an
+	// int[] union-find, stopping as soon as the tree has n - 1 edges. An explicit edge list is sorted
+	// with Arrays.parallelSort and itself left in its original order. A complete graph needs a key for
+	// every pair, 8 * n(n-1)/2 bytes, so above the in-heap matrix size it gets the same tree from
+	// primMST(), which keeps O(n) state and computes distances from the coordinates
+	public List<Edge> kruskalMST() {
+		if (complete) {
+			return nodes.size() > DistanceMatrix.MAX_IN_HEAP_NODES ? primMST() : kruskalCompleteMST();
+		}
+		List<Edge> mst = new ArrayList<>();
+		int n = nodes.size();
+		Map<Node, Integer> index = new HashMap<>();
+		for (int i = 0; i < n; i++) {
+			index.put(nodes.get(i), i);
+		}
+		long[] keys = new long[edges.size()];
+		for (int k = 0; k < keys.length; k++) {
+			keys[k] = sortKey(edges.get(k).distance, k);
 		}
-		for (Edge edge : this.edges) {
-			Node parent1 = find(edge.source, parents);
-			Node parent2 = find(edge.destination, parents);
-			if (parent1 != parent2) {
+		Arrays.parallelSort(keys);
+
+		DisjointSet sets = new DisjointSet(n);
+		for (long key : keys) {
+			if (mst.size() == n - 1) {
+				break;
+			}
+			Edge edge = edges.get((int) key);
+			Integer source = index.get(edge.source);
+			Integer destination = index.get(edge.destination);
+			// edges to nodes outside the graph cannot join two of its components
+			if (source != null && destination != null && sets.union(source, destination)) {
 				mst.add(edge);
-				parents.put(parent1, parent2);
 			}
 		}
+		return mst;
+	}
 
+	// Kruskal over the implicit complete graph: the keys of all pairs are filled one matrix row per
+	// task, so no Edge is created until it is accepted into the tree. At most MAX_IN_HEAP_NODES
+	// nodes, so the key array stays below 400 MB
+	private List<Edge> kruskalCompleteMST() {
+		List<Edge> mst = new ArrayList<>();
+		DistanceMatrix distances = getDistanceMatrix();
+		int n = nodes.size();
+		long[] keys = new long[(int) EdgeCursor.pairCount(n)];
+		// pair (i, j) with j < i sits at i * (i - 1) / 2 + j, the order EdgeCursor walks them in
+		IntStream.range(1, n).parallel().forEach(i -> {
+			int row = (int) ((long) i * (i - 1) / 2);
+			for (int j = 0; j < i; j++) {
+				keys[row + j] = sortKey(distances.distance(i, j), row + j);
+			}
+		});
+		// a heap instead of a full sort: every key is still held, but the tree is usually complete long
+		// before the heaviest pairs, so only the pairs up to its longest edge are ever ordered
+		heapify(keys);
+
+		DisjointSet sets = new DisjointSet(n);
+		EdgeCursor cursor = new EdgeCursor(distances);
+		for (int size = keys.length; size > 0 && mst.size() < n - 1; size--) {
+			long key = keys[0];
+			keys[0] = keys[size - 1];
+			siftDown(keys, 0, size - 1);
+			cursor.moveTo((int) key);
+			if (sets.union(cursor.destination(), cursor.source())) {
+				mst.add(new Edge(nodes.get(cursor.destination()), nodes.get(cursor.source()), cursor.weight()));
+			}
+		}
 		return mst;
 	}
 
-	public List<Edge> getMinimumWeightPerfectMatching() {
-		List<Edge> result = new ArrayList<>();
-		List<Node> nodes = new ArrayList<>(this.nodes);
-		while (!nodes.isEmpty()) {
-			Node node = nodes.remove(0);
-			double minWeight = Double.MAX_VALUE;
-			Node minNode = null;
-			List<Node> backupNode = this.nodes;
-			for (Node otherNode : nodes) {
-				double weight = calculateDistance(node, otherNode);
-				if (weight < minWeight) {
-					minWeight = weight;
-					minNode = otherNode;
-				}
-				result.add(new Edge(node, minNode, minWeight));
-				backupNode.remove(minNode);
+	// min-heap over the whole array, built bottom-up in linear time
+	private static void heapify(long[] heap) {
+		for (int i = heap.length / 2 - 1; i >= 0; i--) {
+			siftDown(heap, i, heap.length);
+		}
+	}
+
+	private static void siftDown(long[] heap, int i, int size) {
+		long key = heap[i];
+		int child;
+		while ((child = 2 * i + 1) < size) {
+			if (child + 1 < size && heap[child + 1] < heap[child]) {
+				child++;
 			}
-			this.nodes = backupNode;
-			return result;
+			if (heap[child] >= key) {
+				break;
+			}
+			heap[i] = heap[child];
+			i = child;
 		}
-		return result;
+		heap[i] = key;
+	}
+
+	// (weight as float << 32 | index): the high half is the float's bits with the magnitude bits of
+	// negative values flipped, so signed long order is weight order, and ties fall back to the index
+	static long sortKey(double weight, int index) {
+		int bits = Float.floatToIntBits((float) weight);
+		bits ^= (bits >> 31) & 0x7fffffff;
+		return ((long) bits << 32) | index;
+	}
+
+	// matching of all nodes with the given engine; Christofides.matchingMode picks one by node count
+	public List<Edge> getMinimumWeightPerfectMatching(PerfectMatching.Mode mode) {
+		return new PerfectMatching(mode).match(nodes);
 	}
 
 	public Map<Node, List<Node>> adjacencyMatrix() {
+		if (complete) {
+			// every node is adjacent to every other one, so each list is a view over the node list
+			Map<Node, List<Node>> adjacencyMatrix = new HashMap<>();
+			List<Node> all = this.nodes;
+			for (int i = 0; i < all.size(); i++) {
+				int self = i;
+				adjacencyMatrix.put(all.get(i), new AbstractList<Node>() {
+					@Override
+					public Node get(int k) {
+						return all.get(k < self ? k : k + 1);
+					}
+
+					@Override
+					public int size() {
+						return all.size() - 1;
+					}
+				});
+			}
+			return adjacencyMatrix;
+		}
+		return adjacencyMatrix(this.edges);
+	}
+
+	// adjacency of this graph's nodes restricted to the given edges, e.g. the MST plus a matching
+	public Map<Node, List<Node>> adjacencyMatrix(List<Edge> edges) {
 		Map<Node, List<Node>> adjacencyMatrix = new HashMap<>();
 		for (Node node : this.nodes) {
 			adjacencyMatrix.put(node, new ArrayList<>());
 		}
-		for (Edge edge : this.edges) {
+		for (Edge edge : edges) {
 			adjacencyMatrix.get(edge.source).add(edge.destination);
 			adjacencyMatrix.get(edge.destination).add(edge.source);
 		}
@@ -118,29 +300,38 @@ public class Graph implements Serializable {
 
 	}
 
-	private Node find(Node node, Map<Node, Node> parents) {
-		if (parents.get(node) == node) {
-			return node;
-		}
-		Node parent = find(parents.get(node), parents);
-		parents.put(node, parent);
-		return parent;
-	}
-
 	public List<Node> getNodes() {
 		return nodes;
 	}
 
 	public void setNodes(List<Node> nodes) {
 		this.nodes = nodes;
+		this.distanceMatrix = null;
 	}
 
 	public List<Edge> getEdges() {
+		if (complete) {
+			// lazy view over the implicit edges, one Edge per unordered pair created on access
+			EdgeCursor cursor = edgeCursor();
+			return new AbstractList<Edge>() {
+				@Override
+				public Edge get(int k) {
+					cursor.moveTo(k);
+					return new Edge(nodes.get(cursor.destination()), nodes.get(cursor.source()), cursor.weight());
+				}
+
+				@Override
+				public int size() {
+					return (int) Math.min(Integer.MAX_VALUE, EdgeCursor.pairCount(nodes.size()));
+				}
+			};
+		}
 		return edges;
 	}
 
 	public void setEdges(List<Edge> edges) {
 		this.edges = edges;
+		this.complete = false;
 	}
 
 }
\ No newline at end of file
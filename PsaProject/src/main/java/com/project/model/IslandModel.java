@@ -0,0 +1,217 @@
+package com.project.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Island-model genetic algorithm: several TSPGenetic populations evolve on their own threads and,
+// every migrationInterval generations, each island sends copies of its best routes to the next
+// island of a ring. Migrants wait in an AtomicReferenceArray slot per island until the receiver
+// reaches its next migration, so no island ever waits for another; a newer batch overwrites one
+// that was not picked up yet. Because islands run unsynchronised, which batch an island receives
+// depends on timing, and runs with the same seed may differ once migration is on.
+public class IslandModel {
+
+    public static final int DEFAULT_MIGRATION_INTERVAL = 50;
+    public static final int DEFAULT_MIGRANTS = 2;
+
+    // which routes of the receiving island the migrants overwrite
+    public enum Replacement {
+        WORST,
+        RANDOM
+    }
+
+    private final DistanceMatrix distances;
+    private final int islands;
+    private final int generations;
+    private final int migrationInterval;
+    private final int migrants;
+    private final Replacement replacement;
+    private final long seed;
+    private volatile List<IslandMetrics> metrics = Collections.emptyList();
+
+    // how one island converged: best and mean route length at every migration, the last generation
+    // that improved its best, and how many of the migrants it took in led to a new best
+    public static final class IslandMetrics {
+        private final double[] bestHistory;
+        private final double[] meanHistory;
+        private int epochs;
+        private int lastImprovement;
+        private int migrantsReceived;
+        private int improvingMigrations;
+
+        IslandMetrics(int epochs) {
+            bestHistory = new double[epochs];
+            meanHistory = new double[epochs];
+        }
+
+        void record(double best, double mean) {
+            bestHistory[epochs] = best;
+            meanHistory[epochs] = mean;
+            epochs++;
+        }
+
+        public double[] getBestHistory() {
+            return Arrays.copyOf(bestHistory, epochs);
+        }
+
+        public double[] getMeanHistory() {
+            return Arrays.copyOf(meanHistory, epochs);
+        }
+
+        public double getBestLength() {
+            return epochs == 0 ? Double.NaN : bestHistory[epochs - 1];
+        }
+
+        public int getLastImprovement() {
+            return lastImprovement;
+        }
+
+        public int getMigrantsReceived() {
+            return migrantsReceived;
+        }
+
+        public int getImprovingMigrations() {
+            return improvingMigrations;
+        }
+    }
+
+    public IslandModel(DistanceMatrix distances) {
+        this(distances, Runtime.getRuntime().availableProcessors(), TSPGenetic.GENERATIONS,
+                DEFAULT_MIGRATION_INTERVAL, DEFAULT_MIGRANTS, Replacement.WORST, System.nanoTime());
+    }
+
+    public IslandModel(DistanceMatrix distances, int islands, int generations, int migrationInterval, int migrants,
+                       Replacement replacement, long seed) {
+        if (islands < 1) {
+            throw new IllegalArgumentException("at least one island is needed");
+        }
+        if (migrationInterval < 1) {
+            throw new IllegalArgumentException("migration interval must be at least one generation");
+        }
+        if (migrants < 0 || migrants >= TSPGenetic.POPULATION_SIZE) {
+            throw new IllegalArgumentException("migrants must be between 0 and the population size");
+        }
+        this.distances = distances;
+        this.islands = islands;
+        this.generations = generations;
+        this.migrationInterval = migrationInterval;
+        this.migrants = migrants;
+        this.replacement = replacement;
+        this.seed = seed;
+    }
+
+    // evolves every island for the configured number of generations and returns the best route of all
+    public Tour optimise(Tour start) {
+        int[] cities = start.order().clone();
+        AtomicReferenceArray<int[][]> inboxes = new AtomicReferenceArray<>(islands);
+        SplittableRandom seeds = new SplittableRandom(seed);
+        List<IslandMetrics> islandMetrics = new ArrayList<>();
+        List<Callable<int[]>> tasks = new ArrayList<>();
+        for (int i = 0; i < islands; i++) {
+            int island = i;
+            long islandSeed = seeds.nextLong();
+            IslandMetrics m = new IslandMetrics(generations / migrationInterval + 1);
+            islandMetrics.add(m);
+            tasks.add(() -> runIsland(island, cities, islandSeed, inboxes, m));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(islands);
+        int[] best = cities;
+        double bestLength = Tour.length(cities, distances);
+        try {
+            for (Future<int[]> future : executor.invokeAll(tasks)) {
+                int[] route = future.get();
+                double length = Tour.length(route, distances);
+                if (length < bestLength) {
+                    bestLength = length;
+                    best = route;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("island failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        metrics = Collections.unmodifiableList(islandMetrics);
+        return new Tour(start.getNodeStore(), best);
+    }
+
+    private int[] runIsland(int island, int[] cities, long islandSeed, AtomicReferenceArray<int[][]> inboxes,
+                            IslandMetrics m) {
+        int n = cities.length;
+        TSPGenetic.GeneticAlgorithm geneticAlgorithm = new TSPGenetic.GeneticAlgorithm(distances, n, islandSeed, false);
+        TSPGenetic.Population population = new TSPGenetic.Population(TSPGenetic.POPULATION_SIZE, n, distances);
+        TSPGenetic.Population next = new TSPGenetic.Population(TSPGenetic.POPULATION_SIZE, n, distances);
+        SplittableRandom random = new SplittableRandom(islandSeed ^ 0x9E3779B97F4A7C15L);
+        population.initialise(cities, random);
+        int[] elites = new int[Math.max(migrants, 1)];
+        double best = population.getFittest().getDistance();
+        m.record(best, population.getMeanDistance());
+        for (int g = 1; g <= generations && !Thread.currentThread().isInterrupted(); g++) {
+            geneticAlgorithm.evolvePopulation(population, next);
+            TSPGenetic.Population tmp = population;
+            population = next;
+            next = tmp;
+            if (population.getFittest().getDistance() < best) {
+                best = population.getFittest().getDistance();
+                m.lastImprovement = g;
+            }
+            if (g % migrationInterval != 0) {
+                continue;
+            }
+            if (islands > 1 && migrants > 0) {
+                int count = population.selectElites(elites);
+                int[][] batch = new int[count][];
+                for (int k = 0; k < count; k++) {
+                    batch[k] = population.getRoutes()[elites[k]].getRoute().clone();
+                }
+                inboxes.set((island + 1) % islands, batch);
+                int[][] received = inboxes.getAndSet(island, null);
+                if (received != null) {
+                    double afterMigration = immigrate(population, received, random);
+                    if (afterMigration < best) {
+                        best = afterMigration;
+                        m.lastImprovement = g;
+                        m.improvingMigrations++;
+                    }
+                    m.migrantsReceived += received.length;
+                }
+            }
+            m.record(best, population.getMeanDistance());
+        }
+        return population.getFittest().getRoute().clone();
+    }
+
+    // writes the migrants over routes chosen by the replacement policy, sparing the island's fittest
+    // route; returns the island's best length afterwards
+    private double immigrate(TSPGenetic.Population population, int[][] received, SplittableRandom random) {
+        TSPGenetic.Route[] routes = population.getRoutes();
+        for (int[] migrant : received) {
+            int target = replacement == Replacement.WORST ? population.getWorstIndex() : random.nextInt(routes.length);
+            if (routes[target] == population.getFittest()) {
+                target = population.getWorstIndex();
+            }
+            routes[target].copyFrom(migrant);
+        }
+        return population.getFittest().getDistance();
+    }
+
+    public int getIslands() {
+        return islands;
+    }
+
+    // metrics of every island of the last optimise() call, in island order
+    public List<IslandMetrics> getMetrics() {
+        return metrics;
+    }
+}
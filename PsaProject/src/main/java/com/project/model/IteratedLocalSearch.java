@@ -0,0 +1,72 @@
+package com.project.model;
+
+import java.util.List;
+
+// Iterated local search: neighbour-list 2-opt/Or-opt down to a local optimum, then repeatedly a
+// double-bridge kick from RandomSwap followed by the same local search, keeping the result only
+// when it is shorter. Runs for a wall-clock budget; the first city keeps position 0.
+public class IteratedLocalSearch {
+
+    static final int DEFAULT_NEIGHBORS = 8;
+
+    private final DistanceMatrix distances;
+    private final NeighborLists neighbors;
+    private final long seed;
+    private long kicks;
+    private long improvements;
+
+    public IteratedLocalSearch(DistanceMatrix distances) {
+        this(distances, NeighborLists.nearest(distances, DEFAULT_NEIGHBORS), System.nanoTime());
+    }
+
+    public IteratedLocalSearch(DistanceMatrix distances, NeighborLists neighbors, long seed) {
+        this.distances = distances;
+        this.neighbors = neighbors;
+        this.seed = seed;
+    }
+
+    public List<Node> optimise(List<Node> nodes, long budgetMillis) {
+        return optimise(Tour.of(nodes, distances), budgetMillis).toNodes();
+    }
+
+    // returns the best tour found in the budget; start is not modified
+    public Tour optimise(Tour start, long budgetMillis) {
+        long deadline = System.nanoTime() + budgetMillis * 1000000L;
+        int[] current = start.order().clone();
+        int n = current.length;
+        kicks = 0;
+        improvements = 0;
+        if (n < 8) {
+            return new Tour(start.getNodeStore(), current);
+        }
+        NeighborListSearch search = new NeighborListSearch(distances, neighbors, true);
+        ArrayTour scratch = new ArrayTour(current, distances.size());
+        RandomSwap perturbation = new RandomSwap(distances, seed);
+        search.optimise(current, scratch, Long.MAX_VALUE);
+        double cost = Tour.length(current, distances);
+        int[] trial = new int[n];
+        while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+            System.arraycopy(current, 0, trial, 0, n);
+            perturbation.doubleBridge(trial);
+            search.optimise(trial, scratch, Long.MAX_VALUE);
+            kicks++;
+            double trialCost = Tour.length(trial, distances);
+            if (trialCost < cost - TwoOpt.EPSILON) {
+                cost = trialCost;
+                int[] tmp = current;
+                current = trial;
+                trial = tmp;
+                improvements++;
+            }
+        }
+        return new Tour(start.getNodeStore(), current);
+    }
+
+    public long getKicks() {
+        return kicks;
+    }
+
+    public long getImprovements() {
+        return improvements;
+    }
+}
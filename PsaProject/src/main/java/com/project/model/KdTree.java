@@ -0,0 +1,464 @@
+package com.project.model;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Static k-d tree over the cities of a NodeStore. Cities are placed on the unit sphere, where the
+// straight-line (chord) distance grows with the great-circle distance, so the nearest city by chord
+// is the nearest by haversine and no projection is needed. The tree is implicit: cities are permuted
+// so that every subtree is a range [lo, hi) of positions whose middle position holds the splitting
+// city, split along the axis with the widest spread; ranges of at most LEAF cities are scanned.
+// Coordinates are copied in tree order so a query walks memory sequentially. Subtrees above
+// PARALLEL_THRESHOLD cities are built as fork-join tasks.
+// The tree is immutable and queries take their buffers from the caller, so any number of threads can
+// query it without allocating. Nearest-unvisited queries go through an Unvisited view, which keeps its
+// own record of removed cities.
+public final class KdTree {
+
+    static final int PARALLEL_THRESHOLD = 8192;
+    private static final int LEAF = 8;
+
+    private final int n;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] zs;
+    // city at each tree position, and the position of each city
+    private final int[] cityAt;
+    private final int[] positionOf;
+    // split axis (0, 1, 2) at the middle position of every inner range
+    private final byte[] axes;
+    // number of cities in the range whose middle position this is, for inner ranges
+    private final int[] rangeSizes;
+
+    public KdTree(NodeStore store) {
+        n = store.size();
+        xs = new double[n];
+        ys = new double[n];
+        zs = new double[n];
+        cityAt = new int[n];
+        positionOf = new int[n];
+        axes = new byte[n];
+        rangeSizes = new int[n];
+        for (int i = 0; i < n; i++) {
+            double lat = Math.toRadians(store.latitude(i));
+            double lon = Math.toRadians(store.longitude(i));
+            xs[i] = Math.cos(lat) * Math.cos(lon);
+            ys[i] = Math.cos(lat) * Math.sin(lon);
+            zs[i] = Math.sin(lat);
+            cityAt[i] = i;
+        }
+        if (n > PARALLEL_THRESHOLD) {
+            ForkJoinPool.commonPool().invoke(new Build(this, 0, n));
+        } else {
+            build(0, n);
+        }
+        for (int p = 0; p < n; p++) {
+            positionOf[cityAt[p]] = p;
+        }
+    }
+
+    public static KdTree of(List<Node> nodes) {
+        return new KdTree(NodeStore.of(nodes));
+    }
+
+    private static final class Build extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient KdTree tree;
+        private final int lo;
+        private final int hi;
+
+        Build(KdTree tree, int lo, int hi) {
+            this.tree = tree;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= PARALLEL_THRESHOLD) {
+                tree.build(lo, hi);
+                return;
+            }
+            int mid = tree.split(lo, hi);
+            invokeAll(new Build(tree, lo, mid), new Build(tree, mid + 1, hi));
+        }
+    }
+
+    private void build(int lo, int hi) {
+        while (hi - lo > LEAF) {
+            int mid = split(lo, hi);
+            build(lo, mid);
+            lo = mid + 1;
+        }
+    }
+
+    // puts the median of the range along its widest axis in the middle position; returns it
+    private int split(int lo, int hi) {
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        double maxZ = Double.NEGATIVE_INFINITY;
+        for (int p = lo; p < hi; p++) {
+            minX = Math.min(minX, xs[p]);
+            maxX = Math.max(maxX, xs[p]);
+            minY = Math.min(minY, ys[p]);
+            maxY = Math.max(maxY, ys[p]);
+            minZ = Math.min(minZ, zs[p]);
+            maxZ = Math.max(maxZ, zs[p]);
+        }
+        double spreadX = maxX - minX;
+        double spreadY = maxY - minY;
+        double spreadZ = maxZ - minZ;
+        int axis = spreadX >= spreadY && spreadX >= spreadZ ? 0 : spreadY >= spreadZ ? 1 : 2;
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, coordinates(axis));
+        axes[mid] = (byte) axis;
+        rangeSizes[mid] = hi - lo;
+        return mid;
+    }
+
+    private double[] coordinates(int axis) {
+        return axis == 0 ? xs : axis == 1 ? ys : zs;
+    }
+
+    // quickselect over positions left .. right so that position k holds its order statistic along key
+    private void select(int left, int right, int k, double[] key) {
+        while (right > left) {
+            int middle = (left + right) >>> 1;
+            // median of three as the pivot, moved to the left end
+            if (key[middle] < key[left]) {
+                swap(middle, left);
+            }
+            if (key[right] < key[left]) {
+                swap(right, left);
+            }
+            if (key[right] < key[middle]) {
+                swap(right, middle);
+            }
+            swap(left, middle);
+            double pivot = key[left];
+            int i = left;
+            int j = right + 1;
+            while (true) {
+                do {
+                    i++;
+                } while (i <= right && key[i] < pivot);
+                do {
+                    j--;
+                } while (key[j] > pivot);
+                if (i >= j) {
+                    break;
+                }
+                swap(i, j);
+            }
+            swap(left, j);
+            if (j == k) {
+                return;
+            }
+            if (j < k) {
+                left = j + 1;
+            } else {
+                right = j - 1;
+            }
+        }
+    }
+
+    private void swap(int a, int b) {
+        double t = xs[a];
+        xs[a] = xs[b];
+        xs[b] = t;
+        t = ys[a];
+        ys[a] = ys[b];
+        ys[b] = t;
+        t = zs[a];
+        zs[a] = zs[b];
+        zs[b] = t;
+        int c = cityAt[a];
+        cityAt[a] = cityAt[b];
+        cityAt[b] = c;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    // the up to k nearest cities to the given one, itself excluded, written closest first into
+    // 'into' (ties by lower index); scratch needs room for k values. Returns how many were found
+    public int nearest(int city, int k, int[] into, double[] scratch) {
+        int p = positionOf[city];
+        return nearest(xs[p], ys[p], zs[p], city, k, into, scratch);
+    }
+
+    // the same around a point given by its coordinates
+    public int nearest(double latitude, double longitude, int k, int[] into, double[] scratch) {
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        return nearest(Math.cos(lat) * Math.cos(lon), Math.cos(lat) * Math.sin(lon), Math.sin(lat), -1, k,
+                into, scratch);
+    }
+
+    private int nearest(double qx, double qy, double qz, int exclude, int k, int[] into, double[] scratch) {
+        k = Math.min(k, into.length);
+        if (k <= 0) {
+            return 0;
+        }
+        int count = search(0, n, qx, qy, qz, exclude, k, into, scratch, 0);
+        // into[0 .. count - 1] is a max-heap on scratch; heap sort it into closest first
+        for (int size = count - 1; size > 0; size--) {
+            int city = into[size];
+            double d = scratch[size];
+            into[size] = into[0];
+            scratch[size] = scratch[0];
+            siftDown(into, scratch, size, city, d);
+        }
+        return count;
+    }
+
+    // adds the range's cities to the bounded max-heap (into, scratch) of the given count; returns the
+    // new count
+    private int search(int lo, int hi, double qx, double qy, double qz, int exclude, int k, int[] into,
+                       double[] scratch, int count) {
+        if (hi - lo <= LEAF) {
+            for (int p = lo; p < hi; p++) {
+                count = offer(p, qx, qy, qz, exclude, k, into, scratch, count);
+            }
+            return count;
+        }
+        int mid = (lo + hi) >>> 1;
+        double diff = axisDifference(mid, qx, qy, qz);
+        boolean leftFirst = diff < 0;
+        count = leftFirst ? search(lo, mid, qx, qy, qz, exclude, k, into, scratch, count)
+                : search(mid + 1, hi, qx, qy, qz, exclude, k, into, scratch, count);
+        count = offer(mid, qx, qy, qz, exclude, k, into, scratch, count);
+        if (count < k || diff * diff <= scratch[0]) {
+            count = leftFirst ? search(mid + 1, hi, qx, qy, qz, exclude, k, into, scratch, count)
+                    : search(lo, mid, qx, qy, qz, exclude, k, into, scratch, count);
+        }
+        return count;
+    }
+
+    private int offer(int p, double qx, double qy, double qz, int exclude, int k, int[] into, double[] scratch,
+                      int count) {
+        int city = cityAt[p];
+        if (city == exclude) {
+            return count;
+        }
+        double d = squaredChord(p, qx, qy, qz);
+        if (count < k) {
+            // sift up
+            int i = count;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!closer(scratch[parent], into[parent], d, city)) {
+                    break;
+                }
+                into[i] = into[parent];
+                scratch[i] = scratch[parent];
+                i = parent;
+            }
+            into[i] = city;
+            scratch[i] = d;
+            return count + 1;
+        }
+        if (closer(d, city, scratch[0], into[0])) {
+            siftDown(into, scratch, count, city, d);
+        }
+        return count;
+    }
+
+    // places (city, d) at the root of the max-heap of the given size and sifts it down
+    private static void siftDown(int[] into, double[] scratch, int size, int city, double d) {
+        int i = 0;
+        int child;
+        while ((child = 2 * i + 1) < size) {
+            if (child + 1 < size && closer(scratch[child], into[child], scratch[child + 1], into[child + 1])) {
+                child++;
+            }
+            if (!closer(d, city, scratch[child], into[child])) {
+                break;
+            }
+            into[i] = into[child];
+            scratch[i] = scratch[child];
+            i = child;
+        }
+        into[i] = city;
+        scratch[i] = d;
+    }
+
+    // equal distances go to the lower city index, as in a linear scan
+    private static boolean closer(double d, int city, double otherDistance, int other) {
+        return d < otherDistance || (d == otherDistance && city < other);
+    }
+
+    // every city within the given distance in metres of the given one, itself excluded, in no
+    // particular order. Writes as many as fit into 'into' and returns how many there are in total
+    public int withinRadius(int city, double metres, int[] into) {
+        int p = positionOf[city];
+        double angle = Math.min(metres / Graph.EARTH_RADIUS_METRES, Math.PI);
+        double chord = 2 * Math.sin(angle / 2);
+        return withinRadius(0, n, xs[p], ys[p], zs[p], city, chord * chord, into, 0);
+    }
+
+    private int withinRadius(int lo, int hi, double qx, double qy, double qz, int exclude, double limit, int[] into,
+                             int count) {
+        if (hi - lo <= LEAF) {
+            for (int p = lo; p < hi; p++) {
+                count = collect(p, qx, qy, qz, exclude, limit, into, count);
+            }
+            return count;
+        }
+        int mid = (lo + hi) >>> 1;
+        double diff = axisDifference(mid, qx, qy, qz);
+        if (diff < 0 || diff * diff <= limit) {
+            count = withinRadius(lo, mid, qx, qy, qz, exclude, limit, into, count);
+        }
+        count = collect(mid, qx, qy, qz, exclude, limit, into, count);
+        if (diff >= 0 || diff * diff <= limit) {
+            count = withinRadius(mid + 1, hi, qx, qy, qz, exclude, limit, into, count);
+        }
+        return count;
+    }
+
+    private int collect(int p, double qx, double qy, double qz, int exclude, double limit, int[] into, int count) {
+        if (cityAt[p] != exclude && squaredChord(p, qx, qy, qz) <= limit) {
+            if (count < into.length) {
+                into[count] = cityAt[p];
+            }
+            count++;
+        }
+        return count;
+    }
+
+    // query minus splitting value along the split axis at position mid
+    private double axisDifference(int mid, double qx, double qy, double qz) {
+        switch (axes[mid]) {
+            case 0:
+                return qx - xs[mid];
+            case 1:
+                return qy - ys[mid];
+            default:
+                return qz - zs[mid];
+        }
+    }
+
+    private double squaredChord(int p, double qx, double qy, double qz) {
+        double dx = xs[p] - qx;
+        double dy = ys[p] - qy;
+        double dz = zs[p] - qz;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    // a view with every city unvisited
+    public Unvisited unvisited() {
+        return new Unvisited();
+    }
+
+    // The cities not removed yet, for nearest-unvisited construction. Each inner range keeps how many
+    // of its cities are left, so exhausted subtrees are skipped and a query stays logarithmic however
+    // many cities are gone. Not thread-safe; give each thread its own view.
+    public final class Unvisited {
+        private final boolean[] removed;
+        private final int[] left;
+        private int size;
+        // result of the current query, kept in fields so the recursion allocates nothing
+        private int best;
+        private double bestDistance;
+
+        private Unvisited() {
+            removed = new boolean[n];
+            left = new int[n];
+            reset();
+        }
+
+        // every city unvisited again
+        public void reset() {
+            Arrays.fill(removed, false);
+            System.arraycopy(rangeSizes, 0, left, 0, n);
+            size = n;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public boolean contains(int city) {
+            return !removed[positionOf[city]];
+        }
+
+        public void remove(int city) {
+            int p = positionOf[city];
+            if (removed[p]) {
+                return;
+            }
+            removed[p] = true;
+            size--;
+            int lo = 0;
+            int hi = n;
+            while (hi - lo > LEAF) {
+                int mid = (lo + hi) >>> 1;
+                left[mid]--;
+                if (p == mid) {
+                    return;
+                }
+                if (p < mid) {
+                    hi = mid;
+                } else {
+                    lo = mid + 1;
+                }
+            }
+        }
+
+        // the unvisited city nearest to the given one (which may itself be visited or not); -1 when
+        // every other city is visited
+        public int nearest(int city) {
+            int p = positionOf[city];
+            best = -1;
+            bestDistance = Double.POSITIVE_INFINITY;
+            search(0, n, xs[p], ys[p], zs[p], city);
+            return best;
+        }
+
+        private void search(int lo, int hi, double qx, double qy, double qz, int exclude) {
+            if (hi - lo <= LEAF) {
+                for (int p = lo; p < hi; p++) {
+                    consider(p, qx, qy, qz, exclude);
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            if (left[mid] == 0) {
+                return;
+            }
+            double diff = axisDifference(mid, qx, qy, qz);
+            if (diff < 0) {
+                search(lo, mid, qx, qy, qz, exclude);
+            } else {
+                search(mid + 1, hi, qx, qy, qz, exclude);
+            }
+            consider(mid, qx, qy, qz, exclude);
+            if (diff * diff <= bestDistance) {
+                if (diff < 0) {
+                    search(mid + 1, hi, qx, qy, qz, exclude);
+                } else {
+                    search(lo, mid, qx, qy, qz, exclude);
+                }
+            }
+        }
+
+        private void consider(int p, double qx, double qy, double qz, int exclude) {
+            if (removed[p] || cityAt[p] == exclude) {
+                return;
+            }
+            double d = squaredChord(p, qx, qy, qz);
+            if (closer(d, cityAt[p], bestDistance, best)) {
+                bestDistance = d;
+                best = cityAt[p];
+            }
+        }
+    }
+}
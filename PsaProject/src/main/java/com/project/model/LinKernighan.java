@@ -0,0 +1,225 @@
+package com.project.model;
+
+import java.util.List;
+
+// Variable-depth Lin-Kernighan improver. Starting from an edge (t1,t2) it builds a chain of sequential
+// exchanges: each step adds (t2,t3) for a candidate t3 of t2, removes (t3,t4) and closes the tour with
+// (t4,t1), which is one 2-opt flip on the tour. The chain is only extended while the partial gain stays
+// positive and stops at maxDepth; the best closed tour seen along the chain is kept. The first levels
+// try a few alternatives (BREADTH) before giving up, deeper levels follow the best lookahead only.
+public class LinKernighan {
+
+    public static final int DEFAULT_MAX_DEPTH = 10;
+    static final int DEFAULT_NEIGHBORS = 8;
+
+    // alternatives tried at each of the first levels of the chain, later levels try one
+    private static final int[] BREADTH = {5, 3};
+
+    private static final double EPSILON = TwoOpt.EPSILON;
+
+    private final DistanceMatrix distances;
+    private final NeighborLists neighbors;
+    private final int maxDepth;
+    private long movesEvaluated;
+    private long movesApplied;
+
+    private OrientedTour tour;
+    private CityQueue queue;
+    // flips of the current chain as (a,b,c,d) of OrientedTour.move2opt
+    private int[] flips;
+    private int flipCount;
+    private double bestGain;
+    private int bestFlipCount;
+    // edges added and removed by the current chain, which may not be undone by a later step
+    private int[] added;
+    private int addedCount;
+    private int[] removed;
+    private int removedCount;
+    // candidate (t3,t4) pairs of each level, best lookahead first
+    private int[][] candidateT3;
+    private int[][] candidateT4;
+    private double[][] candidateScore;
+
+    public LinKernighan(DistanceMatrix distances) {
+        this(distances, NeighborLists.nearest(distances, DEFAULT_NEIGHBORS), DEFAULT_MAX_DEPTH);
+    }
+
+    public LinKernighan(DistanceMatrix distances, NeighborLists neighbors, int maxDepth) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("maxDepth must be at least 1");
+        }
+        this.distances = distances;
+        this.neighbors = neighbors;
+        this.maxDepth = maxDepth;
+    }
+
+    public List<Node> optimise(List<Node> nodes) {
+        return optimise(Tour.of(nodes, distances)).toNodes();
+    }
+
+    // improves the tour in place until no chain from any city gains anything; the first city keeps position 0
+    public Tour optimise(Tour start) {
+        int[] t = start.order();
+        int n = t.length;
+        if (n < 5) {
+            return start;
+        }
+        tour = OrientedTour.create(t, distances.size());
+        queue = new CityQueue(n, distances.size());
+        flips = new int[4 * maxDepth];
+        added = new int[2 * maxDepth];
+        removed = new int[2 * (maxDepth + 1)];
+        int k = neighbors.k();
+        candidateT3 = new int[maxDepth][k];
+        candidateT4 = new int[maxDepth][k];
+        candidateScore = new double[maxDepth][k];
+        for (int city : t) {
+            queue.push(city);
+        }
+        while (!queue.isEmpty()) {
+            int t1 = queue.poll();
+            while (improveCity(t1)) {
+                // keep working on t1 until it has nothing left to offer
+            }
+        }
+        System.arraycopy(tour.toOrder(t[0]), 0, t, 0, n);
+        tour = null;
+        return start;
+    }
+
+    private boolean improveCity(int t1) {
+        for (int direction = 0; direction < 2; direction++) {
+            int t2 = direction == 0 ? tour.next(t1) : tour.prev(t1);
+            flipCount = 0;
+            bestGain = EPSILON;
+            bestFlipCount = 0;
+            addedCount = 0;
+            removedCount = 0;
+            removed[removedCount++] = t1;
+            removed[removedCount++] = t2;
+            step(t1, t2, distances.distance(t1, t2), 0);
+            if (bestFlipCount > 0) {
+                undo(bestFlipCount);
+                for (int i = 0; i < flipCount; i++) {
+                    queue.push(flips[i]);
+                }
+                queue.push(t1);
+                movesApplied++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // extends the chain from its open end t2, where gain is what the chain has saved so far not
+    // counting the closing edge (t2,t1); unwinds its own flips unless an improvement was found
+    private void step(int t1, int t2, double gain, int level) {
+        if (level == maxDepth) {
+            return;
+        }
+        int count = candidates(t1, t2, gain, level);
+        int breadth = level < BREADTH.length ? BREADTH[level] : 1;
+        for (int i = 0; i < count && i < breadth; i++) {
+            int t3 = candidateT3[level][i];
+            int t4 = candidateT4[level][i];
+            double g = gain - distances.distance(t2, t3) + distances.distance(t3, t4);
+            int mark = flipCount;
+            flip(t2, t1, t3, t4);
+            added[addedCount++] = t2;
+            added[addedCount++] = t3;
+            removed[removedCount++] = t3;
+            removed[removedCount++] = t4;
+            double closed = g - distances.distance(t4, t1);
+            if (closed > bestGain) {
+                bestGain = closed;
+                bestFlipCount = flipCount;
+            }
+            step(t1, t4, g, level + 1);
+            if (bestFlipCount > 0) {
+                return;
+            }
+            undo(mark);
+            addedCount -= 2;
+            removedCount -= 2;
+        }
+    }
+
+    // fills the candidate arrays of the level and returns how many there are
+    private int candidates(int t1, int t2, double gain, int level) {
+        // t4 has to sit on the same side of t3 as t1 does of t2 for the flip to keep one cycle
+        boolean t1BeforeT2 = tour.prev(t2) == t1;
+        int[] t3s = candidateT3[level];
+        int[] t4s = candidateT4[level];
+        double[] scores = candidateScore[level];
+        int count = 0;
+        for (int r = 0; r < neighbors.count(t2); r++) {
+            int t3 = neighbors.get(t2, r);
+            double g1 = gain - distances.distance(t2, t3);
+            if (g1 <= EPSILON) {
+                break;
+            }
+            if (t3 == t1 || !tour.contains(t3)) {
+                continue;
+            }
+            int t4 = t1BeforeT2 ? tour.prev(t3) : tour.next(t3);
+            if (t4 == t2 || contains(removed, removedCount, t2, t3) || contains(added, addedCount, t3, t4)) {
+                continue;
+            }
+            movesEvaluated++;
+            double score = distances.distance(t3, t4) - distances.distance(t2, t3);
+            int slot = count++;
+            while (slot > 0 && scores[slot - 1] < score) {
+                t3s[slot] = t3s[slot - 1];
+                t4s[slot] = t4s[slot - 1];
+                scores[slot] = scores[slot - 1];
+                slot--;
+            }
+            t3s[slot] = t3;
+            t4s[slot] = t4;
+            scores[slot] = score;
+        }
+        return count;
+    }
+
+    private static boolean contains(int[] edges, int count, int a, int b) {
+        for (int i = 0; i < count; i += 2) {
+            if ((edges[i] == a && edges[i + 1] == b) || (edges[i] == b && edges[i + 1] == a)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void flip(int a, int b, int c, int d) {
+        tour.move2opt(a, b, c, d);
+        flips[flipCount++] = a;
+        flips[flipCount++] = b;
+        flips[flipCount++] = c;
+        flips[flipCount++] = d;
+    }
+
+    // takes flips back until only the first mark entries are left
+    private void undo(int mark) {
+        while (flipCount > mark) {
+            int d = flips[--flipCount];
+            int c = flips[--flipCount];
+            int b = flips[--flipCount];
+            int a = flips[--flipCount];
+            // the flip left edges (a,c) and (b,d); flipping those restores (a,b) and (c,d)
+            tour.move2opt(a, c, b, d);
+        }
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public long getMovesEvaluated() {
+        return movesEvaluated;
+    }
+
+    // improving chains committed
+    public long getMovesApplied() {
+        return movesApplied;
+    }
+}
@@ -0,0 +1,199 @@
+package com.project.model;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.stream.IntStream;
+
+// Distance matrix kept off-heap in a memory-mapped file, for instances too large for PackedDistanceMatrix.
+// Same lower-triangle layout, but entries are quantized to float. The file starts with a header carrying the
+// node count and a hash of the coordinates, so a later run on the same dataset maps the file instead of
+// recomputing it. The OS pages distances in as the solvers touch them.
+public class MappedDistanceMatrix extends DistanceMatrix {
+
+    private static final int MAGIC = 0x54535044; // "TSPD"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int CHUNK_SHIFT = 28; // 2^28 floats (1 GB) per mapping, below the 2 GB buffer limit
+    private static final long CHUNK_FLOATS = 1L << CHUNK_SHIFT;
+    private static final long CHUNK_MASK = CHUNK_FLOATS - 1;
+
+    private final FloatBuffer[] chunks;
+    private final long hash;
+    private final boolean reused;
+
+    private MappedDistanceMatrix(NodeStore store, FloatBuffer[] chunks, long hash, boolean reused) {
+        super(store);
+        this.chunks = chunks;
+        this.hash = hash;
+        this.reused = reused;
+    }
+
+    // maps the cache file for these nodes, creating it first if it is missing or was written for other data
+    public static MappedDistanceMatrix open(NodeStore store, Path file) {
+        long hash = datasetHash(store);
+        try {
+            if (Files.exists(file) && matches(file, store.size(), hash)) {
+                return new MappedDistanceMatrix(store, floats(map(file, store.size(), FileChannel.MapMode.READ_ONLY)),
+                        hash, true);
+            }
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            return new MappedDistanceMatrix(store, build(store, file, hash), hash, false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map distance matrix " + file, e);
+        }
+    }
+
+    // one cache file per dataset inside the given directory
+    public static MappedDistanceMatrix inDirectory(NodeStore store, Path directory) {
+        String name = "distances-" + Long.toHexString(datasetHash(store)) + "-" + store.size() + ".bin";
+        return open(store, directory.resolve(name));
+    }
+
+    @Override
+    public double distance(int i, int j) {
+        if (i == j) {
+            return 0;
+        }
+        long k = i > j ? cell(i, j) : cell(j, i);
+        return chunks[(int) (k >>> CHUNK_SHIFT)].get((int) (k & CHUNK_MASK));
+    }
+
+    public long getDatasetHash() {
+        return hash;
+    }
+
+    // true when the distances came from an existing cache file rather than being computed in this run
+    public boolean isReused() {
+        return reused;
+    }
+
+    public static long datasetHash(NodeStore store) {
+        // 64-bit FNV-1a over the node count and every coordinate, in store order
+        long h = 0xcbf29ce484222325L;
+        h = fnv(h, store.size());
+        for (int i = 0; i < store.size(); i++) {
+            h = fnv(h, Double.doubleToLongBits(store.latitude(i)));
+            h = fnv(h, Double.doubleToLongBits(store.longitude(i)));
+        }
+        return h;
+    }
+
+    private static long fnv(long h, long value) {
+        for (int b = 0; b < 8; b++) {
+            h ^= (value >>> (b * 8)) & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    private static long cell(int i, int j) {
+        return (long) i * (i - 1) / 2 + j;
+    }
+
+    private static long cells(int n) {
+        return (long) n * (n - 1) / 2;
+    }
+
+    private static boolean matches(Path file, int n, long hash) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "r")) {
+            if (raf.length() != HEADER_BYTES + cells(n) * Float.BYTES) {
+                return false;
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            raf.getChannel().read(header, 0);
+            header.flip();
+            return header.getInt() == MAGIC && header.getInt() == VERSION && header.getInt() == n
+                    && header.getLong() == hash;
+        }
+    }
+
+    private static MappedByteBuffer[] map(Path file, int n, FileChannel.MapMode mode) throws IOException {
+        long total = cells(n);
+        MappedByteBuffer[] chunks = new MappedByteBuffer[(int) ((total + CHUNK_FLOATS - 1) >>> CHUNK_SHIFT)];
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), mode == FileChannel.MapMode.READ_ONLY ? "r" : "rw")) {
+            FileChannel channel = raf.getChannel();
+            for (int c = 0; c < chunks.length; c++) {
+                long first = (long) c << CHUNK_SHIFT;
+                long count = Math.min(CHUNK_FLOATS, total - first);
+                chunks[c] = channel.map(mode, HEADER_BYTES + first * Float.BYTES, count * Float.BYTES);
+            }
+        }
+        return chunks;
+    }
+
+    private static FloatBuffer[] floats(MappedByteBuffer[] buffers) {
+        FloatBuffer[] chunks = new FloatBuffer[buffers.length];
+        for (int c = 0; c < buffers.length; c++) {
+            chunks[c] = buffers[c].order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+        }
+        return chunks;
+    }
+
+    // writes a private temporary file next to the cache file and renames it into place once complete, so
+    // another process never sees, or has truncated under its mapping, a half-written file. A process
+    // still mapping an older file keeps reading it, as the rename only replaces the directory entry
+    private static FloatBuffer[] build(NodeStore store, Path file, long hash) throws IOException {
+        Path temporary = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName() + ".", ".tmp");
+        try {
+            FloatBuffer[] chunks = fill(store, temporary, hash);
+            try {
+                Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return chunks;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static FloatBuffer[] fill(NodeStore store, Path file, long hash) throws IOException {
+        int n = store.size();
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(HEADER_BYTES + cells(n) * Float.BYTES);
+        }
+        MappedByteBuffer[] buffers = map(file, n, FileChannel.MapMode.READ_WRITE);
+        FloatBuffer[] chunks = floats(buffers);
+
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+        double[] cosLat = new double[n];
+        for (int i = 0; i < n; i++) {
+            lat[i] = Math.toRadians(store.latitude(i));
+            lon[i] = Math.toRadians(store.longitude(i));
+            cosLat[i] = Math.cos(lat[i]);
+        }
+        IntStream.range(1, n).parallel().forEach(i -> {
+            long k = cell(i, 0);
+            for (int j = 0; j < i; j++, k++) {
+                float d = (float) Graph.haversine(lat[i], lon[i], cosLat[i], lat[j], lon[j], cosLat[j]);
+                chunks[(int) (k >>> CHUNK_SHIFT)].put((int) (k & CHUNK_MASK), d);
+            }
+        });
+
+        for (MappedByteBuffer buffer : buffers) {
+            buffer.force();
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            FileChannel channel = raf.getChannel();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(n).putLong(hash);
+            header.flip();
+            channel.write(header, 0);
+            channel.force(true);
+        }
+        return chunks;
+    }
+}
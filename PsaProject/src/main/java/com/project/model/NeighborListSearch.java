@@ -0,0 +1,202 @@
+package com.project.model;
+
+// 2-opt and Or-opt driven by candidate neighbour lists and don't-look bits.
+// Only moves that add an edge from a city to one of its k nearest neighbours are tried, and a city
+// is looked at again only after one of its tour edges changed, so a pass costs about O(n * k)
+// instead of the O(n^2) of the full neighbourhood scan in TwoOpt.
+public class NeighborListSearch {
+
+    // longest segment Or-opt will move
+    static final int MAX_SEGMENT = 3;
+
+    private static final double EPSILON = TwoOpt.EPSILON;
+
+    private final DistanceMatrix distances;
+    private final NeighborLists neighbors;
+    private final boolean orOpt;
+    private long movesEvaluated;
+    private long movesApplied;
+    private CityQueue queue;
+
+    public NeighborListSearch(DistanceMatrix distances, NeighborLists neighbors, boolean orOpt) {
+        this.distances = distances;
+        this.neighbors = neighbors;
+        this.orOpt = orOpt;
+    }
+
+    // improves the tour in place until no candidate move gains anything; the first city keeps position 0
+    public Tour optimise(Tour tour) {
+        int[] t = tour.order();
+        int n = t.length;
+        if (n < 5) {
+            return tour;
+        }
+        OrientedTour orientedTour = OrientedTour.create(t, distances.size());
+        search(orientedTour, t, Long.MAX_VALUE);
+        System.arraycopy(orientedTour.toOrder(t[0]), 0, t, 0, n);
+        return tour;
+    }
+
+    // bounded variant for callers that polish many routes over the same cities: loads route into the
+    // reusable scratch tour, applies at most maxMoves improving moves and writes the result back with
+    // route[0] kept first. Returns the number of moves applied
+    long optimise(int[] route, ArrayTour scratch, long maxMoves) {
+        if (route.length < 5) {
+            return 0;
+        }
+        scratch.load(route);
+        long applied = search(scratch, route, maxMoves);
+        scratch.writeOrder(route[0], route);
+        return applied;
+    }
+
+    private long search(OrientedTour orientedTour, int[] cities, long maxMoves) {
+        if (queue == null || queue.capacity() != cities.length) {
+            queue = new CityQueue(cities.length, distances.size());
+        }
+        queue.clear();
+        for (int city : cities) {
+            queue.push(city);
+        }
+        long start = movesApplied;
+        while (!queue.isEmpty() && movesApplied - start < maxMoves) {
+            int a = queue.poll();
+            while (movesApplied - start < maxMoves && improveCity(orientedTour, a)) {
+                // keep working on a until it has nothing left to offer
+            }
+        }
+        return movesApplied - start;
+    }
+
+    private boolean improveCity(OrientedTour tour, int a) {
+        return twoOptMove(tour, a) || (orOpt && orOptMove(tour, a));
+    }
+
+    // tries to replace (a,b) and (c,d) by (a,c) and (b,d) where c is a candidate of a and b, d are the
+    // successors (or both predecessors) of a and c
+    private boolean twoOptMove(OrientedTour tour, int a) {
+        for (int direction = 0; direction < 2; direction++) {
+            int b = direction == 0 ? tour.next(a) : tour.prev(a);
+            double removed = distances.distance(a, b);
+            for (int r = 0; r < neighbors.count(a); r++) {
+                int c = neighbors.get(a, r);
+                double gain = removed - distances.distance(a, c);
+                if (gain <= EPSILON) {
+                    // candidates are sorted, so no later one can gain either
+                    break;
+                }
+                if (!tour.contains(c) || c == b) {
+                    continue;
+                }
+                int d = direction == 0 ? tour.next(c) : tour.prev(c);
+                if (d == a) {
+                    continue;
+                }
+                movesEvaluated++;
+                double delta = distances.distance(b, d) - distances.distance(c, d) - gain;
+                if (delta < -EPSILON) {
+                    tour.move2opt(a, b, c, d);
+                    movesApplied++;
+                    queue.push(a);
+                    queue.push(b);
+                    queue.push(c);
+                    queue.push(d);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // tries to move a segment of 1..MAX_SEGMENT cities that starts or ends at a next to one of the
+    // candidates of its end cities, either way round
+    private boolean orOptMove(OrientedTour tour, int a) {
+        int n = tour.size();
+        for (int length = 1; length <= MAX_SEGMENT && length + 3 <= n; length++) {
+            for (int direction = 0; direction < 2; direction++) {
+                // the segment is always the forward path s1..s2
+                int s1 = a;
+                int s2 = a;
+                for (int i = 1; i < length; i++) {
+                    if (direction == 0) {
+                        s2 = tour.next(s2);
+                    } else {
+                        s1 = tour.prev(s1);
+                    }
+                }
+                int p = tour.prev(s1);
+                int nx = tour.next(s2);
+                double removeGain = distances.distance(p, s1) + distances.distance(s2, nx)
+                        - distances.distance(p, nx);
+                if (removeGain <= EPSILON) {
+                    continue;
+                }
+                for (int end = 0; end < 2; end++) {
+                    int near = end == 0 ? s1 : s2;
+                    int far = end == 0 ? s2 : s1;
+                    for (int r = 0; r < neighbors.count(near); r++) {
+                        int c = neighbors.get(near, r);
+                        double gain = removeGain - distances.distance(near, c);
+                        if (gain <= EPSILON) {
+                            break;
+                        }
+                        if (!tour.contains(c) || tour.between(s1, c, s2)) {
+                            continue;
+                        }
+                        for (int side = 0; side < 2; side++) {
+                            int e = side == 0 ? tour.next(c) : tour.prev(c);
+                            if (tour.between(s1, e, s2)) {
+                                continue;
+                            }
+                            movesEvaluated++;
+                            double delta = distances.distance(far, e) - distances.distance(c, e) - gain;
+                            if (delta < -EPSILON) {
+                                // c -> e forward means near is attached to the edge's first city
+                                if (side == 0) {
+                                    insertSegment(tour, s1, s2, p, nx, c, e, near == s2);
+                                } else {
+                                    insertSegment(tour, s1, s2, p, nx, e, c, near == s1);
+                                }
+                                movesApplied++;
+                                queue.push(p);
+                                queue.push(nx);
+                                queue.push(s1);
+                                queue.push(s2);
+                                queue.push(c);
+                                queue.push(e);
+                                return true;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    // moves the forward segment s1..s2 (between p and nx) into the forward edge x -> y as a sequence of
+    // 2-opt moves: x s2..s1 y when reversed, x s1..s2 y otherwise
+    private static void insertSegment(OrientedTour tour, int s1, int s2, int p, int nx, int x, int y,
+                                      boolean reversed) {
+        if (y == p) {
+            // seen from the other direction this is an insertion right after nx
+            insertSegment(tour, s2, s1, nx, p, y, x, reversed);
+            return;
+        }
+        tour.move2opt(p, s1, x, y);
+        if (x != nx) {
+            tour.move2opt(p, x, nx, s2);
+        }
+        if (!reversed) {
+            tour.move2opt(x, s2, s1, y);
+        }
+    }
+
+    public long getMovesEvaluated() {
+        return movesEvaluated;
+    }
+
+    public long getMovesApplied() {
+        return movesApplied;
+    }
+}
@@ -0,0 +1,105 @@
+package com.project.model;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+// The k nearest other cities of every city, closest first, in one flat int[] (row per city).
+// Local search only tries moves that create an edge to one of these candidates.
+public class NeighborLists {
+
+    private final int k;
+    private final int[] neighbors;
+    private final int[] counts;
+
+    public NeighborLists(int k, int[] neighbors, int[] counts) {
+        this.k = k;
+        this.neighbors = neighbors;
+        this.counts = counts;
+    }
+
+    // exact lists: the k nearest cities come from a k-d tree over the matrix's cities and are then
+    // ordered by the matrix's own distances; one row per task on the common fork-join pool
+    public static NeighborLists nearest(DistanceMatrix distances, int k) {
+        int n = distances.size();
+        int size = Math.min(k, Math.max(n - 1, 0));
+        int[] neighbors = new int[n * size];
+        int[] counts = new int[n];
+        KdTree tree = new KdTree(distances.getNodeStore());
+        IntStream.range(0, n).parallel().forEach(i -> {
+            int[] best = new int[size];
+            double[] bestDistance = new double[size];
+            int found = tree.nearest(i, size, best, bestDistance);
+            // the tree already returns them closest first, so this insertion sort only settles
+            // rounding differences between chord and haversine
+            for (int r = 0; r < found; r++) {
+                bestDistance[r] = distances.distance(i, best[r]);
+            }
+            for (int r = 1; r < found; r++) {
+                int city = best[r];
+                double d = bestDistance[r];
+                int slot = r;
+                while (slot > 0 && (bestDistance[slot - 1] > d
+                        || (bestDistance[slot - 1] == d && best[slot - 1] > city))) {
+                    best[slot] = best[slot - 1];
+                    bestDistance[slot] = bestDistance[slot - 1];
+                    slot--;
+                }
+                best[slot] = city;
+                bestDistance[slot] = d;
+            }
+            System.arraycopy(best, 0, neighbors, i * size, found);
+            counts[i] = found;
+        });
+        return new NeighborLists(size, neighbors, counts);
+    }
+
+    // the up to k closest neighbours of every node in a sparse graph, e.g. a Delaunay triangulation,
+    // whose neighbours surround a city on all sides instead of crowding on one
+    public static NeighborLists of(SparseGraph graph, int k) {
+        int n = graph.size();
+        int[] neighbors = new int[n * k];
+        int[] counts = new int[n];
+        IntStream.range(0, n).parallel().forEach(v -> {
+            int degree = graph.degree(v);
+            long[] keys = new long[degree];
+            int found = 0;
+            for (int r = 0; r < degree; r++) {
+                if (graph.neighbor(v, r) != v) {
+                    keys[found++] = Graph.sortKey(graph.weight(graph.edge(v, r)), r);
+                }
+            }
+            Arrays.sort(keys, 0, found);
+            // parallel edges, e.g. between duplicate points, are listed once
+            int count = 0;
+            for (int r = 0; r < found && count < k; r++) {
+                int neighbor = graph.neighbor(v, (int) keys[r]);
+                boolean seen = false;
+                for (int c = 0; c < count && !seen; c++) {
+                    seen = neighbors[v * k + c] == neighbor;
+                }
+                if (!seen) {
+                    neighbors[v * k + count++] = neighbor;
+                }
+            }
+            counts[v] = count;
+        });
+        return new NeighborLists(k, neighbors, counts);
+    }
+
+    public int size() {
+        return counts.length;
+    }
+
+    // capacity of each row
+    public int k() {
+        return k;
+    }
+
+    public int count(int city) {
+        return counts[city];
+    }
+
+    public int get(int city, int rank) {
+        return neighbors[city * k + rank];
+    }
+}
@@ -0,0 +1,94 @@
+package com.project.model;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Struct-of-arrays copy of a node list. Solvers address cities by their index in the store and
+// read coordinates from primitive arrays; the original Node objects are only kept so tours can be
+// converted back to List<Node> for App and the visualization.
+public class NodeStore {
+
+    private final Node[] nodes;
+    private final String[] ids;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final Map<Node, Integer> index;
+
+    public NodeStore(List<Node> nodes) {
+        int n = nodes.size();
+        this.nodes = nodes.toArray(new Node[0]);
+        this.ids = new String[n];
+        this.latitudes = new double[n];
+        this.longitudes = new double[n];
+        this.index = new IdentityHashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            Node node = this.nodes[i];
+            ids[i] = node.getCrimeId();
+            latitudes[i] = node.getLatitude();
+            longitudes[i] = node.getLongitude();
+            index.put(node, i);
+        }
+    }
+
+    public static NodeStore of(List<Node> nodes) {
+        return new NodeStore(nodes);
+    }
+
+    public int size() {
+        return nodes.length;
+    }
+
+    public String id(int i) {
+        return ids[i];
+    }
+
+    public double latitude(int i) {
+        return latitudes[i];
+    }
+
+    public double longitude(int i) {
+        return longitudes[i];
+    }
+
+    public Node node(int i) {
+        return nodes[i];
+    }
+
+    public int indexOf(Node node) {
+        Integer i = index.get(node);
+        if (i == null) {
+            throw new IllegalArgumentException("Node " + node.getCrimeId() + " is not part of this node store");
+        }
+        return i;
+    }
+
+    public boolean contains(Node node) {
+        return index.containsKey(node);
+    }
+
+    public int[] indicesOf(List<Node> tour) {
+        int[] order = new int[tour.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = indexOf(tour.get(i));
+        }
+        return order;
+    }
+
+    public List<Node> toNodes(int[] order) {
+        List<Node> tour = new ArrayList<>(order.length);
+        for (int city : order) {
+            tour.add(nodes[city]);
+        }
+        return tour;
+    }
+
+    public List<Node> getNodes() {
+        List<Node> all = new ArrayList<>(nodes.length);
+        for (Node node : nodes) {
+            all.add(node);
+        }
+        return all;
+    }
+}
@@ -0,0 +1,44 @@
+package com.project.model;
+
+// Tour that local search edits through next/prev/between queries and path reversals. Cities are
+// NodeStore indices. Implementations may flip the shorter side of a reversal, so the direction of
+// the tour is not stable between moves; moves should be stated on edges, as move2opt does.
+public interface OrientedTour {
+
+    // from this many cities on, reversals are cheaper on the two-level list than on a plain array
+    int TWO_LEVEL_THRESHOLD = 10000;
+
+    static OrientedTour create(int[] cities, int storeSize) {
+        if (cities.length >= TWO_LEVEL_THRESHOLD) {
+            return new TwoLevelTour(cities, storeSize);
+        }
+        return new ArrayTour(cities, storeSize);
+    }
+
+    int size();
+
+    boolean contains(int city);
+
+    int next(int city);
+
+    int prev(int city);
+
+    // true when b lies on the forward path from a to c, both ends included
+    boolean between(int a, int b, int c);
+
+    // reverses the forward path from city 'from' to city 'to'
+    void reversePath(int from, int to);
+
+    // the tour as an order array that starts at the given city
+    int[] toOrder(int first);
+
+    // removes edges (a,b) and (c,d) and adds (a,c) and (b,d); b must follow a and d follow c in the
+    // same direction, either both as next() or both as prev()
+    default void move2opt(int a, int b, int c, int d) {
+        if (next(a) == b) {
+            reversePath(b, c);
+        } else {
+            reversePath(a, d);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.project.model;
+
+import java.util.stream.IntStream;
+
+// Symmetric distance matrix stored as the strict lower triangle in a single double[].
+// Row i holds the distances to nodes 0..i-1 and starts at offset i*(i-1)/2.
+public class PackedDistanceMatrix extends DistanceMatrix {
+
+    private final double[] distances;
+
+    public PackedDistanceMatrix(NodeStore store) {
+        super(store);
+        int n = store.size();
+        long cells = (long) n * (n - 1) / 2;
+        if (cells > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many nodes for an in-heap distance matrix: " + n);
+        }
+        this.distances = new double[(int) cells];
+
+        // trig that only depends on one endpoint is done once per node instead of once per pair
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+        double[] cosLat = new double[n];
+        for (int i = 0; i < n; i++) {
+            lat[i] = Math.toRadians(store.latitude(i));
+            lon[i] = Math.toRadians(store.longitude(i));
+            cosLat[i] = Math.cos(lat[i]);
+        }
+
+        // rows are independent, so they are filled on the common fork-join pool
+        IntStream.range(1, n).parallel().forEach(i -> {
+            int row = offset(i);
+            for (int j = 0; j < i; j++) {
+                distances[row + j] = Graph.haversine(lat[i], lon[i], cosLat[i], lat[j], lon[j], cosLat[j]);
+            }
+        });
+    }
+
+    @Override
+    public double distance(int i, int j) {
+        if (i > j) {
+            return distances[offset(i) + j];
+        }
+        if (i < j) {
+            return distances[offset(j) + i];
+        }
+        return 0;
+    }
+
+    private static int offset(int i) {
+        return (int) ((long) i * (i - 1) / 2);
+    }
+}
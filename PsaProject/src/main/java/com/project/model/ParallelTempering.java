@@ -0,0 +1,186 @@
+package com.project.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Parallel tempering: one SimulatedAnnealing chain per replica, each on its own thread, at the
+// temperatures of a geometric ladder from minTemperature (slot 0) to maxTemperature. The chains run
+// in lock-step epochs of exchangeInterval steps. At the end of an epoch every chain waits on a
+// barrier whose action, run while all chains are stopped, tries to swap the temperatures of
+// neighbouring slots with the usual min(1, exp((1/Tc - 1/Th)(Ec - Eh))) rule, on even pairs in even
+// epochs and odd pairs in odd ones. Only temperatures move, so every chain keeps its own state and
+// each exchange is atomic. The best tour of any replica is kept in an AtomicReference.
+public class ParallelTempering {
+
+    public static final long DEFAULT_EXCHANGE_INTERVAL = 20000;
+
+    private final DistanceMatrix distances;
+    private final int replicas;
+    private final double[] temperatures;
+    private final long exchangeInterval;
+    private final long seed;
+
+    private final AtomicLong exchangesTried = new AtomicLong();
+    private final AtomicLong exchangesAccepted = new AtomicLong();
+    private final AtomicLong movesTried = new AtomicLong();
+    private int[] lastChainAt = new int[0];
+
+    // a replica's tour and its cost as handed to another replica or published as the best
+    private static final class State {
+        final int[] order;
+        final double cost;
+
+        State(int[] order, double cost) {
+            this.order = order;
+            this.cost = cost;
+        }
+    }
+
+    public ParallelTempering(DistanceMatrix distances) {
+        this(distances, Runtime.getRuntime().availableProcessors(), SimulatedAnnealing.DEFAULT_END_TEMPERATURE,
+                SimulatedAnnealing.DEFAULT_START_TEMPERATURE, DEFAULT_EXCHANGE_INTERVAL, System.nanoTime());
+    }
+
+    public ParallelTempering(DistanceMatrix distances, int replicas, double minTemperature, double maxTemperature,
+                             long exchangeInterval, long seed) {
+        if (replicas < 1) {
+            throw new IllegalArgumentException("at least one replica is needed");
+        }
+        this.distances = distances;
+        this.replicas = replicas;
+        this.exchangeInterval = exchangeInterval;
+        this.seed = seed;
+        this.temperatures = new double[replicas];
+        for (int r = 0; r < replicas; r++) {
+            double fraction = replicas == 1 ? 0 : (double) r / (replicas - 1);
+            temperatures[r] = minTemperature * Math.pow(maxTemperature / minTemperature, fraction);
+        }
+    }
+
+    // runs every replica from the start tour until the budget is used up and returns the best tour found
+    public Tour optimise(Tour start, long budgetMillis) {
+        long deadline = System.nanoTime() + budgetMillis * 1000000L;
+        AtomicReference<State> best = new AtomicReference<>(
+                new State(start.order().clone(), start.length(distances)));
+        SplittableRandom seeds = new SplittableRandom(seed);
+        SplittableRandom exchanges = seeds.split();
+        SimulatedAnnealing[] chains = new SimulatedAnnealing[replicas];
+        // chainAt[t] is the chain running at temperatures[t], slotOf its inverse
+        int[] chainAt = new int[replicas];
+        int[] slotOf = new int[replicas];
+        for (int r = 0; r < replicas; r++) {
+            chains[r] = new SimulatedAnnealing(distances, start, seeds.split());
+            chainAt[r] = r;
+            slotOf[r] = r;
+        }
+        AtomicBoolean finished = new AtomicBoolean();
+        long[] epoch = new long[1];
+        CyclicBarrier barrier = new CyclicBarrier(replicas, () -> {
+            exchange(chains, chainAt, slotOf, (int) (epoch[0]++ & 1), exchanges);
+            if (System.nanoTime() >= deadline) {
+                finished.set(true);
+            }
+        });
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int r = 0; r < replicas; r++) {
+            int chain = r;
+            tasks.add(() -> {
+                runReplica(chains[chain], chain, slotOf, barrier, finished, best);
+                return null;
+            });
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(replicas);
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("replica failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        lastChainAt = chainAt.clone();
+        return new Tour(start.getNodeStore(), best.get().order);
+    }
+
+    // slotOf is only written by the barrier action, which every replica has passed before reading it
+    private void runReplica(SimulatedAnnealing chain, int r, int[] slotOf, CyclicBarrier barrier,
+                            AtomicBoolean finished, AtomicReference<State> best) throws InterruptedException {
+        double published = chain.getBestCost();
+        while (!finished.get()) {
+            double temperature = temperatures[slotOf[r]];
+            for (long step = 0; step < exchangeInterval; step++) {
+                chain.step(temperature);
+            }
+            if (chain.getBestCost() < published && chain.getBestCost() < best.get().cost) {
+                published = chain.getBestCost();
+                State candidate = new State(chain.bestOrder(), published);
+                best.accumulateAndGet(candidate, (current, offered) -> offered.cost < current.cost ? offered : current);
+            }
+            try {
+                barrier.await();
+            } catch (BrokenBarrierException e) {
+                // another replica was interrupted
+                break;
+            }
+        }
+        movesTried.addAndGet(chain.getMovesTried());
+    }
+
+    // one round of neighbour exchanges, starting at slot parity; runs while every chain waits
+    private void exchange(SimulatedAnnealing[] chains, int[] chainAt, int[] slotOf, int parity,
+                          SplittableRandom random) {
+        for (int t = parity; t + 1 < replicas; t += 2) {
+            int colder = chainAt[t];
+            int hotter = chainAt[t + 1];
+            exchangesTried.incrementAndGet();
+            double exponent = (1 / temperatures[t] - 1 / temperatures[t + 1])
+                    * (chains[colder].getCost() - chains[hotter].getCost());
+            if (exponent >= 0 || random.nextDouble() < Math.exp(exponent)) {
+                chainAt[t] = hotter;
+                chainAt[t + 1] = colder;
+                slotOf[hotter] = t;
+                slotOf[colder] = t + 1;
+                exchangesAccepted.incrementAndGet();
+            }
+        }
+    }
+
+    // which chain ran at each temperature when the last run ended; always a permutation of the chains
+    public int[] getChainAtTemperature() {
+        return lastChainAt.clone();
+    }
+
+    public int getReplicas() {
+        return replicas;
+    }
+
+    public double[] getTemperatures() {
+        return temperatures.clone();
+    }
+
+    public long getExchangesTried() {
+        return exchangesTried.get();
+    }
+
+    public long getExchangesAccepted() {
+        return exchangesAccepted.get();
+    }
+
+    public long getMovesTried() {
+        return movesTried.get();
+    }
+}
@@ -0,0 +1,930 @@
+package com.project.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// Minimum-weight perfect matching on the complete graph of a node set, as Christofides needs for its
+// odd-degree nodes. Neither mode builds the complete graph: GREEDY only looks at the k nearest
+// neighbours of every node, found with a KdTree, and BLOSSOM computes its edge weights from the
+// coordinates whenever it needs one.
+// GREEDY takes candidate edges shortest first while both ends are free, pairs whatever is left by
+// nearest-unvisited queries and then improves the matching with 2-opt moves that swap the partners of
+// two matched pairs, in O(n log n) overall. BLOSSOM is Edmonds' weighted blossom algorithm and finds
+// the optimum in O(n^3), so it is meant for up to a few thousand nodes.
+// With an odd number of nodes one node stays unmatched.
+public final class PerfectMatching {
+
+    public enum Mode {
+        GREEDY,
+        BLOSSOM
+    }
+
+    public static final int DEFAULT_CANDIDATES = 8;
+    // the blossom keeps one n x n table of flags, n^2 bytes: 9 MB at this size
+    public static final int MAX_BLOSSOM_NODES = 3000;
+
+    private final Mode mode;
+    private final int candidates;
+    private int improvements;
+
+    public PerfectMatching(Mode mode) {
+        this(mode, DEFAULT_CANDIDATES);
+    }
+
+    public PerfectMatching(Mode mode, int candidates) {
+        if (candidates < 1) {
+            throw new IllegalArgumentException("at least one candidate per node is needed");
+        }
+        this.mode = mode;
+        this.candidates = candidates;
+    }
+
+    public List<Edge> match(List<Node> nodes) {
+        int[] mate = mates(NodeStore.of(nodes));
+        List<Edge> matching = new ArrayList<>();
+        for (int i = 0; i < mate.length; i++) {
+            if (mate[i] > i) {
+                Node source = nodes.get(i);
+                Node destination = nodes.get(mate[i]);
+                matching.add(new Edge(source, destination, Graph.calculateDistance(source, destination)));
+            }
+        }
+        return matching;
+    }
+
+    // partner of every node of the store, -1 for the one left over from an odd count
+    int[] mates(NodeStore store) {
+        Distances distances = new Distances(store);
+        if (mode == Mode.BLOSSOM) {
+            if (store.size() > MAX_BLOSSOM_NODES) {
+                throw new IllegalArgumentException("Too many nodes for an exact matching: " + store.size());
+            }
+            return new Blossom(distances).solve();
+        }
+        return greedy(store, distances);
+    }
+
+    // 2-opt moves applied by the last greedy run
+    public int getImprovements() {
+        return improvements;
+    }
+
+    // haversine between nodes of the store, in the argument order PackedDistanceMatrix uses
+    private static final class Distances {
+        private final int n;
+        private final double[] lat;
+        private final double[] lon;
+        private final double[] cosLat;
+
+        Distances(NodeStore store) {
+            n = store.size();
+            lat = new double[n];
+            lon = new double[n];
+            cosLat = new double[n];
+            for (int i = 0; i < n; i++) {
+                lat[i] = Math.toRadians(store.latitude(i));
+                lon[i] = Math.toRadians(store.longitude(i));
+                cosLat[i] = Math.cos(lat[i]);
+            }
+        }
+
+        double get(int i, int j) {
+            if (i < j) {
+                int tmp = i;
+                i = j;
+                j = tmp;
+            }
+            return Graph.haversine(lat[i], lon[i], cosLat[i], lat[j], lon[j], cosLat[j]);
+        }
+    }
+
+    private int[] greedy(NodeStore store, Distances distances) {
+        int n = store.size();
+        int[] mate = new int[n];
+        Arrays.fill(mate, -1);
+        improvements = 0;
+        if (n < 2) {
+            return mate;
+        }
+        KdTree tree = new KdTree(store);
+        int k = Math.min(candidates, n - 1);
+        int[] near = new int[n * k];
+        int[] counts = new int[n];
+        IntStream.range(0, n).parallel().forEach(i -> {
+            int[] into = new int[k];
+            counts[i] = tree.nearest(i, k, into, new double[k]);
+            System.arraycopy(into, 0, near, i * k, counts[i]);
+        });
+
+        // candidate edges shortest first, as (weight, i * k + rank) keys
+        long[] keys = new long[n * k];
+        int m = 0;
+        for (int i = 0; i < n; i++) {
+            for (int r = 0; r < counts[i]; r++) {
+                keys[m++] = Graph.sortKey(distances.get(i, near[i * k + r]), i * k + r);
+            }
+        }
+        Arrays.parallelSort(keys, 0, m);
+        for (int e = 0; e < m; e++) {
+            int slot = (int) keys[e];
+            int i = slot / k;
+            int j = near[slot];
+            if (mate[i] < 0 && mate[j] < 0) {
+                mate[i] = j;
+                mate[j] = i;
+            }
+        }
+        // nodes whose candidates were all taken pair up with the nearest free node
+        KdTree.Unvisited free = tree.unvisited();
+        for (int i = 0; i < n; i++) {
+            if (mate[i] >= 0) {
+                free.remove(i);
+            }
+        }
+        for (int i = 0; i < n && free.size() > 1; i++) {
+            if (mate[i] >= 0) {
+                continue;
+            }
+            free.remove(i);
+            int j = free.nearest(i);
+            free.remove(j);
+            mate[i] = j;
+            mate[j] = i;
+        }
+        improve(mate, near, counts, k, distances);
+        return mate;
+    }
+
+    // 2-opt on the matching: for pairs (a, b) and (c, d) with c a candidate of a, re-pair them as
+    // (a, c), (b, d) or (a, d), (b, c) when that is shorter. Nodes whose pair changed are queued again
+    private void improve(int[] mate, int[] near, int[] counts, int k, Distances distances) {
+        int n = mate.length;
+        int[] queue = new int[n];
+        boolean[] queued = new boolean[n];
+        int head = 0;
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            if (mate[i] >= 0) {
+                queue[size++] = i;
+                queued[i] = true;
+            }
+        }
+        while (size > 0) {
+            int a = queue[head];
+            head = head + 1 == n ? 0 : head + 1;
+            size--;
+            queued[a] = false;
+            int b = mate[a];
+            double ab = distances.get(a, b);
+            for (int r = 0; r < counts[a]; r++) {
+                int c = near[a * k + r];
+                int d = mate[c];
+                if (c == b || d < 0) {
+                    continue;
+                }
+                double ac = distances.get(a, c);
+                if (ac >= ab) {
+                    // candidates come closest first; a move where neither new edge at a is shorter than
+                    // ab is found from one of the other three nodes instead
+                    break;
+                }
+                double current = ab + distances.get(c, d);
+                double crossed = ac + distances.get(b, d);
+                double other = distances.get(a, d) + distances.get(b, c);
+                if (Math.min(crossed, other) >= current - TwoOpt.EPSILON) {
+                    continue;
+                }
+                if (crossed <= other) {
+                    mate[a] = c;
+                    mate[c] = a;
+                    mate[b] = d;
+                    mate[d] = b;
+                } else {
+                    mate[a] = d;
+                    mate[d] = a;
+                    mate[b] = c;
+                    mate[c] = b;
+                }
+                improvements++;
+                for (int node : new int[]{a, b, c, d}) {
+                    if (!queued[node]) {
+                        queued[node] = true;
+                        queue[(head + size++) % n] = node;
+                    }
+                }
+                break;
+            }
+        }
+    }
+
+    // Edmonds' maximum-weight matching with blossoms, primal-dual in O(n^3), after the formulation of
+    // Galil ("Efficient algorithms for finding maximum matching in graphs") with maximum cardinality
+    // forced. On a complete graph of an even number of nodes every maximum-cardinality matching is
+    // perfect, so maximising C - w over them minimises w. Weights are whole decimetres, which keeps
+    // the dual arithmetic exact; the result is optimal up to that rounding.
+    // Edge k joins the pair lo < hi at k = lo * n + hi; its endpoints are numbered 2k (hi)
+    // and 2k + 1 (lo), and mate[], labelEnd[] and blossomEnds[] refer to edges through endpoints.
+    // Labels are 1 for S (outer) and 2 for T (inner) vertices or blossoms, 0 for free.
+    private static final class Blossom {
+        private final int n;
+        // unit vectors of the nodes: the great-circle length follows from the chord between two of them
+        private final double[] x;
+        private final double[] y;
+        private final double[] z;
+        private final long offset;
+        private final int[] mate;
+        private final int[] label;
+        private final int[] labelEnd;
+        private final int[] inBlossom;
+        private final int[] blossomParent;
+        private final int[][] blossomChilds;
+        private final int[] blossomBase;
+        private final int[][] blossomEnds;
+        private final int[] bestEdge;
+        // weight of bestEdge[b], so its slack does not need the coordinates again
+        private final long[] bestWeight;
+        private final int[][] blossomBestEdges;
+        private final int[] unusedBlossoms;
+        private int unusedCount;
+        private final long[] dual;
+        // square table of tight edges, row v holding the edges of vertex v, so a scan reads it in order
+        private final boolean[] allowEdge;
+        private int[] queue;
+        private int queueSize;
+        private final int[] leaves;
+
+        Blossom(Distances distances) {
+            n = distances.n;
+            x = new double[n];
+            y = new double[n];
+            z = new double[n];
+            for (int i = 0; i < n; i++) {
+                x[i] = distances.cosLat[i] * Math.cos(distances.lon[i]);
+                y[i] = distances.cosLat[i] * Math.sin(distances.lon[i]);
+                z[i] = Math.sin(distances.lat[i]);
+            }
+            offset = IntStream.range(0, n).parallel().mapToLong(i -> {
+                long longest = 0;
+                for (int j = 0; j < i; j++) {
+                    longest = Math.max(longest, decimetres(i, j));
+                }
+                return longest;
+            }).max().orElse(0) + 1;
+            mate = new int[n];
+            Arrays.fill(mate, -1);
+            label = new int[2 * n];
+            labelEnd = new int[2 * n];
+            Arrays.fill(labelEnd, -1);
+            inBlossom = new int[n];
+            for (int i = 0; i < n; i++) {
+                inBlossom[i] = i;
+            }
+            blossomParent = new int[2 * n];
+            Arrays.fill(blossomParent, -1);
+            blossomChilds = new int[2 * n][];
+            blossomBase = new int[2 * n];
+            for (int i = 0; i < 2 * n; i++) {
+                blossomBase[i] = i < n ? i : -1;
+            }
+            blossomEnds = new int[2 * n][];
+            bestEdge = new int[2 * n];
+            bestWeight = new long[2 * n];
+            Arrays.fill(bestEdge, -1);
+            blossomBestEdges = new int[2 * n][];
+            unusedBlossoms = new int[n];
+            for (int b = n; b < 2 * n; b++) {
+                unusedBlossoms[unusedCount++] = b;
+            }
+            dual = new long[2 * n];
+            allowEdge = new boolean[n * n];
+            queue = new int[2 * n];
+            leaves = new int[n];
+        }
+
+        // great-circle length in whole decimetres, the same for (i, j) and (j, i)
+        private long decimetres(int i, int j) {
+            double dx = x[i] - x[j];
+            double dy = y[i] - y[j];
+            double dz = z[i] - z[j];
+            double half = Math.min(1, Math.sqrt(dx * dx + dy * dy + dz * dz) / 2);
+            return Math.round(2 * Graph.EARTH_RADIUS_METRES * arcsine(half) * 10);
+        }
+
+        // Math.asin dominates the blossom's running time, and below 0.1 (about 1300 km) six terms of its
+        // Taylor series are accurate to far better than a decimetre
+        private static double arcsine(double h) {
+            if (h >= 0.1) {
+                return Math.asin(h);
+            }
+            double s = h * h;
+            return h * (1 + s * (1.0 / 6 + s * (3.0 / 40 + s * (5.0 / 112 + s * (35.0 / 1152 + s * 63.0 / 2816)))));
+        }
+
+        // lengths flipped so the longest edge weighs 2; even weights keep the even vertex duals of the
+        // greedy start and every S-S slack even, so halving is exact
+        private long weight(int i, int j) {
+            return 2 * (offset - decimetres(i, j));
+        }
+
+        // 2 * n * n endpoints stay within an int up to MAX_BLOSSOM_NODES
+        private int edge(int i, int j) {
+            return i < j ? i * n + j : j * n + i;
+        }
+
+        private int endpoint(int p) {
+            int k = p >>> 1;
+            return (p & 1) == 0 ? k % n : k / n;
+        }
+
+        // endpoint of edge(v, w) that lies at w
+        private int endpointAt(int v, int w) {
+            return 2 * edge(v, w) + (w > v ? 0 : 1);
+        }
+
+        // best edges are kept as cells v * n + w of that table, which are cheaper to split than edge ids
+        private long slack(int cell) {
+            return dual[cell / n] + dual[cell % n] - 2 * weight(cell / n, cell % n);
+        }
+
+        private long bestSlack(int b) {
+            int cell = bestEdge[b];
+            return dual[cell / n] + dual[cell % n] - 2 * bestWeight[b];
+        }
+
+        private void allow(int k) {
+            int hi = k % n;
+            int lo = k / n;
+            allowEdge[hi * n + lo] = true;
+            allowEdge[lo * n + hi] = true;
+        }
+
+        // leaves of blossom b into the shared buffer; returns how many
+        private int leaves(int b) {
+            return collectLeaves(b, 0);
+        }
+
+        private int collectLeaves(int b, int count) {
+            if (b < n) {
+                leaves[count++] = b;
+                return count;
+            }
+            for (int t : blossomChilds[b]) {
+                count = collectLeaves(t, count);
+            }
+            return count;
+        }
+
+        private void push(int v) {
+            if (queueSize == queue.length) {
+                queue = Arrays.copyOf(queue, 2 * queueSize);
+            }
+            queue[queueSize++] = v;
+        }
+
+        private void assignLabel(int w, int t, int p) {
+            int b = inBlossom[w];
+            label[w] = label[b] = t;
+            labelEnd[w] = labelEnd[b] = p;
+            bestEdge[w] = bestEdge[b] = -1;
+            if (t == 1) {
+                int count = leaves(b);
+                for (int i = 0; i < count; i++) {
+                    push(leaves[i]);
+                }
+            } else if (t == 2) {
+                int base = blossomBase[b];
+                assignLabel(endpoint(mate[base]), 1, mate[base] ^ 1);
+            }
+        }
+
+        // traces back from v and w to find a new blossom's base, -1 when they lead to two different
+        // free vertices and an augmenting path was found
+        private int scanBlossom(int v, int w) {
+            int[] path = new int[2 * n];
+            int length = 0;
+            int base = -1;
+            while (v != -1 || w != -1) {
+                int b = inBlossom[v];
+                if ((label[b] & 4) != 0) {
+                    base = blossomBase[b];
+                    break;
+                }
+                path[length++] = b;
+                label[b] = 5;
+                if (labelEnd[b] == -1) {
+                    v = -1;
+                } else {
+                    v = endpoint(labelEnd[b]);
+                    b = inBlossom[v];
+                    v = endpoint(labelEnd[b]);
+                }
+                if (w != -1) {
+                    int tmp = v;
+                    v = w;
+                    w = tmp;
+                }
+            }
+            for (int i = 0; i < length; i++) {
+                label[path[i]] = 1;
+            }
+            return base;
+        }
+
+        private void addBlossom(int base, int k) {
+            int v = k % n;
+            int w = k / n;
+            int bb = inBlossom[base];
+            int bv = inBlossom[v];
+            int bw = inBlossom[w];
+            int b = unusedBlossoms[--unusedCount];
+            blossomBase[b] = base;
+            blossomParent[b] = -1;
+            blossomParent[bb] = b;
+            int[] path = new int[2 * n];
+            int[] ends = new int[2 * n];
+            int length = 0;
+            while (bv != bb) {
+                blossomParent[bv] = b;
+                path[length] = bv;
+                ends[length++] = labelEnd[bv];
+                v = endpoint(labelEnd[bv]);
+                bv = inBlossom[v];
+            }
+            path[length] = bb;
+            // the v side was collected from v towards the base; reverse it so the base comes first
+            reverse(path, 0, length + 1);
+            reverse(ends, 0, length);
+            ends[length++] = 2 * k;
+            int childCount = length;
+            while (bw != bb) {
+                blossomParent[bw] = b;
+                path[childCount++] = bw;
+                ends[length++] = labelEnd[bw] ^ 1;
+                w = endpoint(labelEnd[bw]);
+                bw = inBlossom[w];
+            }
+            blossomChilds[b] = Arrays.copyOf(path, childCount);
+            blossomEnds[b] = Arrays.copyOf(ends, length);
+            label[b] = 1;
+            labelEnd[b] = labelEnd[bb];
+            dual[b] = 0;
+            int count = leaves(b);
+            for (int i = 0; i < count; i++) {
+                int leaf = leaves[i];
+                if (label[inBlossom[leaf]] == 2) {
+                    push(leaf);
+                }
+                inBlossom[leaf] = b;
+            }
+            // the least-slack edge from the new blossom to every other S-blossom
+            int[] bestEdgeTo = new int[2 * n];
+            Arrays.fill(bestEdgeTo, -1);
+            for (int child : blossomChilds[b]) {
+                if (blossomBestEdges[child] == null) {
+                    int[] childLeaves = Arrays.copyOf(leaves, leaves(child));
+                    for (int leaf : childLeaves) {
+                        for (int other = 0; other < n; other++) {
+                            if (other != leaf) {
+                                considerBestEdge(leaf * n + other, b, bestEdgeTo);
+                            }
+                        }
+                    }
+                } else {
+                    for (int e : blossomBestEdges[child]) {
+                        considerBestEdge(e, b, bestEdgeTo);
+                    }
+                }
+                blossomBestEdges[child] = null;
+                bestEdge[child] = -1;
+            }
+            int found = 0;
+            for (int e : bestEdgeTo) {
+                if (e != -1) {
+                    found++;
+                }
+            }
+            int[] best = new int[found];
+            found = 0;
+            for (int e : bestEdgeTo) {
+                if (e != -1) {
+                    best[found++] = e;
+                }
+            }
+            blossomBestEdges[b] = best;
+            bestEdge[b] = -1;
+            for (int e : best) {
+                if (bestEdge[b] == -1 || slack(e) < bestSlack(b)) {
+                    bestEdge[b] = e;
+                    bestWeight[b] = weight(e / n, e % n);
+                }
+            }
+        }
+
+        private void considerBestEdge(int e, int b, int[] bestEdgeTo) {
+            int i = e / n;
+            int j = e % n;
+            if (inBlossom[j] == b) {
+                j = i;
+            }
+            int bj = inBlossom[j];
+            if (bj != b && label[bj] == 1 && (bestEdgeTo[bj] == -1 || slack(e) < slack(bestEdgeTo[bj]))) {
+                bestEdgeTo[bj] = e;
+            }
+        }
+
+        private static void reverse(int[] array, int from, int to) {
+            for (int i = from, j = to - 1; i < j; i++, j--) {
+                int tmp = array[i];
+                array[i] = array[j];
+                array[j] = tmp;
+            }
+        }
+
+        // element at a possibly negative index, counted from the end as in the original formulation
+        private static int at(int[] array, int index) {
+            return array[index >= 0 ? index : index + array.length];
+        }
+
+        private static int indexOf(int[] array, int value) {
+            for (int i = 0; i < array.length; i++) {
+                if (array[i] == value) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void expandBlossom(int b, boolean endStage) {
+            for (int s : blossomChilds[b]) {
+                blossomParent[s] = -1;
+                if (s < n) {
+                    inBlossom[s] = s;
+                } else if (endStage && dual[s] == 0) {
+                    expandBlossom(s, endStage);
+                } else {
+                    int count = leaves(s);
+                    for (int i = 0; i < count; i++) {
+                        inBlossom[leaves[i]] = s;
+                    }
+                }
+            }
+            if (!endStage && label[b] == 2) {
+                // relabel the children on the even-length path from the entry child to the base
+                int[] childs = blossomChilds[b];
+                int[] ends = blossomEnds[b];
+                int entryChild = inBlossom[endpoint(labelEnd[b] ^ 1)];
+                int j = indexOf(childs, entryChild);
+                int step;
+                int trick;
+                if ((j & 1) != 0) {
+                    j -= childs.length;
+                    step = 1;
+                    trick = 0;
+                } else {
+                    step = -1;
+                    trick = 1;
+                }
+                int p = labelEnd[b];
+                while (j != 0) {
+                    label[endpoint(p ^ 1)] = 0;
+                    label[endpoint(at(ends, j - trick) ^ trick ^ 1)] = 0;
+                    assignLabel(endpoint(p ^ 1), 2, p);
+                    allow(at(ends, j - trick) >>> 1);
+                    j += step;
+                    p = at(ends, j - trick) ^ trick;
+                    allow(p >>> 1);
+                    j += step;
+                }
+                int bv = at(childs, j);
+                label[endpoint(p ^ 1)] = label[bv] = 2;
+                labelEnd[endpoint(p ^ 1)] = labelEnd[bv] = p;
+                bestEdge[bv] = -1;
+                j += step;
+                while (at(childs, j) != entryChild) {
+                    bv = at(childs, j);
+                    if (label[bv] == 1) {
+                        j += step;
+                        continue;
+                    }
+                    int count = leaves(bv);
+                    int v = -1;
+                    for (int i = 0; i < count; i++) {
+                        if (label[leaves[i]] != 0) {
+                            v = leaves[i];
+                            break;
+                        }
+                    }
+                    if (v >= 0) {
+                        label[v] = 0;
+                        label[endpoint(mate[blossomBase[bv]])] = 0;
+                        assignLabel(v, 2, labelEnd[v]);
+                    }
+                    j += step;
+                }
+            }
+            label[b] = labelEnd[b] = -1;
+            blossomChilds[b] = blossomEnds[b] = null;
+            blossomBase[b] = -1;
+            blossomBestEdges[b] = null;
+            bestEdge[b] = -1;
+            unusedBlossoms[unusedCount++] = b;
+        }
+
+        // swaps matched and unmatched edges on the path through blossom b from vertex v to its base
+        private void augmentBlossom(int b, int v) {
+            int t = v;
+            while (blossomParent[t] != b) {
+                t = blossomParent[t];
+            }
+            if (t >= n) {
+                augmentBlossom(t, v);
+            }
+            int[] childs = blossomChilds[b];
+            int[] ends = blossomEnds[b];
+            int i = indexOf(childs, t);
+            int j = i;
+            int step;
+            int trick;
+            if ((i & 1) != 0) {
+                j -= childs.length;
+                step = 1;
+                trick = 0;
+            } else {
+                step = -1;
+                trick = 1;
+            }
+            while (j != 0) {
+                j += step;
+                t = at(childs, j);
+                int p = at(ends, j - trick) ^ trick;
+                if (t >= n) {
+                    augmentBlossom(t, endpoint(p));
+                }
+                j += step;
+                t = at(childs, j);
+                if (t >= n) {
+                    augmentBlossom(t, endpoint(p ^ 1));
+                }
+                mate[endpoint(p)] = p ^ 1;
+                mate[endpoint(p ^ 1)] = p;
+            }
+            // rotate so that the child holding v becomes the base
+            blossomChilds[b] = rotate(childs, i);
+            blossomEnds[b] = rotate(ends, i);
+            blossomBase[b] = blossomBase[blossomChilds[b][0]];
+        }
+
+        private static int[] rotate(int[] array, int first) {
+            int[] rotated = new int[array.length];
+            System.arraycopy(array, first, rotated, 0, array.length - first);
+            System.arraycopy(array, 0, rotated, array.length - first, first);
+            return rotated;
+        }
+
+        private void augmentMatching(int k) {
+            int v = k % n;
+            int w = k / n;
+            int[][] sides = {{v, 2 * k + 1}, {w, 2 * k}};
+            for (int[] side : sides) {
+                int s = side[0];
+                int p = side[1];
+                while (true) {
+                    int bs = inBlossom[s];
+                    if (bs >= n) {
+                        augmentBlossom(bs, s);
+                    }
+                    mate[s] = p;
+                    if (labelEnd[bs] == -1) {
+                        break;
+                    }
+                    int t = endpoint(labelEnd[bs]);
+                    int bt = inBlossom[t];
+                    s = endpoint(labelEnd[bt]);
+                    int j = endpoint(labelEnd[bt] ^ 1);
+                    if (bt >= n) {
+                        augmentBlossom(bt, j);
+                    }
+                    mate[j] = labelEnd[bt];
+                    p = labelEnd[bt] ^ 1;
+                }
+            }
+        }
+
+        // feasible duals and a matching on tight edges to start from: every vertex gets the weight of its
+        // heaviest edge, then each free vertex in turn lowers its dual until an edge becomes tight and
+        // takes that edge when the other end is free too. Most vertices are matched before the first stage
+        private void start() {
+            IntStream.range(0, n).parallel().forEach(v -> {
+                long heaviest = 0;
+                for (int w = 0; w < n; w++) {
+                    if (w != v) {
+                        heaviest = Math.max(heaviest, weight(v, w));
+                    }
+                }
+                dual[v] = heaviest;
+            });
+            for (int v = 0; v < n; v++) {
+                if (mate[v] != -1) {
+                    continue;
+                }
+                long least = Long.MAX_VALUE;
+                int partner = -1;
+                for (int w = 0; w < n; w++) {
+                    if (w == v) {
+                        continue;
+                    }
+                    long s = dual[v] + dual[w] - 2 * weight(v, w);
+                    if (s < least || (s == least && partner != -1 && mate[partner] != -1 && mate[w] == -1)) {
+                        least = s;
+                        partner = w;
+                    }
+                }
+                dual[v] -= least;
+                if (partner != -1 && mate[partner] == -1) {
+                    mate[v] = endpointAt(v, partner);
+                    mate[partner] = endpointAt(partner, v);
+                }
+            }
+            // free v, matched pair (u, x), free y, all on tight edges: re-pair as (v, u) and (x, y)
+            for (int v = 0; v < n; v++) {
+                for (int u = 0; u < n && mate[v] == -1; u++) {
+                    if (u == v || mate[u] == -1 || dual[v] + dual[u] != 2 * weight(v, u)) {
+                        continue;
+                    }
+                    int x = endpoint(mate[u]);
+                    for (int y = 0; y < n; y++) {
+                        if (y != v && mate[y] == -1 && dual[x] + dual[y] == 2 * weight(x, y)) {
+                            mate[v] = endpointAt(v, u);
+                            mate[u] = endpointAt(u, v);
+                            mate[x] = endpointAt(x, y);
+                            mate[y] = endpointAt(y, x);
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+
+        // partner of every vertex
+        int[] solve() {
+            start();
+            for (int stage = 0; stage < n; stage++) {
+                Arrays.fill(label, 0);
+                Arrays.fill(bestEdge, -1);
+                Arrays.fill(blossomBestEdges, n, 2 * n, null);
+                Arrays.fill(allowEdge, false);
+                queueSize = 0;
+                for (int v = 0; v < n; v++) {
+                    if (mate[v] == -1 && label[inBlossom[v]] == 0) {
+                        assignLabel(v, 1, -1);
+                    }
+                }
+                boolean augmented = false;
+                while (true) {
+                    while (queueSize > 0 && !augmented) {
+                        int v = queue[--queueSize];
+                        int row = v * n;
+                        for (int w = 0; w < n; w++) {
+                            if (w == v || inBlossom[v] == inBlossom[w]) {
+                                continue;
+                            }
+                            int k = edge(v, w);
+                            long kSlack = 0;
+                            long kWeight = 0;
+                            if (!allowEdge[row + w]) {
+                                kWeight = weight(v, w);
+                                kSlack = dual[v] + dual[w] - 2 * kWeight;
+                                if (kSlack <= 0) {
+                                    allowEdge[row + w] = true;
+                                    allowEdge[w * n + v] = true;
+                                }
+                            }
+                            int p = endpointAt(v, w);
+                            if (allowEdge[row + w]) {
+                                if (label[inBlossom[w]] == 0) {
+                                    assignLabel(w, 2, p ^ 1);
+                                } else if (label[inBlossom[w]] == 1) {
+                                    int base = scanBlossom(v, w);
+                                    if (base >= 0) {
+                                        addBlossom(base, k);
+                                    } else {
+                                        augmentMatching(k);
+                                        augmented = true;
+                                        break;
+                                    }
+                                } else if (label[w] == 0) {
+                                    label[w] = 2;
+                                    labelEnd[w] = p ^ 1;
+                                }
+                            } else if (label[inBlossom[w]] == 1) {
+                                int b = inBlossom[v];
+                                if (bestEdge[b] == -1 || kSlack < bestSlack(b)) {
+                                    bestEdge[b] = row + w;
+                                    bestWeight[b] = kWeight;
+                                }
+                            } else if (label[w] == 0) {
+                                if (bestEdge[w] == -1 || kSlack < bestSlack(w)) {
+                                    bestEdge[w] = row + w;
+                                    bestWeight[w] = kWeight;
+                                }
+                            }
+                        }
+                    }
+                    if (augmented) {
+                        break;
+                    }
+
+                    // no tight edge left: change the duals by the largest delta that keeps them feasible
+                    int deltaType = -1;
+                    long delta = 0;
+                    int deltaEdge = -1;
+                    int deltaBlossom = -1;
+                    for (int v = 0; v < n; v++) {
+                        if (label[inBlossom[v]] == 0 && bestEdge[v] != -1) {
+                            long d = bestSlack(v);
+                            if (deltaType == -1 || d < delta) {
+                                delta = d;
+                                deltaType = 2;
+                                deltaEdge = bestEdge[v];
+                            }
+                        }
+                    }
+                    for (int b = 0; b < 2 * n; b++) {
+                        if (blossomParent[b] == -1 && label[b] == 1 && bestEdge[b] != -1) {
+                            long d = bestSlack(b) / 2;
+                            if (deltaType == -1 || d < delta) {
+                                delta = d;
+                                deltaType = 3;
+                                deltaEdge = bestEdge[b];
+                            }
+                        }
+                    }
+                    for (int b = n; b < 2 * n; b++) {
+                        if (blossomBase[b] >= 0 && blossomParent[b] == -1 && label[b] == 2
+                                && (deltaType == -1 || dual[b] < delta)) {
+                            delta = dual[b];
+                            deltaType = 4;
+                            deltaBlossom = b;
+                        }
+                    }
+                    if (deltaType == -1) {
+                        // nothing else to do: the matching has maximum cardinality
+                        deltaType = 1;
+                        long min = Long.MAX_VALUE;
+                        for (int v = 0; v < n; v++) {
+                            min = Math.min(min, dual[v]);
+                        }
+                        delta = Math.max(0, min);
+                    }
+                    for (int v = 0; v < n; v++) {
+                        if (label[inBlossom[v]] == 1) {
+                            dual[v] -= delta;
+                        } else if (label[inBlossom[v]] == 2) {
+                            dual[v] += delta;
+                        }
+                    }
+                    for (int b = n; b < 2 * n; b++) {
+                        if (blossomBase[b] >= 0 && blossomParent[b] == -1) {
+                            if (label[b] == 1) {
+                                dual[b] += delta;
+                            } else if (label[b] == 2) {
+                                dual[b] -= delta;
+                            }
+                        }
+                    }
+                    if (deltaType == 1) {
+                        break;
+                    } else if (deltaType == 2) {
+                        int i = deltaEdge / n;
+                        int j = deltaEdge % n;
+                        allowEdge[deltaEdge] = allowEdge[j * n + i] = true;
+                        push(label[inBlossom[i]] == 0 ? j : i);
+                    } else if (deltaType == 3) {
+                        int i = deltaEdge / n;
+                        int j = deltaEdge % n;
+                        allowEdge[deltaEdge] = allowEdge[j * n + i] = true;
+                        push(i);
+                    } else {
+                        expandBlossom(deltaBlossom, false);
+                    }
+                }
+                if (!augmented) {
+                    break;
+                }
+                // S-blossoms whose dual reached zero are expanded before the next stage
+                for (int b = n; b < 2 * n; b++) {
+                    if (blossomParent[b] == -1 && blossomBase[b] >= 0 && label[b] == 1 && dual[b] == 0) {
+                        expandBlossom(b, true);
+                    }
+                }
+            }
+            int[] partner = new int[n];
+            for (int v = 0; v < n; v++) {
+                partner[v] = mate[v] >= 0 ? endpoint(mate[v]) : -1;
+            }
+            return partner;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.project.model;
+
+import java.util.SplittableRandom;
+
+// Random-swap hill climbing on an int[] tour edited in place. A swap of two positions is scored
+// from the at most four edges around them, so an attempt costs O(1) whatever the tour size, and
+// only improving swaps are applied. The same moves double as perturbations for iterated local
+// search: kick() applies random swaps without looking at their cost and doubleBridge() performs
+// the classic segment exchange that 2-opt and Or-opt cannot undo in one move.
+// Position 0 never moves, as in the other solvers.
+public class RandomSwap {
+
+    private static final double EPSILON = TwoOpt.EPSILON;
+    // attempts between two looks at the clock in optimiseFor
+    private static final int CLOCK_INTERVAL = 4096;
+
+    private final DistanceMatrix distances;
+    private final SplittableRandom random;
+    // segments moved by doubleBridge
+    private int[] scratch = new int[0];
+    private long movesTried;
+    private long movesApplied;
+
+    public RandomSwap(DistanceMatrix distances) {
+        this(distances, System.nanoTime());
+    }
+
+    public RandomSwap(DistanceMatrix distances, long seed) {
+        this.distances = distances;
+        this.random = new SplittableRandom(seed);
+    }
+
+    // a copy of start improved by the given number of swap attempts
+    public Tour optimise(Tour start, int iterations) {
+        Tour tour = start.copy();
+        climb(tour.order(), iterations, Long.MAX_VALUE);
+        return tour;
+    }
+
+    // a copy of start improved by swap attempts until budgetMillis have passed
+    public Tour optimiseFor(Tour start, long budgetMillis) {
+        Tour tour = start.copy();
+        climb(tour.order(), Long.MAX_VALUE, System.nanoTime() + budgetMillis * 1000000L);
+        return tour;
+    }
+
+    // improving swaps on the tour in place, up to 'attempts' tries or the deadline (System.nanoTime());
+    // returns the change in length
+    double climb(int[] tour, long attempts, long deadline) {
+        int n = tour.length;
+        if (n < 4) {
+            return 0;
+        }
+        double change = 0;
+        for (long attempt = 0; attempt < attempts; attempt++) {
+            if (attempt % CLOCK_INTERVAL == 0 && System.nanoTime() >= deadline) {
+                break;
+            }
+            movesTried++;
+            int i = 1 + random.nextInt(n - 1);
+            int j = 1 + random.nextInt(n - 1);
+            if (i == j) {
+                continue;
+            }
+            double delta = swapDelta(tour, i, j, distances);
+            if (delta < -EPSILON) {
+                swap(tour, i, j);
+                change += delta;
+                movesApplied++;
+            }
+        }
+        return change;
+    }
+
+    // change in length if positions i and j of the closed tour were swapped
+    public static double swapDelta(int[] tour, int i, int j, DistanceMatrix distances) {
+        int n = tour.length;
+        if (i == j || n < 4) {
+            return 0;
+        }
+        if (i > j) {
+            int tmp = i;
+            i = j;
+            j = tmp;
+        }
+        if (i == 0 && j == n - 1) {
+            // adjacent across the closing edge, where the last position comes first in tour order
+            int a = tour[n - 2];
+            int x = tour[n - 1];
+            int y = tour[0];
+            int c = tour[1];
+            return distances.distance(a, y) + distances.distance(x, c)
+                    - distances.distance(a, x) - distances.distance(y, c);
+        }
+        int a = tour[i == 0 ? n - 1 : i - 1];
+        int x = tour[i];
+        int y = tour[j];
+        int c = tour[j + 1 == n ? 0 : j + 1];
+        if (j == i + 1) {
+            return distances.distance(a, y) + distances.distance(x, c)
+                    - distances.distance(a, x) - distances.distance(y, c);
+        }
+        int b = tour[i + 1];
+        int e = tour[j - 1];
+        return distances.distance(a, y) + distances.distance(y, b) + distances.distance(e, x)
+                + distances.distance(x, c) - distances.distance(a, x) - distances.distance(x, b)
+                - distances.distance(e, y) - distances.distance(y, c);
+    }
+
+    private static void swap(int[] tour, int i, int j) {
+        int tmp = tour[i];
+        tour[i] = tour[j];
+        tour[j] = tmp;
+    }
+
+    // applies the given number of random swaps whatever they cost; returns the change in length
+    public double kick(int[] tour, int swaps) {
+        int n = tour.length;
+        if (n < 4) {
+            return 0;
+        }
+        double change = 0;
+        for (int s = 0; s < swaps; s++) {
+            int i = 1 + random.nextInt(n - 1);
+            int j = 1 + random.nextInt(n - 1);
+            change += swapDelta(tour, i, j, distances);
+            swap(tour, i, j);
+        }
+        return change;
+    }
+
+    // cuts the tour into A B C D at three random positions and reconnects it as A C B D; returns the
+    // change in length. Tours of fewer than 8 cities are left alone
+    public double doubleBridge(int[] tour) {
+        int n = tour.length;
+        if (n < 8) {
+            return 0;
+        }
+        // 1 <= p1 < p2 < p3 <= n - 1, so B and C are never empty and A keeps position 0
+        int p1 = 1 + random.nextInt(n - 3);
+        int p2 = p1 + 1 + random.nextInt(n - p1 - 2);
+        int p3 = p2 + 1 + random.nextInt(n - p2 - 1);
+        int aEnd = tour[p1 - 1];
+        int bStart = tour[p1];
+        int bEnd = tour[p2 - 1];
+        int cStart = tour[p2];
+        int cEnd = tour[p3 - 1];
+        int dStart = tour[p3];
+        double change = distances.distance(aEnd, cStart) + distances.distance(cEnd, bStart)
+                + distances.distance(bEnd, dStart) - distances.distance(aEnd, bStart)
+                - distances.distance(bEnd, cStart) - distances.distance(cEnd, dStart);
+        int lengthB = p2 - p1;
+        int lengthC = p3 - p2;
+        if (scratch.length < lengthB) {
+            scratch = new int[n];
+        }
+        System.arraycopy(tour, p1, scratch, 0, lengthB);
+        System.arraycopy(tour, p2, tour, p1, lengthC);
+        System.arraycopy(scratch, 0, tour, p1 + lengthC, lengthB);
+        return change;
+    }
+
+    public long getMovesTried() {
+        return movesTried;
+    }
+
+    public long getMovesApplied() {
+        return movesApplied;
+    }
+}
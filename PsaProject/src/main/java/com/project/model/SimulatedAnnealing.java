@@ -0,0 +1,242 @@
+package com.project.model;
+
+import java.util.SplittableRandom;
+
+// Simulated annealing on an int[] tour that is edited in place. Every proposal is a random swap,
+// 2-opt reversal or Or-opt segment move whose cost change is read off the few edges it touches,
+// so a rejected move costs O(1) and nothing is allocated per step. The current cost is kept
+// incrementally, and the best tour is copied only when the chain is about to leave it.
+// Position 0 never moves, as in the other solvers.
+public class SimulatedAnnealing {
+
+    public static final double DEFAULT_START_TEMPERATURE = 700;
+    public static final double DEFAULT_END_TEMPERATURE = 1;
+    public static final double DEFAULT_COOLING_RATE = 0.00001;
+
+    // uphill moves worse than this many temperatures are accepted with p < 1e-9 and are rejected
+    // without drawing a random number or calling exp
+    private static final double MAX_UPHILL = 20;
+
+    // longest segment an Or-opt proposal moves
+    static final int MAX_SEGMENT = 3;
+
+    private final DistanceMatrix distances;
+    private final NodeStore store;
+    private final SplittableRandom random;
+    private final int[] tour;
+    private final int[] best;
+    private final int n;
+    private double cost;
+    private double bestCost;
+    // true while the current tour is the best one, so best[] does not have to hold a copy yet
+    private boolean currentIsBest;
+    private long movesTried;
+    private long movesAccepted;
+
+    // the proposal drawn by propose(), applied by apply()
+    private int moveType;
+    private int moveI;
+    private int moveJ;
+    private int moveK;
+
+    public SimulatedAnnealing(DistanceMatrix distances, Tour start, long seed) {
+        this(distances, start, new SplittableRandom(seed));
+    }
+
+    public SimulatedAnnealing(DistanceMatrix distances, Tour start, SplittableRandom random) {
+        this.distances = distances;
+        this.store = start.getNodeStore();
+        this.random = random;
+        this.tour = start.order().clone();
+        this.best = tour.clone();
+        this.n = tour.length;
+        this.cost = Tour.length(tour, distances);
+        this.bestCost = cost;
+        this.currentIsBest = true;
+    }
+
+    // geometric cooling from startTemperature down to endTemperature, one proposal per step
+    public Tour anneal(double startTemperature, double endTemperature, double coolingRate) {
+        double temperature = startTemperature;
+        while (temperature > endTemperature) {
+            step(temperature);
+            temperature *= 1 - coolingRate;
+        }
+        return getBest();
+    }
+
+    // one Metropolis step at the given temperature; true when the proposal was accepted
+    public boolean step(double temperature) {
+        if (n < 5) {
+            return false;
+        }
+        movesTried++;
+        double delta = propose();
+        if (delta > 0 && (delta > MAX_UPHILL * temperature
+                || random.nextDouble() >= Math.exp(-delta / temperature))) {
+            return false;
+        }
+        double newCost = cost + delta;
+        if (currentIsBest && newCost >= bestCost) {
+            System.arraycopy(tour, 0, best, 0, n);
+            currentIsBest = false;
+        }
+        apply();
+        cost = newCost;
+        movesAccepted++;
+        if (cost < bestCost) {
+            bestCost = cost;
+            currentIsBest = true;
+        }
+        return true;
+    }
+
+    // draws a random move and returns its cost change without touching the tour
+    double propose() {
+        int r = random.nextInt(10);
+        if (r < 5) {
+            moveType = 1;
+            return proposeTwoOpt();
+        } else if (r < 8) {
+            moveType = 2;
+            return proposeOrOpt();
+        }
+        moveType = 0;
+        return proposeSwap();
+    }
+
+    private void apply() {
+        if (moveType == 0) {
+            int tmp = tour[moveI];
+            tour[moveI] = tour[moveJ];
+            tour[moveJ] = tmp;
+        } else if (moveType == 1) {
+            TwoOpt.reverse(tour, moveI, moveJ);
+        } else {
+            moveSegment(moveI, moveJ, moveK);
+        }
+    }
+
+    private double d(int a, int b) {
+        return distances.distance(a, b);
+    }
+
+    private int at(int position) {
+        return tour[position == n ? 0 : position];
+    }
+
+    private double proposeSwap() {
+        int i = 1 + random.nextInt(n - 1);
+        int j = 1 + random.nextInt(n - 2);
+        if (j >= i) {
+            j++;
+        } else {
+            int tmp = i;
+            i = j;
+            j = tmp;
+        }
+        moveI = i;
+        moveJ = j;
+        int a = tour[i - 1];
+        int x = tour[i];
+        int y = tour[j];
+        int c = at(j + 1);
+        if (j == i + 1) {
+            return d(a, y) + d(x, c) - d(a, x) - d(y, c);
+        }
+        int b = tour[i + 1];
+        int e = tour[j - 1];
+        return d(a, y) + d(y, b) + d(e, x) + d(x, c) - d(a, x) - d(x, b) - d(e, y) - d(y, c);
+    }
+
+    private double proposeTwoOpt() {
+        int i = 1 + random.nextInt(n - 1);
+        int j = 1 + random.nextInt(n - 2);
+        if (j >= i) {
+            j++;
+        } else {
+            int tmp = i;
+            i = j;
+            j = tmp;
+        }
+        moveI = i;
+        moveJ = j;
+        int a = tour[i - 1];
+        int b = tour[i];
+        int c = tour[j];
+        int e = at(j + 1);
+        return d(a, c) + d(b, e) - d(a, b) - d(c, e);
+    }
+
+    // segment of 1..MAX_SEGMENT cities starting at i, put back between positions k and k + 1
+    private double proposeOrOpt() {
+        int length = 1 + random.nextInt(MAX_SEGMENT);
+        int i = 1 + random.nextInt(n - length);
+        int last = i + length - 1;
+        // k ranges over 0..n-1 without i-1..last, where the segment is already
+        int k = random.nextInt(n - length - 1);
+        if (k >= i - 1) {
+            k += length + 1;
+        }
+        moveI = i;
+        moveJ = last;
+        moveK = k;
+        int p = tour[i - 1];
+        int s1 = tour[i];
+        int s2 = tour[last];
+        int nx = at(last + 1);
+        int x = tour[k];
+        int y = at(k + 1);
+        return d(p, nx) + d(x, s1) + d(s2, y) - d(p, s1) - d(s2, nx) - d(x, y);
+    }
+
+    // moves positions i..last so that they follow position k, as rotations of the range in between
+    private void moveSegment(int i, int last, int k) {
+        if (k > last) {
+            rotate(i, last, k);
+        } else {
+            rotate(k + 1, i - 1, last);
+        }
+    }
+
+    // swaps the adjacent blocks from..middle and middle+1..to
+    private void rotate(int from, int middle, int to) {
+        TwoOpt.reverse(tour, from, middle);
+        TwoOpt.reverse(tour, middle + 1, to);
+        TwoOpt.reverse(tour, from, to);
+    }
+
+    int[] currentOrder() {
+        return tour.clone();
+    }
+
+    int[] bestOrder() {
+        return (currentIsBest ? tour : best).clone();
+    }
+
+    public double getCost() {
+        return cost;
+    }
+
+    public double getBestCost() {
+        return bestCost;
+    }
+
+    // copy of the best tour seen so far
+    public Tour getBest() {
+        return new Tour(store, bestOrder());
+    }
+
+    // copy of the current state of the chain
+    public Tour getCurrent() {
+        return new Tour(store, currentOrder());
+    }
+
+    public long getMovesTried() {
+        return movesTried;
+    }
+
+    public long getMovesAccepted() {
+        return movesAccepted;
+    }
+}
@@ -0,0 +1,99 @@
+package com.project.model;
+
+import java.util.Arrays;
+
+// Undirected weighted graph over node indices 0 .. size - 1 with a few edges per node, such as a
+// Delaunay triangulation. Edges are numbered 0 .. edgeCount - 1 and kept as (source, destination,
+// weight) arrays; the adjacency is compressed-sparse-row: the neighbours of v sit in
+// targets[offsets[v] .. offsets[v + 1] - 1] and edgeIds holds the edge number of each of them.
+public final class SparseGraph {
+
+    private final int size;
+    private final int[] sources;
+    private final int[] destinations;
+    private final double[] weights;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] edgeIds;
+
+    // the first edgeCount entries of the arrays are the edges; the arrays are kept, not copied
+    public SparseGraph(int size, int[] sources, int[] destinations, double[] weights, int edgeCount) {
+        this.size = size;
+        this.sources = edgeCount == sources.length ? sources : Arrays.copyOf(sources, edgeCount);
+        this.destinations = edgeCount == destinations.length ? destinations : Arrays.copyOf(destinations, edgeCount);
+        this.weights = edgeCount == weights.length ? weights : Arrays.copyOf(weights, edgeCount);
+        offsets = new int[size + 1];
+        for (int e = 0; e < edgeCount; e++) {
+            offsets[this.sources[e] + 1]++;
+            offsets[this.destinations[e] + 1]++;
+        }
+        for (int v = 0; v < size; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        targets = new int[2 * edgeCount];
+        edgeIds = new int[2 * edgeCount];
+        int[] fill = Arrays.copyOf(offsets, size);
+        for (int e = 0; e < edgeCount; e++) {
+            int a = this.sources[e];
+            int b = this.destinations[e];
+            targets[fill[a]] = b;
+            edgeIds[fill[a]++] = e;
+            targets[fill[b]] = a;
+            edgeIds[fill[b]++] = e;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int edgeCount() {
+        return sources.length;
+    }
+
+    public int source(int edge) {
+        return sources[edge];
+    }
+
+    public int destination(int edge) {
+        return destinations[edge];
+    }
+
+    public double weight(int edge) {
+        return weights[edge];
+    }
+
+    public int degree(int v) {
+        return offsets[v + 1] - offsets[v];
+    }
+
+    public int neighbor(int v, int rank) {
+        return targets[offsets[v] + rank];
+    }
+
+    // number of the edge joining v to neighbor(v, rank)
+    public int edge(int v, int rank) {
+        return edgeIds[offsets[v] + rank];
+    }
+
+    // Kruskal over the edges: packed keys sorted with Arrays.parallelSort and an int[] union-find.
+    // Returns the numbers of the tree edges, fewer than size - 1 when the graph is not connected
+    public int[] minimumSpanningTree() {
+        int m = edgeCount();
+        long[] keys = new long[m];
+        for (int e = 0; e < m; e++) {
+            keys[e] = Graph.sortKey(weights[e], e);
+        }
+        Arrays.parallelSort(keys);
+        DisjointSet sets = new DisjointSet(size);
+        int[] tree = new int[Math.max(size - 1, 0)];
+        int count = 0;
+        for (int k = 0; k < m && count < tree.length; k++) {
+            int e = (int) keys[k];
+            if (sets.union(sources[e], destinations[e])) {
+                tree[count++] = e;
+            }
+        }
+        return count == tree.length ? tree : Arrays.copyOf(tree, count);
+    }
+}
@@ -1,120 +1,365 @@
 package com.project.model;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
 
 public class TSPGenetic {
 
-    private static List<Node> nodes = new ArrayList<>();
-    private static final int POPULATION_SIZE = 500;
+    // how two parents are combined into a child
+    public enum Crossover {
+        // the original position-based order crossover
+        ORDER,
+        // edge assembly crossover, see EdgeAssembly
+        EAX
+    }
+
+    static final int POPULATION_SIZE = 500;
     private static final int ELITE_SIZE = 10;
     private static final int TOURNAMENT_SIZE = 10;
     private static final double MUTATION_RATE = 0.8; //recommended 0.7-0.8
-    private static final int GENERATIONS = 1000;
+    static final int GENERATIONS = 1000;
+    // children of a generation are bred in this many fixed slices, each with its own random stream, so
+    // a seeded run gives the same tour whatever the number of cores
+    static final int BREEDING_CHUNKS = 32;
+    // memetic mode: every child gets a bounded neighbour-list 2-opt/Or-opt pass before it joins the
+    // population. The local search repairs what crossover breaks, so mutation only needs a couple of
+    // swaps per child and a small population converges in a tenth of the generations
+    static final int MEMETIC_POPULATION_SIZE = 100;
+    static final int MEMETIC_GENERATIONS = 100;
+    private static final double MEMETIC_SWAPS = 2;
+    private static final int MEMETIC_NEIGHBORS = 8;
+    // EAX mode: children inherit nearly all their edges from the parents, so there is no mutation and a
+    // small population of locally optimal routes (2-opt/Or-opt on random starts) is enough
+    static final int EAX_POPULATION_SIZE = 200;
+    static final int EAX_GENERATIONS = 200;
+    // AB-cycles tried per mating, the shortest resulting child is kept
+    private static final int EAX_TRIES = 10;
+    // EAX children are close to their first parent, so selection is kept mild to preserve diversity
+    private static final int EAX_TOURNAMENT_SIZE = 2;
+    // candidates for the 2-opt/Or-opt starts and for reconnecting subtours after an AB-cycle; ten
+    // nearest is what the EAX literature merges over, a little wider than the memetic repair needs
+    private static final int EAX_NEIGHBORS = 10;
 
     public static List<Node> TSPGenAlgo(List<Node> node){
-        nodes=node;
-        GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm();
-        Population population = new Population(POPULATION_SIZE, true);
-        for (int i = 0; i < GENERATIONS; i++) {
-            population = geneticAlgorithm.evolvePopulation(population);
+        return TSPGenAlgo(node, DistanceMatrix.forNodes(node));
+    }
+
+    public static List<Node> TSPGenAlgo(List<Node> node, DistanceMatrix distanceMatrix){
+        return TSPGenAlgo(Tour.of(node, distanceMatrix), distanceMatrix).toNodes();
+    }
+
+    public static Tour TSPGenAlgo(Tour tour, DistanceMatrix distanceMatrix){
+        return TSPGenAlgo(tour, distanceMatrix, System.nanoTime());
+    }
+
+    public static Tour TSPGenAlgo(Tour tour, DistanceMatrix distanceMatrix, long seed){
+        GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(distanceMatrix, tour.size(), seed);
+        return evolve(tour, distanceMatrix, geneticAlgorithm, POPULATION_SIZE, GENERATIONS);
+    }
+
+    public static List<Node> TSPGenMemeticAlgo(List<Node> node, DistanceMatrix distanceMatrix){
+        return TSPGenMemeticAlgo(Tour.of(node, distanceMatrix), distanceMatrix).toNodes();
+    }
+
+    public static Tour TSPGenMemeticAlgo(Tour tour, DistanceMatrix distanceMatrix){
+        return TSPGenMemeticAlgo(tour, distanceMatrix, System.nanoTime());
+    }
+
+    public static Tour TSPGenMemeticAlgo(Tour tour, DistanceMatrix distanceMatrix, long seed){
+        NeighborLists neighbors = NeighborLists.nearest(distanceMatrix, MEMETIC_NEIGHBORS);
+        GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(distanceMatrix, tour.size(), seed, true, neighbors);
+        return evolve(tour, distanceMatrix, geneticAlgorithm, MEMETIC_POPULATION_SIZE, MEMETIC_GENERATIONS);
+    }
+
+    public static List<Node> TSPGenEAXAlgo(List<Node> node, DistanceMatrix distanceMatrix){
+        return TSPGenEAXAlgo(Tour.of(node, distanceMatrix), distanceMatrix).toNodes();
+    }
+
+    public static Tour TSPGenEAXAlgo(Tour tour, DistanceMatrix distanceMatrix){
+        return TSPGenEAXAlgo(tour, distanceMatrix, System.nanoTime());
+    }
+
+    public static Tour TSPGenEAXAlgo(Tour tour, DistanceMatrix distanceMatrix, long seed){
+        NeighborLists neighbors = NeighborLists.nearest(distanceMatrix, EAX_NEIGHBORS);
+        GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(distanceMatrix, tour.size(), seed, true,
+                Crossover.EAX, neighbors);
+        return evolve(tour, distanceMatrix, geneticAlgorithm, EAX_POPULATION_SIZE, EAX_GENERATIONS);
+    }
+
+    private static Tour evolve(Tour tour, DistanceMatrix distanceMatrix, GeneticAlgorithm geneticAlgorithm,
+                               int populationSize, int generations){
+        int[] cities = tour.order().clone();
+        // two preallocated generations that swap roles, so no route is allocated after this point
+        Population population = new Population(populationSize, cities.length, distanceMatrix);
+        Population next = new Population(populationSize, cities.length, distanceMatrix);
+        population.initialise(cities, geneticAlgorithm.random);
+        geneticAlgorithm.prepare(population);
+        for (int i = 0; i < generations; i++) {
+            geneticAlgorithm.evolvePopulation(population, next);
+            Population tmp = population;
+            population = next;
+            next = tmp;
         }
-        return population.getFittest().getRoute();
+        return new Tour(tour.getNodeStore(), population.getFittest().getRoute().clone());
+    }
+
+    public static List<Node> TSPGenIslandAlgo(List<Node> node, DistanceMatrix distanceMatrix){
+        return TSPGenIslandAlgo(Tour.of(node, distanceMatrix), distanceMatrix).toNodes();
+    }
+
+    // one population per core, exchanging their best routes around a ring
+    public static Tour TSPGenIslandAlgo(Tour tour, DistanceMatrix distanceMatrix){
+        return new IslandModel(distanceMatrix).optimise(tour);
     }
 
     static class GeneticAlgorithm {
-        private Random random = new Random();
+        private final SplittableRandom random;
+        private final Breeder[] breeders;
+        private final int[] elites = new int[ELITE_SIZE];
+        private final boolean parallel;
+        private final Crossover crossover;
+
+        GeneticAlgorithm(DistanceMatrix distances, int routeLength, long seed) {
+            this(distances, routeLength, seed, true);
+        }
+
+        // with parallel false every slice is bred on the calling thread, for callers that already
+        // keep the cores busy with several algorithms
+        GeneticAlgorithm(DistanceMatrix distances, int routeLength, long seed, boolean parallel) {
+            this(distances, routeLength, seed, parallel, null);
+        }
 
-        public Population evolvePopulation(Population population) {
-            Population newPopulation = new Population(population.getRoutes().length, false);
+        // with neighbour lists the algorithm is memetic: each child is polished by local search
+        GeneticAlgorithm(DistanceMatrix distances, int routeLength, long seed, boolean parallel,
+                         NeighborLists neighbors) {
+            this(distances, routeLength, seed, parallel, Crossover.ORDER, neighbors);
+        }
 
-            for (int i = 0; i < ELITE_SIZE; i++) {
-                newPopulation.getRoutes()[i] = population.getFittest();
+        // EAX needs neighbour lists to merge subtours and to polish the first generation
+        GeneticAlgorithm(DistanceMatrix distances, int routeLength, long seed, boolean parallel,
+                         Crossover crossover, NeighborLists neighbors) {
+            if (crossover == Crossover.EAX && neighbors == null) {
+                throw new IllegalArgumentException("EAX needs neighbour lists");
             }
-
-            for (int i = ELITE_SIZE; i < population.getRoutes().length; i++) {
-                Route parent1 = tournamentSelection(population);
-                Route parent2 = tournamentSelection(population);
-                Route child = crossover(parent1, parent2);
-                newPopulation.getRoutes()[i] = child;
+            this.parallel = parallel;
+            this.crossover = crossover;
+            random = new SplittableRandom(seed);
+            breeders = new Breeder[BREEDING_CHUNKS];
+            for (int i = 0; i < breeders.length; i++) {
+                breeders[i] = new Breeder(distances, routeLength, random.split(), crossover, neighbors);
             }
+        }
 
-            for (int i = ELITE_SIZE; i < newPopulation.getRoutes().length; i++) {
-                mutate(newPopulation.getRoutes()[i]);
+        // EAX starts from locally optimal routes; the other modes start from the shuffled ones
+        public void prepare(Population population) {
+            if (crossover != Crossover.EAX) {
+                return;
             }
-            return newPopulation;
+            Route[] routes = population.getRoutes();
+            slices(breeders.length).forEach(chunk -> {
+                Breeder breeder = breeders[chunk];
+                for (int i = from(routes.length, 0, chunk); i < from(routes.length, 0, chunk + 1); i++) {
+                    breeder.polish(routes[i]);
+                }
+            });
+        }
+
+        private IntStream slices(int count) {
+            IntStream chunks = IntStream.range(0, count);
+            return parallel ? chunks.parallel() : chunks;
         }
 
-        private Route crossover(Route parent1, Route parent2) {
-            Route child = new Route();
-            int startPos = random.nextInt(parent1.routeSize());
-            int endPos = random.nextInt(parent1.routeSize());
+        // first index of a slice when total items after offset are cut into breeders.length slices
+        private int from(int total, int offset, int chunk) {
+            int items = total - offset;
+            return offset + (int) ((long) items * chunk / breeders.length);
+        }
 
-            for (int i = 0; i < child.routeSize(); i++) {
-                if (startPos < endPos && i > startPos && i < endPos) {
-                    child.setCity(i, parent1.getCity(i));
-                } else if (startPos > endPos) {
-                    if (!(i < startPos && i > endPos)) {
-                        child.setCity(i, parent1.getCity(i));
-                    }
+        // breeds population into next, overwriting every route of next. The elites are copied first,
+        // then every slice of the remaining children is bred on the common fork-join pool; workers only
+        // read the old population and write their own slice of the new one
+        public void evolvePopulation(Population population, Population next) {
+            Route[] children = next.getRoutes();
+            int eliteCount = population.selectElites(elites);
+            for (int i = 0; i < eliteCount; i++) {
+                children[i].copyFrom(population.getRoutes()[elites[i]]);
+            }
+
+            slices(breeders.length).forEach(chunk -> {
+                Breeder breeder = breeders[chunk];
+                int to = from(children.length, eliteCount, chunk + 1);
+                for (int i = from(children.length, eliteCount, chunk); i < to; i++) {
+                    Route parent1 = breeder.tournamentSelection(population);
+                    Route parent2 = breeder.tournamentSelection(population);
+                    breeder.breed(parent1, parent2, children[i]);
                 }
+            });
+        }
+    }
+
+    // scratch space and random stream of one breeding slice
+    static class Breeder {
+        private final SplittableRandom random;
+        // one bit per city of the store: set when the child already holds the city
+        private final long[] inChild;
+        // positions drawn by mutate, as (i, j) pairs
+        private final int[] swaps;
+        private final double mutationRate;
+        private final int tournamentSize;
+        // with neighbour lists: the slice's own local search and the tour it edits, reused for every route
+        private final NeighborListSearch search;
+        private final ArrayTour scratch;
+        // local search moves per child, 0 outside memetic mode
+        private final int maxMoves;
+        private final EdgeAssembly edgeAssembly;
+
+        Breeder(DistanceMatrix distances, int routeLength, SplittableRandom random, Crossover crossover,
+                NeighborLists neighbors) {
+            this.random = random;
+            inChild = new long[(distances.size() + 63) >> 6];
+            swaps = new int[2 * routeLength];
+            if (neighbors == null) {
+                search = null;
+                scratch = null;
+            } else {
+                search = new NeighborListSearch(distances, neighbors, true);
+                scratch = new ArrayTour(new int[routeLength], distances.size());
+            }
+            if (crossover == Crossover.EAX) {
+                mutationRate = 0;
+                tournamentSize = EAX_TOURNAMENT_SIZE;
+                maxMoves = 0;
+                edgeAssembly = new EdgeAssembly(distances, neighbors, routeLength, EAX_TRIES);
+            } else if (neighbors != null) {
+                mutationRate = Math.min(MUTATION_RATE, MEMETIC_SWAPS / Math.max(routeLength, 1));
+                tournamentSize = TOURNAMENT_SIZE;
+                maxMoves = routeLength;
+                edgeAssembly = null;
+            } else {
+                mutationRate = MUTATION_RATE;
+                tournamentSize = TOURNAMENT_SIZE;
+                maxMoves = 0;
+                edgeAssembly = null;
             }
+        }
+
+        // crossover, mutation and, in memetic mode, local search; leaves the child evaluated
+        void breed(Route parent1, Route parent2, Route child) {
+            if (edgeAssembly != null) {
+                edgeAssembly.crossover(parent1.getRoute(), parent2.getRoute(), child.getRoute(), random);
+                child.evaluate();
+                return;
+            }
+            crossover(parent1, parent2, child);
+            mutate(child);
+            if (maxMoves > 0 && search.optimise(child.getRoute(), scratch, maxMoves) > 0) {
+                child.evaluate();
+            }
+        }
+
+        // runs the local search on the route until it is 2-opt and Or-opt optimal
+        void polish(Route route) {
+            search.optimise(route.getRoute(), scratch, Long.MAX_VALUE);
+            route.evaluate();
+        }
 
-            for (int i = 0; i < parent2.routeSize(); i++) {
-                if (!child.getRoute().contains(parent2.getCity(i))) {
+        // order crossover: parent1's cities at the positions picked by startPos/endPos, the other
+        // positions filled left to right with parent2's remaining cities in parent2's order
+        void crossover(Route parent1, Route parent2, Route child) {
+            int size = parent1.routeSize();
+            int startPos = random.nextInt(size);
+            int endPos = random.nextInt(size);
+            int[] p1 = parent1.getRoute();
+            int[] p2 = parent2.getRoute();
+            int[] c = child.getRoute();
+            Arrays.fill(inChild, 0L);
+
+            for (int i = 0; i < size; i++) {
+                boolean fromParent1 = startPos < endPos ? i > startPos && i < endPos
+                        : startPos > endPos && !(i < startPos && i > endPos);
+                if (fromParent1) {
+                    c[i] = p1[i];
+                    inChild[p1[i] >> 6] |= 1L << p1[i];
+                } else {
+                    c[i] = -1;
+                }
+            }
 
-                    for (int j = 0; j < child.routeSize(); j++) {
-                        if (child.getCity(j) == null) {
-                            child.setCity(j, parent2.getCity(i));
-                            break;
-                        }
+            int slot = 0;
+            for (int i = 0; i < size; i++) {
+                int city = p2[i];
+                if ((inChild[city >> 6] & (1L << city)) == 0) {
+                    while (c[slot] != -1) {
+                        slot++;
                     }
+                    c[slot++] = city;
                 }
             }
-            return child;
         }
 
+        // leaves the route evaluated. A swap delta reads up to eight distances and a full evaluation one
+        // per city, so a child that draws many swaps is swapped blind and evaluated once afterwards
         private void mutate(Route route) {
-            for (int i = 0; i < route.routeSize(); i++) {
-                if (random.nextDouble() < MUTATION_RATE) {
-                    int j = random.nextInt(route.routeSize());
-                    route.swapCities(i, j);
+            int size = route.routeSize();
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (random.nextDouble() < mutationRate) {
+                    swaps[count++] = i;
+                    swaps[count++] = random.nextInt(size);
                 }
             }
+            if (count * 4 < size) {
+                route.evaluate();
+                for (int k = 0; k < count; k += 2) {
+                    route.swapCities(swaps[k], swaps[k + 1]);
+                }
+            } else {
+                int[] r = route.getRoute();
+                for (int k = 0; k < count; k += 2) {
+                    int tmp = r[swaps[k]];
+                    r[swaps[k]] = r[swaps[k + 1]];
+                    r[swaps[k + 1]] = tmp;
+                }
+                route.evaluate();
+            }
         }
 
         private Route tournamentSelection(Population population) {
-            Population tournamentPopulation = new Population(TOURNAMENT_SIZE, false);
-            for (int i = 0; i < TOURNAMENT_SIZE; i++) {
-                int randomIndex = random.nextInt(population.getRoutes().length);
-                tournamentPopulation.getRoutes()[i] = population.getRoutes()[randomIndex];
+            Route[] routes = population.getRoutes();
+            Route fittest = routes[random.nextInt(routes.length)];
+            for (int i = 1; i < tournamentSize; i++) {
+                Route candidate = routes[random.nextInt(routes.length)];
+                if (candidate.getDistance() < fittest.getDistance()) {
+                    fittest = candidate;
+                }
             }
-            return tournamentPopulation.getFittest();
+            return fittest;
         }
     }
 
     static class Population {
-        private Route[] routes;
+        private final Route[] routes;
 
-        public Population(int populationSize, boolean initialise) {
+        public Population(int populationSize, int routeLength, DistanceMatrix distances) {
             routes = new Route[populationSize];
-            if (initialise) {
-                for (int i = 0; i < populationSize; i++) {
-                    Route route = new Route();
-                    route.shuffle();
-                    routes[i] = route;
-                }
+            for (int i = 0; i < populationSize; i++) {
+                routes[i] = new Route(new int[routeLength], distances);
             }
         }
 
-        public Route[] getRoutes() {
-            return routes;
+        // every route becomes a random permutation of the given cities
+        public void initialise(int[] cities, SplittableRandom random) {
+            for (Route route : routes) {
+                System.arraycopy(cities, 0, route.getRoute(), 0, cities.length);
+                route.shuffle(random);
+                route.evaluate();
+            }
         }
 
-        public void setRoutes(Route[] routes) {
-            this.routes = routes;
+        public Route[] getRoutes() {
+            return routes;
         }
 
         public Route getFittest() {
@@ -126,72 +371,136 @@ public class TSPGenetic {
             }
             return fittest;
         }
-    }
-
-    static class Route {
 
+        public int getWorstIndex() {
+            int worst = 0;
+            for (int i = 1; i < routes.length; i++) {
+                if (routes[i].getDistance() > routes[worst].getDistance()) {
+                    worst = i;
+                }
+            }
+            return worst;
+        }
 
-        private ArrayList<Node> route = new ArrayList<>();
-        private double distance = 0;
+        public double getMeanDistance() {
+            double sum = 0;
+            for (Route route : routes) {
+                sum += route.getDistance();
+            }
+            return sum / routes.length;
+        }
 
-        public Route() {
-            for (int i = 0; i < nodes.size(); i++) {
-                route.add(nodes.get(i));
+        // indices of the shortest routes, shortest first, in one pass with a small insertion buffer;
+        // returns how many were written
+        public int selectElites(int[] into) {
+            int count = 0;
+            for (int i = 0; i < routes.length; i++) {
+                double distance = routes[i].getDistance();
+                if (count == into.length && distance >= routes[into[count - 1]].getDistance()) {
+                    continue;
+                }
+                int slot = count < into.length ? count++ : count - 1;
+                while (slot > 0 && routes[into[slot - 1]].getDistance() > distance) {
+                    into[slot] = into[slot - 1];
+                    slot--;
+                }
+                into[slot] = i;
             }
+            return count;
         }
+    }
+
+    static class Route {
 
-        public Route(ArrayList<Node> route) {
+        private final int[] route;
+        private final DistanceMatrix distances;
+        // closed tour length, kept up to date by evaluate(), copyFrom() and swapCities()
+        private double distance;
+
+        public Route(int[] route, DistanceMatrix distances) {
             this.route = route;
+            this.distances = distances;
         }
 
-        public ArrayList<Node> getRoute() {
+        public int[] getRoute() {
             return route;
         }
 
-        public void setRoute(ArrayList<Node> route) {
-            this.route = route;
-        }
-
         public double getDistance() {
-            if (distance == 0) {
-                double routeDistance = 0;
-                for (int i = 0; i < route.size(); i++) {
-                    Node fromCity = route.get(i);
-                    Node toCity;
-                    if (i + 1 < route.size()) {
-                        toCity = route.get(i + 1);
-                    } else {
-                        toCity = route.get(0);
-                    }
-                    routeDistance += Graph.calculateDistance(fromCity, toCity);
-                }
-                distance = routeDistance;
-            }
             return distance;
         }
 
-        public int routeSize() {
-            return route.size();
+        public void evaluate() {
+            distance = Tour.length(route, distances);
+        }
+
+        public void copyFrom(Route other) {
+            System.arraycopy(other.route, 0, route, 0, route.length);
+            distance = other.distance;
+        }
+
+        public void copyFrom(int[] cities) {
+            System.arraycopy(cities, 0, route, 0, route.length);
+            evaluate();
         }
 
-        public Node getCity(int index) {
-            return route.get(index);
+        public int routeSize() {
+            return route.length;
         }
 
-        public void setCity(int index, Node city) {
-            route.set(index, city);
-            distance = 0;
+        public int getCity(int index) {
+            return route[index];
         }
 
-        public void shuffle() {
-            Collections.shuffle(route);
+        public void shuffle(SplittableRandom random) {
+            for (int i = route.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int tmp = route[i];
+                route[i] = route[j];
+                route[j] = tmp;
+            }
         }
 
+        // swaps two positions and updates the cached length from the edges around them
         public void swapCities(int i, int j) {
-            Node temp = route.get(i);
-            route.set(i, route.get(j));
-            route.set(j, temp);
-            distance = 0;
+            int n = route.length;
+            if (i == j) {
+                return;
+            }
+            if (n < 5) {
+                int temp = route[i];
+                route[i] = route[j];
+                route[j] = temp;
+                evaluate();
+                return;
+            }
+            if (i > j) {
+                int tmp = i;
+                i = j;
+                j = tmp;
+            }
+            double before = around(i, j);
+            int temp = route[i];
+            route[i] = route[j];
+            route[j] = temp;
+            distance += around(i, j) - before;
+        }
+
+        // length of the edges touching positions i < j, each edge counted once
+        private double around(int i, int j) {
+            int n = route.length;
+            int prevI = i == 0 ? n - 1 : i - 1;
+            int nextJ = j + 1 == n ? 0 : j + 1;
+            double sum = distances.distance(route[prevI], route[i]) + distances.distance(route[j], route[nextJ]);
+            if (j == i + 1) {
+                return sum + distances.distance(route[i], route[j]);
+            }
+            if (i == 0 && j == n - 1) {
+                // adjacent across the closing edge: route[j] -> route[i] was already counted
+                return distances.distance(route[j - 1], route[j]) + distances.distance(route[j], route[i])
+                        + distances.distance(route[i], route[i + 1]);
+            }
+            return sum + distances.distance(route[i], route[i + 1]) + distances.distance(route[j - 1], route[j]);
         }
     }
-}
\ No newline at end of file
+}
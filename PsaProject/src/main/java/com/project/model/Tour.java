@@ -0,0 +1,84 @@
+package com.project.model;
+
+import java.util.List;
+
+// A tour as an int[] of NodeStore indices. Position i holds the city visited i-th and the tour
+// closes from the last position back to the first.
+public class Tour {
+
+    private final NodeStore store;
+    private final int[] order;
+
+    public Tour(NodeStore store, int[] order) {
+        this.store = store;
+        this.order = order;
+    }
+
+    public static Tour of(List<Node> nodes, NodeStore store) {
+        return new Tour(store, store.indicesOf(nodes));
+    }
+
+    public static Tour of(List<Node> nodes, DistanceMatrix distances) {
+        return of(nodes, distances.getNodeStore());
+    }
+
+    public int size() {
+        return order.length;
+    }
+
+    public int get(int position) {
+        return order[position];
+    }
+
+    public void set(int position, int city) {
+        order[position] = city;
+    }
+
+    public void swap(int i, int j) {
+        int tmp = order[i];
+        order[i] = order[j];
+        order[j] = tmp;
+    }
+
+    // reverses positions start..end inclusive
+    public void reverse(int start, int end) {
+        while (start < end) {
+            swap(start++, end--);
+        }
+    }
+
+    // direct access for the solvers' inner loops
+    public int[] order() {
+        return order;
+    }
+
+    public NodeStore getNodeStore() {
+        return store;
+    }
+
+    // snapshot of the tour: the copy shares the NodeStore, and with it every Node, and owns a copy of
+    // the order only, so taking one costs n ints
+    public Tour copy() {
+        return new Tour(store, order.clone());
+    }
+
+    // length of the closed tour, including the edge from the last city back to the first
+    public double length(DistanceMatrix distances) {
+        return length(order, distances);
+    }
+
+    public static double length(int[] order, DistanceMatrix distances) {
+        if (order.length < 2) {
+            return 0;
+        }
+        double length = distances.distance(order[order.length - 1], order[0]);
+        for (int i = 0; i < order.length - 1; i++) {
+            length += distances.distance(order[i], order[i + 1]);
+        }
+        return length;
+    }
+
+    public List<Node> toNodes() {
+        return store.toNodes(order);
+    }
+}
@@ -0,0 +1,248 @@
+package com.project.model;
+
+import java.util.Arrays;
+
+// Two-level list tour: the cities are cut into segments of about sqrt(n) cities, each a slice of one
+// slot array with its own reversed bit, and the segments are kept in a ring. next/prev/between are
+// O(1). A reversal that stays inside one segment swaps slots; any other reversal first splits the
+// segments at both ends of the path and then reverses the run of whole segments in the ring and
+// toggles their bits, so it costs O(sqrt(n)). Splits add segments, and once there are twice as many
+// as at the start the slices are rebuilt from the current order, which amortises to O(sqrt(n)) too.
+public class TwoLevelTour implements OrientedTour {
+
+    private final int n;
+    private final int groupSize;
+    private final int capacity;
+
+    // cities in slot order, and for every store city its slot and segment (-1 when off the tour)
+    private final int[] cities;
+    private final int[] slot;
+    private final int[] segment;
+
+    // per segment: its slice [start, end) of the slot array, orientation and place in the ring
+    private final int[] start;
+    private final int[] end;
+    private final boolean[] reversed;
+    private final int[] rank;
+    // segments in tour order
+    private final int[] ring;
+    private int segmentCount;
+
+    public TwoLevelTour(int[] order, int storeSize) {
+        this.n = order.length;
+        this.groupSize = Math.max(8, (int) Math.sqrt(n));
+        this.capacity = 2 * ((n + groupSize - 1) / groupSize) + 2;
+        this.cities = new int[n];
+        this.slot = new int[storeSize];
+        this.segment = new int[storeSize];
+        Arrays.fill(slot, -1);
+        Arrays.fill(segment, -1);
+        this.start = new int[capacity];
+        this.end = new int[capacity];
+        this.reversed = new boolean[capacity];
+        this.rank = new int[capacity];
+        this.ring = new int[capacity];
+        rebuild(order);
+    }
+
+    private void rebuild(int[] order) {
+        segmentCount = 0;
+        for (int i = 0; i < n; i += groupSize) {
+            int s = segmentCount++;
+            start[s] = i;
+            end[s] = Math.min(n, i + groupSize);
+            reversed[s] = false;
+            ring[s] = s;
+            rank[s] = s;
+        }
+        for (int i = 0; i < n; i++) {
+            cities[i] = order[i];
+            slot[order[i]] = i;
+            segment[order[i]] = i / groupSize;
+        }
+    }
+
+    @Override
+    public int size() {
+        return n;
+    }
+
+    @Override
+    public boolean contains(int city) {
+        return slot[city] >= 0;
+    }
+
+    private int head(int s) {
+        return reversed[s] ? cities[end[s] - 1] : cities[start[s]];
+    }
+
+    private int tail(int s) {
+        return reversed[s] ? cities[start[s]] : cities[end[s] - 1];
+    }
+
+    // place of the city inside its segment, counted in tour direction
+    private int offset(int city) {
+        int s = segment[city];
+        return reversed[s] ? end[s] - 1 - slot[city] : slot[city] - start[s];
+    }
+
+    @Override
+    public int next(int city) {
+        int s = segment[city];
+        int k = reversed[s] ? slot[city] - 1 : slot[city] + 1;
+        if (k >= start[s] && k < end[s]) {
+            return cities[k];
+        }
+        int r = rank[s] + 1;
+        return head(ring[r == segmentCount ? 0 : r]);
+    }
+
+    @Override
+    public int prev(int city) {
+        int s = segment[city];
+        int k = reversed[s] ? slot[city] + 1 : slot[city] - 1;
+        if (k >= start[s] && k < end[s]) {
+            return cities[k];
+        }
+        int r = rank[s] - 1;
+        return tail(ring[r < 0 ? segmentCount - 1 : r]);
+    }
+
+    @Override
+    public boolean between(int a, int b, int c) {
+        int base = rank[segment[a]];
+        int offsetA = offset(a);
+        long keyB = key(b, base, offsetA);
+        long keyC = key(c, base, offsetA);
+        return keyB <= keyC;
+    }
+
+    // position of the city on the tour counted from a, which has key (0, offsetA)
+    private long key(int city, int base, int offsetA) {
+        int r = rank[segment[city]] - base;
+        if (r < 0) {
+            r += segmentCount;
+        }
+        int o = offset(city);
+        if (r == 0 && o < offsetA) {
+            // the part of a's own segment behind a comes last
+            r = segmentCount;
+        }
+        return (long) r * n + o;
+    }
+
+    @Override
+    public void reversePath(int from, int to) {
+        int s = segment[from];
+        if (s == segment[to] && offset(from) <= offset(to)) {
+            reverseSlots(slot[from], slot[to]);
+            return;
+        }
+        if (segmentCount + 2 > capacity) {
+            rebuild(toOrder(cities[0]));
+            reversePath(from, to);
+            return;
+        }
+        splitBefore(from);
+        int after = next(to);
+        if (segment[after] == segment[to]) {
+            splitBefore(after);
+        }
+        int i = rank[segment[from]];
+        int j = rank[segment[to]];
+        int length = j - i;
+        if (length < 0) {
+            length += segmentCount;
+        }
+        length++;
+        if (2 * length > segmentCount) {
+            // flipping the other segments gives the same cycle for less work
+            int first = j + 1 == segmentCount ? 0 : j + 1;
+            j = i == 0 ? segmentCount - 1 : i - 1;
+            i = first;
+            length = segmentCount - length;
+        }
+        for (int k = 0, r = i; k < length; k++) {
+            reversed[ring[r]] = !reversed[ring[r]];
+            r = r + 1 == segmentCount ? 0 : r + 1;
+        }
+        for (int k = 0; k < length / 2; k++) {
+            int si = ring[i];
+            int sj = ring[j];
+            ring[i] = sj;
+            rank[sj] = i;
+            ring[j] = si;
+            rank[si] = j;
+            i = i + 1 == segmentCount ? 0 : i + 1;
+            j = j == 0 ? segmentCount - 1 : j - 1;
+        }
+    }
+
+    private void reverseSlots(int i, int j) {
+        if (i > j) {
+            int tmp = i;
+            i = j;
+            j = tmp;
+        }
+        while (i < j) {
+            int ci = cities[i];
+            int cj = cities[j];
+            cities[i] = cj;
+            slot[cj] = i;
+            cities[j] = ci;
+            slot[ci] = j;
+            i++;
+            j--;
+        }
+    }
+
+    // cuts the segment of the city so that the city heads a segment; the smaller part becomes the new one
+    private void splitBefore(int city) {
+        int s = segment[city];
+        if (head(s) == city) {
+            return;
+        }
+        int k = slot[city];
+        // slot ranges of the part before the city and of the part from the city on, in tour direction
+        int beforeStart = reversed[s] ? k + 1 : start[s];
+        int beforeEnd = reversed[s] ? end[s] : k;
+        int fromStart = reversed[s] ? start[s] : k;
+        int fromEnd = reversed[s] ? k + 1 : end[s];
+        int t = segmentCount;
+        reversed[t] = reversed[s];
+        int position;
+        if (beforeEnd - beforeStart <= fromEnd - fromStart) {
+            start[t] = beforeStart;
+            end[t] = beforeEnd;
+            start[s] = fromStart;
+            end[s] = fromEnd;
+            position = rank[s];
+        } else {
+            start[t] = fromStart;
+            end[t] = fromEnd;
+            start[s] = beforeStart;
+            end[s] = beforeEnd;
+            position = rank[s] + 1;
+        }
+        for (int i = start[t]; i < end[t]; i++) {
+            segment[cities[i]] = t;
+        }
+        System.arraycopy(ring, position, ring, position + 1, segmentCount - position);
+        ring[position] = t;
+        segmentCount++;
+        for (int r = position; r < segmentCount; r++) {
+            rank[ring[r]] = r;
+        }
+    }
+
+    @Override
+    public int[] toOrder(int first) {
+        int[] result = new int[n];
+        int city = first;
+        for (int i = 0; i < n; i++) {
+            result[i] = city;
+            city = next(city);
+        }
+        return result;
+    }
+}
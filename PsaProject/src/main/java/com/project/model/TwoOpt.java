@@ -0,0 +1,148 @@
+package com.project.model;
+
+import java.util.List;
+
+// 2-opt improver that scores each move from the four edges it touches and only rewrites the tour
+// when the move is accepted. Removing (a,b) and (c,e) and reconnecting as (a,c) and (b,e) is the same
+// as reversing the path b..c in place. The first city stays at position 0.
+// NEIGHBOR_LISTS hands the tour to NeighborListSearch, which also runs Or-opt, for large instances.
+public class TwoOpt {
+
+    public enum Strategy {
+        // apply every improving move as soon as it is found
+        FIRST_IMPROVEMENT,
+        // scan the whole neighbourhood and apply only the best move of each pass
+        BEST_IMPROVEMENT,
+        // only try moves towards the k nearest neighbours, with don't-look bits and Or-opt
+        NEIGHBOR_LISTS
+    }
+
+    static final int DEFAULT_NEIGHBORS = 10;
+
+    // moves have to gain more than this to count, so rounding noise cannot make the search cycle
+    static final double EPSILON = 1e-7;
+
+    private final DistanceMatrix distances;
+    private final Strategy strategy;
+    private NeighborLists neighbors;
+    private boolean orOpt = true;
+    private long movesEvaluated;
+    private long movesApplied;
+
+    public TwoOpt(DistanceMatrix distances) {
+        this(distances, Strategy.FIRST_IMPROVEMENT);
+    }
+
+    public TwoOpt(DistanceMatrix distances, Strategy strategy) {
+        this.distances = distances;
+        this.strategy = strategy;
+    }
+
+    public TwoOpt(DistanceMatrix distances, NeighborLists neighbors, boolean orOpt) {
+        this(distances, Strategy.NEIGHBOR_LISTS);
+        this.neighbors = neighbors;
+        this.orOpt = orOpt;
+    }
+
+    public List<Node> optimise(List<Node> nodes) {
+        return optimise(Tour.of(nodes, distances)).toNodes();
+    }
+
+    // improves the tour in place until no improving 2-opt move is left and returns it
+    public Tour optimise(Tour tour) {
+        int[] t = tour.order();
+        if (strategy == Strategy.NEIGHBOR_LISTS) {
+            NeighborListSearch search = new NeighborListSearch(distances, getNeighbors(), orOpt);
+            search.optimise(tour);
+            movesEvaluated += search.getMovesEvaluated();
+            movesApplied += search.getMovesApplied();
+        } else if (strategy == Strategy.BEST_IMPROVEMENT) {
+            while (bestImprovementPass(t)) {
+                // repeat until a pass finds nothing
+            }
+        } else {
+            while (firstImprovementPass(t)) {
+                // repeat until a pass finds nothing
+            }
+        }
+        return tour;
+    }
+
+    private boolean firstImprovementPass(int[] t) {
+        int n = t.length;
+        boolean improved = false;
+        for (int i = 1; i < n - 1; i++) {
+            for (int j = i + 1; j < n; j++) {
+                movesEvaluated++;
+                if (delta(t, i, j) < -EPSILON) {
+                    reverse(t, i, j);
+                    movesApplied++;
+                    improved = true;
+                }
+            }
+        }
+        return improved;
+    }
+
+    private boolean bestImprovementPass(int[] t) {
+        int n = t.length;
+        double bestDelta = -EPSILON;
+        int bestI = -1;
+        int bestJ = -1;
+        for (int i = 1; i < n - 1; i++) {
+            for (int j = i + 1; j < n; j++) {
+                movesEvaluated++;
+                double delta = delta(t, i, j);
+                if (delta < bestDelta) {
+                    bestDelta = delta;
+                    bestI = i;
+                    bestJ = j;
+                }
+            }
+        }
+        if (bestI < 0) {
+            return false;
+        }
+        reverse(t, bestI, bestJ);
+        movesApplied++;
+        return true;
+    }
+
+    // change in tour length from reversing positions i..j
+    private double delta(int[] t, int i, int j) {
+        int a = t[i - 1];
+        int b = t[i];
+        int c = t[j];
+        int e = t[j + 1 == t.length ? 0 : j + 1];
+        return distances.distance(a, c) + distances.distance(b, e)
+                - distances.distance(a, b) - distances.distance(c, e);
+    }
+
+    static void reverse(int[] t, int i, int j) {
+        while (i < j) {
+            int tmp = t[i];
+            t[i++] = t[j];
+            t[j--] = tmp;
+        }
+    }
+
+    // built on first use so the exhaustive strategies never pay for it
+    public NeighborLists getNeighbors() {
+        if (neighbors == null) {
+            neighbors = NeighborLists.nearest(distances, DEFAULT_NEIGHBORS);
+        }
+        return neighbors;
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    public long getMovesEvaluated() {
+        return movesEvaluated;
+    }
+
+    public long getMovesApplied() {
+        return movesApplied;
+    }
+}
@@ -0,0 +1,87 @@
+package com.project;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import com.project.model.AntColony;
+import com.project.model.Christofides;
+import com.project.model.DistanceMatrix;
+import com.project.model.NeighborLists;
+import com.project.model.Node;
+import com.project.model.Tour;
+
+public class AntColonyTest {
+
+	@Test
+	public void improvesARandomOrder() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(150, 101);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		Tour start = Tour.of(nodes, distances);
+		AntColony colony = new AntColony(distances, NeighborLists.nearest(distances, 15), 10, 100,
+				AntColony.DEFAULT_BETA, AntColony.DEFAULT_EVAPORATION, 3);
+		Tour result = colony.optimise(start);
+		TourTest.assertPermutation(result, 150);
+		assertEquals(0, result.get(0));
+		// the input is left alone
+		TourTest.assertPermutation(start, 150);
+		assertTrue(result.length(distances) < 0.5 * start.length(distances));
+		assertEquals(colony.getBestLength(), result.length(distances), 1e-6);
+		assertTrue(colony.getBestIteration() > 0);
+	}
+
+	@Test
+	public void sameSeedGivesSameTour() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(60, 102);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		NeighborLists neighbors = NeighborLists.nearest(distances, 10);
+		Tour start = Tour.of(nodes, distances);
+		Tour first = new AntColony(distances, neighbors, 8, 50, 3, 0.1, 9).optimise(start);
+		Tour second = new AntColony(distances, neighbors, 8, 50, 3, 0.1, 9).optimise(start);
+		assertArrayEquals(first.order(), second.order());
+	}
+
+	@Test
+	public void resultDoesNotDependOnTheNumberOfWorkers() throws Exception {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(70, 105);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		NeighborLists neighbors = NeighborLists.nearest(distances, 10);
+		Tour start = Tour.of(nodes, distances);
+		ForkJoinPool single = new ForkJoinPool(1);
+		ForkJoinPool several = new ForkJoinPool(4);
+		try {
+			Tour alone = single.submit(() -> new AntColony(distances, neighbors, 12, 40, 3, 0.1, 21).optimise(start))
+					.get();
+			Tour shared = several.submit(() -> new AntColony(distances, neighbors, 12, 40, 3, 0.1, 21).optimise(start))
+					.get();
+			assertArrayEquals(alone.order(), shared.order());
+		} finally {
+			single.shutdown();
+			several.shutdown();
+		}
+	}
+
+	@Test
+	public void toursOverPartOfTheStoreStayOnThatPart() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(80, 103);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		List<Node> half = nodes.subList(0, 40);
+		List<Node> result = Christofides.aCOpt(half, distances);
+		assertEquals(40, result.size());
+		assertEquals(new HashSet<>(half), new HashSet<>(result));
+	}
+
+	@Test
+	public void rejectsEvaporationOutsideTheUnitInterval() {
+		DistanceMatrix distances = DistanceMatrix.of(DistanceMatrixTest.randomNodes(10, 104));
+		assertThrows(IllegalArgumentException.class,
+				() -> new AntColony(distances, NeighborLists.nearest(distances, 5), 5, 10, 3, 1.5, 1));
+	}
+}
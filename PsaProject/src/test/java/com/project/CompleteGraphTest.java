@@ -0,0 +1,173 @@
+package com.project;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.project.model.Christofides;
+import com.project.model.DistanceMatrix;
+import com.project.model.Edge;
+import com.project.model.EdgeCursor;
+import com.project.model.Graph;
+import com.project.model.Node;
+
+public class CompleteGraphTest {
+
+	private static double cost(List<Edge> edges) {
+		double cost = 0;
+		for (Edge e : edges) {
+			cost += e.getDistance();
+		}
+		return cost;
+	}
+
+	@Test
+	public void cursorVisitsEveryPairOnce() {
+		DistanceMatrix distances = DistanceMatrix.of(DistanceMatrixTest.randomNodes(40, 11));
+		EdgeCursor cursor = new EdgeCursor(distances);
+		EdgeCursor jump = new EdgeCursor(distances);
+		long k = 0;
+		while (cursor.next()) {
+			assertTrue(cursor.destination() < cursor.source());
+			jump.moveTo(k++);
+			assertEquals(cursor.source(), jump.source());
+			assertEquals(cursor.destination(), jump.destination());
+		}
+		assertEquals(EdgeCursor.pairCount(40), k);
+	}
+
+	@Test
+	public void kruskalOnImplicitGraphMatchesExplicitEdges() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(120, 12);
+		Graph implicit = new Graph(nodes);
+		implicit.connectAllNodes();
+		Graph explicit = new Graph(nodes);
+		for (int i = 0; i < nodes.size(); i++) {
+			for (int j = i + 1; j < nodes.size(); j++) {
+				explicit.addEdge(nodes.get(i), nodes.get(j));
+			}
+		}
+		List<Edge> mst = implicit.kruskalMST();
+		assertEquals(nodes.size() - 1, mst.size());
+		assertEquals(cost(explicit.kruskalMST()), cost(mst), 1e-6);
+		assertEquals(EdgeCursor.pairCount(120), implicit.getEdges().size());
+	}
+
+	// O(n^2) Prim on the distance matrix as an independent reference
+	private static double primCost(DistanceMatrix distances) {
+		int n = distances.size();
+		double[] best = new double[n];
+		boolean[] inTree = new boolean[n];
+		Arrays.fill(best, Double.MAX_VALUE);
+		best[0] = 0;
+		double cost = 0;
+		for (int step = 0; step < n; step++) {
+			int next = -1;
+			for (int v = 0; v < n; v++) {
+				if (!inTree[v] && (next < 0 || best[v] < best[next])) {
+					next = v;
+				}
+			}
+			inTree[next] = true;
+			cost += best[next];
+			for (int v = 0; v < n; v++) {
+				if (!inTree[v]) {
+					best[v] = Math.min(best[v], distances.distance(next, v));
+				}
+			}
+		}
+		return cost;
+	}
+
+	@Test
+	public void kruskalMatchesPrim() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(400, 15);
+		Graph graph = new Graph(nodes);
+		graph.connectAllNodes();
+		List<Edge> mst = graph.kruskalMST();
+		assertEquals(nodes.size() - 1, mst.size());
+		assertEquals(primCost(graph.getDistanceMatrix()), cost(mst), 1e-3);
+	}
+
+	@Test
+	public void kruskalAboveTheMatrixSizeNeedsNoKeyArray() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(DistanceMatrix.MAX_IN_HEAP_NODES + 1, 20);
+		Graph graph = new Graph(nodes);
+		graph.connectAllNodes();
+		List<Edge> mst = graph.kruskalMST();
+		assertEquals(nodes.size() - 1, mst.size());
+		assertEquals(cost(graph.delaunayMST()), cost(mst), 1e-3);
+	}
+
+	@Test
+	public void kruskalHandlesLongChains() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(200000, 16);
+		Graph graph = new Graph(nodes);
+		// every edge as long as the next, so equal weights keep the chain order
+		for (int i = nodes.size() - 1; i > 0; i--) {
+			graph.getEdges().add(new Edge(nodes.get(i), nodes.get(i - 1), 1.0));
+		}
+		graph.getEdges().add(new Edge(nodes.get(0), nodes.get(nodes.size() - 1), 1.0));
+		List<Edge> mst = graph.kruskalMST();
+		assertEquals(nodes.size() - 1, mst.size());
+		assertEquals(nodes.get(nodes.size() - 1), mst.get(0).getSource());
+	}
+
+	@Test
+	public void primMatchesKruskal() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(400, 17);
+		// no distance matrix built yet, so Prim works from the coordinates
+		Graph coordinates = new Graph(nodes);
+		coordinates.connectAllNodes();
+		List<Edge> fromCoordinates = coordinates.primMST();
+		Graph graph = new Graph(nodes);
+		graph.connectAllNodes();
+		double kruskal = cost(graph.kruskalMST());
+		List<Edge> fromMatrix = graph.minimumSpanningTree(Graph.MstAlgorithm.PRIM);
+		assertEquals(nodes.size() - 1, fromMatrix.size());
+		assertEquals(kruskal, cost(fromMatrix), 1e-3);
+		assertEquals(cost(fromMatrix), cost(fromCoordinates), 1e-6);
+	}
+
+	@Test
+	public void parallelPrimMatchesPrim() {
+		// enough nodes for the first steps to be scanned in chunks on the fork-join pool
+		List<Node> nodes = DistanceMatrixTest.randomNodes(3000, 18);
+		Graph graph = new Graph(nodes);
+		graph.connectAllNodes();
+		assertEquals(primCost(graph.getDistanceMatrix()), cost(graph.primMST()), 1e-3);
+	}
+
+	@Test
+	public void primNeedsACompleteGraph() {
+		Graph graph = new Graph(DistanceMatrixTest.randomNodes(10, 19));
+		assertThrows(IllegalStateException.class, graph::primMST);
+	}
+
+	@Test
+	public void completeAdjacencyIsAView() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(30, 13);
+		Graph graph = new Graph(nodes);
+		graph.connectAllNodes();
+		List<Node> neighbours = graph.adjacencyMatrix().get(nodes.get(4));
+		assertEquals(29, neighbours.size());
+		assertFalse(neighbours.contains(nodes.get(4)));
+	}
+
+	@Test
+	public void christofidesTourVisitsEveryNode() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(300, 14);
+		Graph graph = new Graph(nodes);
+		List<Node> tour = ChristofidesTSPTest.ChrisTSPNew(graph);
+		assertEquals(nodes.size(), tour.size());
+		assertEquals(new HashSet<>(nodes), new HashSet<>(tour));
+		assertTrue(Christofides.calculateTourLength(tour) > 0);
+	}
+}
@@ -0,0 +1,120 @@
+package com.project;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.project.model.Delaunay;
+import com.project.model.DistanceMatrix;
+import com.project.model.Edge;
+import com.project.model.Graph;
+import com.project.model.NeighborLists;
+import com.project.model.Node;
+import com.project.model.NodeStore;
+import com.project.model.SparseGraph;
+
+public class DelaunayTest {
+
+	private static double cost(List<Edge> edges) {
+		double cost = 0;
+		for (Edge e : edges) {
+			cost += e.getDistance();
+		}
+		return cost;
+	}
+
+	@Test
+	public void circumcirclesAreEmpty() {
+		Random random = new Random(31);
+		int n = 300;
+		double[] x = new double[n];
+		double[] y = new double[n];
+		for (int i = 0; i < n; i++) {
+			x[i] = random.nextDouble() * 1000;
+			y[i] = random.nextDouble() * 1000;
+		}
+		Delaunay delaunay = new Delaunay(x, y);
+		// 2n - 2 - h triangles for h hull points, so at least n - 2 and fewer than 2n
+		assertTrue(delaunay.triangleCount() >= n - 2 && delaunay.triangleCount() < 2 * n);
+		for (int t = 0; t < delaunay.triangleCount(); t++) {
+			int a = delaunay.corner(t, 0);
+			int b = delaunay.corner(t, 1);
+			int c = delaunay.corner(t, 2);
+			for (int p = 0; p < n; p++) {
+				if (p == a || p == b || p == c) {
+					continue;
+				}
+				double ax = x[a] - x[p], ay = y[a] - y[p];
+				double bx = x[b] - x[p], by = y[b] - y[p];
+				double cx = x[c] - x[p], cy = y[c] - y[p];
+				double det = (ax * ax + ay * ay) * (bx * cy - cx * by) - (bx * bx + by * by) * (ax * cy - cx * ay)
+						+ (cx * cx + cy * cy) * (ax * by - bx * ay);
+				// clockwise triangles: a point inside the circumcircle makes the determinant negative
+				assertTrue(det > -1e-6, "point " + p + " inside triangle " + t);
+			}
+		}
+		for (int e = 0; e < 3 * delaunay.triangleCount(); e++) {
+			int opposite = delaunay.halfedge(e);
+			if (opposite >= 0) {
+				assertEquals(e, delaunay.halfedge(opposite));
+			}
+		}
+	}
+
+	@Test
+	public void delaunayMstMatchesPrim() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(1000, 32);
+		Graph graph = new Graph(nodes);
+		graph.connectAllNodes();
+		List<Edge> mst = graph.minimumSpanningTree(Graph.MstAlgorithm.DELAUNAY);
+		assertEquals(nodes.size() - 1, mst.size());
+		assertEquals(cost(graph.primMST()), cost(mst), 1e-3);
+	}
+
+	@Test
+	public void duplicatesAndCollinearPointsStayConnected() {
+		List<Node> nodes = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			// ten distinct points on one line, each five times
+			nodes.add(new Node("Crime" + i, -0.1 + (i % 10) * 0.001, 51.5 + (i % 10) * 0.002));
+		}
+		NodeStore store = NodeStore.of(nodes);
+		SparseGraph line = Delaunay.of(store).edges(store);
+		assertEquals(nodes.size() - 1, line.minimumSpanningTree().length);
+
+		nodes.addAll(DistanceMatrixTest.randomNodes(100, 33));
+		nodes.add(nodes.get(70));
+		Graph graph = new Graph(nodes);
+		graph.connectAllNodes();
+		List<Edge> mst = graph.delaunayMST();
+		assertEquals(nodes.size() - 1, mst.size());
+		assertEquals(cost(graph.primMST()), cost(mst), 1e-3);
+	}
+
+	@Test
+	public void candidateListsAreSortedTriangulationNeighbours() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(400, 34);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		NodeStore store = distances.getNodeStore();
+		SparseGraph triangulation = Delaunay.of(store).edges(store);
+		NeighborLists candidates = NeighborLists.of(triangulation, 5);
+		NeighborLists nearest = NeighborLists.nearest(distances, 5);
+		for (int city = 0; city < nodes.size(); city++) {
+			assertTrue(candidates.count(city) >= 1 && candidates.count(city) <= 5);
+			// the nearest neighbour is always a Delaunay neighbour
+			assertEquals(nearest.get(city, 0), candidates.get(city, 0));
+			for (int r = 1; r < candidates.count(city); r++) {
+				assertNotEquals(city, candidates.get(city, r));
+				assertFalse(distances.distance(city, candidates.get(city, r - 1))
+						> distances.distance(city, candidates.get(city, r)));
+			}
+		}
+	}
+}
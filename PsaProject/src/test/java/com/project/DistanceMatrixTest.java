@@ -0,0 +1,83 @@
+package com.project;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.project.model.ComputedDistanceMatrix;
+import com.project.model.DistanceMatrix;
+import com.project.model.Graph;
+import com.project.model.Node;
+import com.project.model.NodeStore;
+import com.project.model.Tour;
+import com.project.model.TwoOpt;
+
+public class DistanceMatrixTest {
+
+	public static List<Node> randomNodes(int count, long seed) {
+		Random random = new Random(seed);
+		List<Node> nodes = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			nodes.add(new Node("Crime" + i, -0.5 + random.nextDouble() * 0.7, 51.3 + random.nextDouble() * 0.4));
+		}
+		return nodes;
+	}
+
+	@Test
+	public void matchesHaversine() {
+		List<Node> nodes = randomNodes(200, 1);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		for (int i = 0; i < nodes.size(); i++) {
+			for (int j = 0; j < nodes.size(); j++) {
+				assertEquals(Graph.calculateDistance(nodes.get(i), nodes.get(j)), distances.distance(i, j), 1e-9);
+			}
+		}
+	}
+
+	@Test
+	public void computedMatrixMatchesPacked() {
+		List<Node> nodes = randomNodes(300, 3);
+		DistanceMatrix packed = DistanceMatrix.of(nodes);
+		DistanceMatrix computed = new ComputedDistanceMatrix(NodeStore.of(nodes));
+		for (int i = 0; i < nodes.size(); i++) {
+			for (int j = 0; j < nodes.size(); j++) {
+				assertEquals(packed.distance(i, j), computed.distance(i, j));
+			}
+		}
+	}
+
+	@Test
+	public void neighborListSearchNeedsNoStoredMatrix() {
+		List<Node> nodes = randomNodes(3000, 4);
+		DistanceMatrix packed = DistanceMatrix.of(nodes);
+		DistanceMatrix computed = new ComputedDistanceMatrix(NodeStore.of(nodes));
+		// bit-identical distances, so the search takes exactly the same moves
+		Tour fromPacked = new TwoOpt(packed, TwoOpt.Strategy.NEIGHBOR_LISTS).optimise(Tour.of(nodes, packed));
+		Tour fromComputed = new TwoOpt(computed, TwoOpt.Strategy.NEIGHBOR_LISTS).optimise(Tour.of(nodes, computed));
+		assertArrayEquals(fromPacked.order(), fromComputed.order());
+	}
+
+	@Test
+	public void lookupByNode() {
+		List<Node> nodes = randomNodes(10, 2);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		assertEquals(0.0, distances.distance(nodes.get(3), nodes.get(3)));
+		assertEquals(distances.distance(4, 7), distances.distance(nodes.get(7), nodes.get(4)));
+		assertThrows(IllegalArgumentException.class,
+				() -> distances.distance(nodes.get(0), new Node("Other", 0.0, 51.5)));
+	}
+
+	@Test
+	public void graphBuildsMatrixOnce() {
+		Graph graph = new Graph(randomNodes(50, 3));
+		DistanceMatrix distances = graph.getDistanceMatrix();
+		assertEquals(distances, graph.getDistanceMatrix());
+		assertEquals(50, distances.size());
+	}
+}
@@ -0,0 +1,89 @@
+package com.project;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import com.project.model.DistanceMatrix;
+import com.project.model.Node;
+import com.project.model.TSPGenetic;
+import com.project.model.Tour;
+import com.project.model.TwoOpt;
+
+public class GeneticEngineTest {
+
+	@Test
+	public void returnsAPermutationBetterThanARandomOrder() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(40, 81);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		Tour start = Tour.of(nodes, distances);
+		Tour result = TSPGenetic.TSPGenAlgo(start, distances);
+		TourTest.assertPermutation(result, 40);
+		assertTrue(result.length(distances) < start.length(distances));
+	}
+
+	@Test
+	public void listEntryPointKeepsEveryNode() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(30, 82);
+		List<Node> result = TSPGenetic.TSPGenAlgo(nodes, DistanceMatrix.of(nodes));
+		assertEquals(30, result.size());
+		assertEquals(new HashSet<>(nodes), new HashSet<>(result));
+	}
+
+	@Test
+	public void sameSeedGivesSameTour() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(40, 83);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		Tour start = Tour.of(nodes, distances);
+		Tour first = TSPGenetic.TSPGenAlgo(start, distances, 7);
+		Tour second = TSPGenetic.TSPGenAlgo(start, distances, 7);
+		assertArrayEquals(first.order(), second.order());
+	}
+
+	@Test
+	public void concurrentRunsDoNotInterfere() {
+		List<Node> small = DistanceMatrixTest.randomNodes(25, 84);
+		List<Node> large = DistanceMatrixTest.randomNodes(45, 85);
+		DistanceMatrix smallDistances = DistanceMatrix.of(small);
+		DistanceMatrix largeDistances = DistanceMatrix.of(large);
+		Tour smallStart = Tour.of(small, smallDistances);
+		Tour largeStart = Tour.of(large, largeDistances);
+		Tour expected = TSPGenetic.TSPGenAlgo(smallStart, smallDistances, 11);
+
+		CompletableFuture<Tour> other = CompletableFuture.supplyAsync(
+				() -> TSPGenetic.TSPGenAlgo(largeStart, largeDistances, 12));
+		Tour concurrent = TSPGenetic.TSPGenAlgo(smallStart, smallDistances, 11);
+		TourTest.assertPermutation(other.join(), 45);
+		assertArrayEquals(expected.order(), concurrent.order());
+	}
+
+	@Test
+	public void memeticModeBeatsTwoOpt() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(80, 86);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		Tour start = Tour.of(nodes, distances);
+		Tour twoOpt = new TwoOpt(distances).optimise(start.copy());
+		Tour memetic = TSPGenetic.TSPGenMemeticAlgo(start, distances, 13);
+		TourTest.assertPermutation(memetic, 80);
+		assertTrue(memetic.length(distances) <= twoOpt.length(distances) + 1e-6);
+		assertArrayEquals(memetic.order(), TSPGenetic.TSPGenMemeticAlgo(start, distances, 13).order());
+	}
+
+	@Test
+	public void edgeAssemblyBeatsTwoOpt() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(120, 87);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		Tour start = Tour.of(nodes, distances);
+		Tour twoOpt = new TwoOpt(distances).optimise(start.copy());
+		Tour eax = TSPGenetic.TSPGenEAXAlgo(start, distances, 17);
+		TourTest.assertPermutation(eax, 120);
+		assertTrue(eax.length(distances) <= twoOpt.length(distances) + 1e-6);
+		assertArrayEquals(eax.order(), TSPGenetic.TSPGenEAXAlgo(start, distances, 17).order());
+	}
+}
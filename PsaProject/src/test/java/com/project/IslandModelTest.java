@@ -0,0 +1,60 @@
+package com.project;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.project.model.DistanceMatrix;
+import com.project.model.IslandModel;
+import com.project.model.Node;
+import com.project.model.Tour;
+
+public class IslandModelTest {
+
+	@Test
+	public void islandsReturnAShorterPermutation() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(35, 91);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		Tour start = Tour.of(nodes, distances);
+		IslandModel model = new IslandModel(distances, 3, 120, 10, 2, IslandModel.Replacement.WORST, 5);
+		Tour result = model.optimise(start);
+		TourTest.assertPermutation(result, 35);
+		assertTrue(result.length(distances) < start.length(distances));
+		assertEquals(3, model.getMetrics().size());
+	}
+
+	@Test
+	public void metricsTrackEachIsland() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(30, 92);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		IslandModel model = new IslandModel(distances, 2, 100, 20, 3, IslandModel.Replacement.RANDOM, 6);
+		Tour result = model.optimise(Tour.of(nodes, distances));
+		double shortest = Double.MAX_VALUE;
+		for (IslandModel.IslandMetrics metrics : model.getMetrics()) {
+			double[] best = metrics.getBestHistory();
+			double[] mean = metrics.getMeanHistory();
+			// the start population and one entry per migration
+			assertEquals(6, best.length);
+			for (int i = 0; i < best.length; i++) {
+				assertTrue(best[i] <= mean[i] + 1e-9);
+				if (i > 0) {
+					assertTrue(best[i] <= best[i - 1]);
+				}
+			}
+			assertTrue(metrics.getLastImprovement() <= 100);
+			shortest = Math.min(shortest, metrics.getBestLength());
+		}
+		assertEquals(shortest, result.length(distances), 1e-6);
+	}
+
+	@Test
+	public void rejectsAnEmptyArchipelago() {
+		DistanceMatrix distances = DistanceMatrix.of(DistanceMatrixTest.randomNodes(10, 93));
+		assertThrows(IllegalArgumentException.class,
+				() -> new IslandModel(distances, 0, 10, 5, 1, IslandModel.Replacement.WORST, 1));
+	}
+}
@@ -0,0 +1,128 @@
+package com.project;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.project.model.DistanceMatrix;
+import com.project.model.Graph;
+import com.project.model.KdTree;
+import com.project.model.NeighborLists;
+import com.project.model.Node;
+
+public class KdTreeTest {
+
+	// the k nearest other nodes by a linear scan, ties to the lower index
+	private static int[] scan(List<Node> nodes, int city, int k) {
+		int[] best = new int[k];
+		double[] bestDistance = new double[k];
+		int found = 0;
+		for (int j = 0; j < nodes.size(); j++) {
+			if (j == city) {
+				continue;
+			}
+			double d = Graph.calculateDistance(nodes.get(city), nodes.get(j));
+			if (found < k || d < bestDistance[k - 1]) {
+				int slot = found < k ? found++ : k - 1;
+				while (slot > 0 && bestDistance[slot - 1] > d) {
+					best[slot] = best[slot - 1];
+					bestDistance[slot] = bestDistance[slot - 1];
+					slot--;
+				}
+				best[slot] = j;
+				bestDistance[slot] = d;
+			}
+		}
+		return best;
+	}
+
+	@Test
+	public void nearestMatchesAScan() {
+		// more nodes than the parallel build threshold
+		List<Node> nodes = DistanceMatrixTest.randomNodes(20000, 41);
+		KdTree tree = KdTree.of(nodes);
+		int[] into = new int[7];
+		double[] scratch = new double[7];
+		for (int city = 0; city < nodes.size(); city += 397) {
+			assertEquals(7, tree.nearest(city, 7, into, scratch));
+			int[] expected = scan(nodes, city, 7);
+			for (int r = 0; r < 7; r++) {
+				assertEquals(Graph.calculateDistance(nodes.get(city), nodes.get(expected[r])),
+						Graph.calculateDistance(nodes.get(city), nodes.get(into[r])), 1e-6);
+			}
+		}
+	}
+
+	@Test
+	public void radiusFindsEveryNodeInRange() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(3000, 42);
+		KdTree tree = KdTree.of(nodes);
+		int[] into = new int[nodes.size()];
+		for (int city = 0; city < nodes.size(); city += 101) {
+			int count = tree.withinRadius(city, 1500, into);
+			int expected = 0;
+			for (int j = 0; j < nodes.size(); j++) {
+				if (j != city && Graph.calculateDistance(nodes.get(city), nodes.get(j)) <= 1500) {
+					expected++;
+				}
+			}
+			assertEquals(expected, count);
+			for (int r = 0; r < count; r++) {
+				assertTrue(Graph.calculateDistance(nodes.get(city), nodes.get(into[r])) <= 1500);
+			}
+		}
+		// only as many as fit are written, but all are counted
+		assertEquals(nodes.size() - 1, tree.withinRadius(0, 1e7, new int[3]));
+	}
+
+	@Test
+	public void nearestUnvisitedWalksTheGreedyTour() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(1500, 43);
+		KdTree.Unvisited unvisited = KdTree.of(nodes).unvisited();
+		boolean[] visited = new boolean[nodes.size()];
+		int current = 0;
+		visited[0] = true;
+		unvisited.remove(0);
+		for (int step = 1; step < nodes.size(); step++) {
+			int next = unvisited.nearest(current);
+			double best = Double.MAX_VALUE;
+			for (int j = 0; j < nodes.size(); j++) {
+				if (!visited[j]) {
+					best = Math.min(best, Graph.calculateDistance(nodes.get(current), nodes.get(j)));
+				}
+			}
+			assertFalse(visited[next]);
+			assertEquals(best, Graph.calculateDistance(nodes.get(current), nodes.get(next)), 1e-6);
+			visited[next] = true;
+			unvisited.remove(next);
+			current = next;
+		}
+		assertEquals(0, unvisited.size());
+		assertEquals(-1, unvisited.nearest(current));
+		unvisited.reset();
+		assertEquals(nodes.size(), unvisited.size());
+		assertTrue(unvisited.contains(current));
+	}
+
+	@Test
+	public void neighborListsMatchAScanWithDuplicates() {
+		List<Node> nodes = new ArrayList<>(DistanceMatrixTest.randomNodes(500, 44));
+		for (int i = 0; i < 40; i++) {
+			Node copy = nodes.get(i * 7);
+			nodes.add(new Node("Copy" + i, copy.getLongitude(), copy.getLatitude()));
+		}
+		NeighborLists lists = NeighborLists.nearest(DistanceMatrix.of(nodes), 8);
+		for (int city = 0; city < nodes.size(); city++) {
+			int[] expected = scan(nodes, city, 8);
+			assertEquals(8, lists.count(city));
+			for (int r = 0; r < 8; r++) {
+				assertEquals(expected[r], lists.get(city, r));
+			}
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package com.project;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.project.model.Christofides;
+import com.project.model.DistanceMatrix;
+import com.project.model.LinKernighan;
+import com.project.model.NeighborLists;
+import com.project.model.Node;
+import com.project.model.Tour;
+import com.project.model.TwoOpt;
+
+public class LinKernighanTest {
+
+	@Test
+	public void beatsTwoOptFromTheSameStart() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(500, 41);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		Tour twoOpt = new TwoOpt(distances).optimise(Tour.of(nodes, distances));
+		Tour tour = Tour.of(nodes, distances);
+		LinKernighan lk = new LinKernighan(distances);
+		lk.optimise(tour);
+		TourTest.assertPermutation(tour, 500);
+		assertEquals(0, tour.get(0));
+		assertTrue(tour.length(distances) < twoOpt.length(distances));
+		assertTrue(lk.getMovesApplied() > 0);
+	}
+
+	@Test
+	public void deeperChainsDoNotHurt() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(300, 42);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		NeighborLists neighbors = NeighborLists.nearest(distances, 8);
+		Tour start = Tour.of(nodes, distances);
+		double before = start.length(distances);
+		Tour shallow = new LinKernighan(distances, neighbors, 1).optimise(start.copy());
+		Tour deep = new LinKernighan(distances, neighbors, 12).optimise(start.copy());
+		TourTest.assertPermutation(shallow, 300);
+		TourTest.assertPermutation(deep, 300);
+		assertTrue(shallow.length(distances) < before);
+		assertTrue(deep.length(distances) < shallow.length(distances) * 1.02);
+	}
+
+	@Test
+	public void kOptUsesLinKernighan() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(120, 43);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		List<Node> tour = Christofides.kOpt(nodes, 5, distances);
+		assertEquals(120, tour.size());
+		assertTrue(Tour.of(tour, distances).length(distances) < Tour.of(nodes, distances).length(distances));
+	}
+
+	@Test
+	public void rejectsZeroDepth() {
+		DistanceMatrix distances = DistanceMatrix.of(DistanceMatrixTest.randomNodes(10, 44));
+		assertThrows(IllegalArgumentException.class,
+				() -> new LinKernighan(distances, NeighborLists.nearest(distances, 4), 0));
+	}
+
+	@Test
+	public void threeOptTerminates() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(150, 45);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		Tour tour = Christofides.threeOpt(Tour.of(nodes, distances), distances);
+		TourTest.assertPermutation(tour, 150);
+		assertTrue(tour.length(distances) < Tour.of(nodes, distances).length(distances));
+	}
+
+	@Test
+	public void threeOptLeavesNoImprovingExchange() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(60, 46);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		Tour tour = Christofides.threeOpt(Tour.of(nodes, distances), distances);
+		TourTest.assertPermutation(tour, 60);
+		double length = tour.length(distances);
+		// a 3-opt optimum is also a 2-opt optimum, and a second pass finds nothing
+		assertEquals(length, Christofides.twoOpt(tour.copy(), distances).length(distances), 1e-6);
+		assertEquals(length, Christofides.threeOpt(tour.copy(), distances).length(distances), 1e-6);
+	}
+}
@@ -0,0 +1,74 @@
+package com.project;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.project.model.Graph;
+import com.project.model.MappedDistanceMatrix;
+import com.project.model.Node;
+import com.project.model.NodeStore;
+
+public class MappedDistanceMatrixTest {
+
+	@TempDir
+	Path cacheDirectory;
+
+	@Test
+	public void matchesHaversineWithinFloatPrecision() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(300, 7);
+		MappedDistanceMatrix distances = MappedDistanceMatrix.inDirectory(NodeStore.of(nodes), cacheDirectory);
+		assertFalse(distances.isReused());
+		for (int i = 0; i < nodes.size(); i++) {
+			for (int j = 0; j < nodes.size(); j++) {
+				double expected = Graph.calculateDistance(nodes.get(i), nodes.get(j));
+				assertEquals(expected, distances.distance(i, j), expected * 1e-6);
+			}
+		}
+	}
+
+	@Test
+	public void reusesFileForSameDataset() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(120, 8);
+		MappedDistanceMatrix first = MappedDistanceMatrix.inDirectory(NodeStore.of(nodes), cacheDirectory);
+		NodeStore sameDataset = NodeStore.of(DistanceMatrixTest.randomNodes(120, 8));
+		MappedDistanceMatrix second = MappedDistanceMatrix.inDirectory(sameDataset, cacheDirectory);
+		assertTrue(second.isReused());
+		assertEquals(first.getDatasetHash(), second.getDatasetHash());
+		assertEquals(first.distance(17, 93), second.distance(93, 17));
+	}
+
+	@Test
+	public void rebuildsFileForDifferentDataset() {
+		Path file = cacheDirectory.resolve("distances.bin");
+		MappedDistanceMatrix.open(NodeStore.of(DistanceMatrixTest.randomNodes(60, 9)), file);
+		List<Node> other = DistanceMatrixTest.randomNodes(60, 10);
+		MappedDistanceMatrix rebuilt = MappedDistanceMatrix.open(NodeStore.of(other), file);
+		assertFalse(rebuilt.isReused());
+		double expected = Graph.calculateDistance(other.get(5), other.get(40));
+		assertEquals(expected, rebuilt.distance(5, 40), expected * 1e-6);
+	}
+
+	@Test
+	public void rebuildLeavesLiveMappingsIntact() throws IOException {
+		Path file = cacheDirectory.resolve("distances.bin");
+		List<Node> first = DistanceMatrixTest.randomNodes(80, 11);
+		MappedDistanceMatrix live = MappedDistanceMatrix.open(NodeStore.of(first), file);
+		double before = live.distance(3, 70);
+		// another dataset on the same path replaces the file while the first mapping is still in use
+		MappedDistanceMatrix.open(NodeStore.of(DistanceMatrixTest.randomNodes(90, 12)), file);
+		assertEquals(before, live.distance(3, 70));
+		try (Stream<Path> files = Files.list(cacheDirectory)) {
+			assertEquals(1, files.count());
+		}
+	}
+}
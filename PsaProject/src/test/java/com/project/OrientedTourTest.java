@@ -0,0 +1,113 @@
+package com.project;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.project.model.ArrayTour;
+import com.project.model.OrientedTour;
+import com.project.model.TwoLevelTour;
+
+public class OrientedTourTest {
+
+	private static int[] shuffled(int n, Random random) {
+		int[] order = new int[n];
+		for (int i = 0; i < n; i++) {
+			order[i] = i;
+		}
+		for (int i = n - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int tmp = order[i];
+			order[i] = order[j];
+			order[j] = tmp;
+		}
+		return order;
+	}
+
+	// both tours have the same edges and each answers between() consistently with its own order
+	private static void assertSameCycle(OrientedTour expected, OrientedTour actual, Random random) {
+		int n = expected.size();
+		for (int city = 0; city < n; city++) {
+			int[] e = { expected.next(city), expected.prev(city) };
+			int[] a = { actual.next(city), actual.prev(city) };
+			Arrays.sort(e);
+			Arrays.sort(a);
+			assertArrayEquals(e, a);
+			assertEquals(city, actual.prev(actual.next(city)));
+		}
+		int[] order = actual.toOrder(0);
+		int[] pos = new int[n];
+		for (int i = 0; i < n; i++) {
+			pos[order[i]] = i;
+		}
+		for (int k = 0; k < 50; k++) {
+			int a = random.nextInt(n);
+			int b = random.nextInt(n);
+			int c = random.nextInt(n);
+			int pb = (pos[b] - pos[a] + n) % n;
+			int pc = (pos[c] - pos[a] + n) % n;
+			assertEquals(pb <= pc, actual.between(a, b, c));
+		}
+	}
+
+	private static void compareUnderRandomFlips(int n, int flips, long seed) {
+		Random random = new Random(seed);
+		int[] order = shuffled(n, random);
+		OrientedTour array = new ArrayTour(order, n);
+		OrientedTour twoLevel = new TwoLevelTour(order, n);
+		for (int f = 0; f < flips; f++) {
+			int a = random.nextInt(n);
+			int c = random.nextInt(n);
+			int b = array.next(a);
+			int d = array.next(c);
+			if (a == c || b == c || d == a) {
+				continue;
+			}
+			array.move2opt(a, b, c, d);
+			// the same edges seen from the two-level tour, whose direction may differ
+			if (twoLevel.next(a) == b) {
+				twoLevel.move2opt(a, b, c, d);
+			} else {
+				twoLevel.move2opt(b, a, d, c);
+			}
+			if (f % 97 == 0) {
+				assertSameCycle(array, twoLevel, random);
+			}
+		}
+		assertSameCycle(array, twoLevel, random);
+	}
+
+	@Test
+	public void twoLevelMatchesArrayOnSmallTours() {
+		for (int n = 5; n < 40; n += 7) {
+			compareUnderRandomFlips(n, 300, n);
+		}
+	}
+
+	@Test
+	public void twoLevelMatchesArrayOnLargeTours() {
+		compareUnderRandomFlips(3000, 5000, 51);
+	}
+
+	@Test
+	public void offTourCitiesAreNotContained() {
+		OrientedTour tour = new TwoLevelTour(new int[] { 4, 0, 2 }, 6);
+		assertTrue(tour.contains(2));
+		assertFalse(tour.contains(1));
+		assertEquals(0, tour.next(4));
+		assertArrayEquals(new int[] { 2, 4, 0 }, tour.toOrder(2));
+	}
+
+	@Test
+	public void largeToursUseTheTwoLevelList() {
+		int n = OrientedTour.TWO_LEVEL_THRESHOLD;
+		assertTrue(OrientedTour.create(shuffled(n, new Random(52)), n) instanceof TwoLevelTour);
+		assertTrue(OrientedTour.create(shuffled(n - 1, new Random(53)), n) instanceof ArrayTour);
+	}
+}
@@ -0,0 +1,63 @@
+package com.project;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.project.model.DistanceMatrix;
+import com.project.model.Node;
+import com.project.model.ParallelTempering;
+import com.project.model.Tour;
+
+public class ParallelTemperingTest {
+
+	@Test
+	public void returnsTheGlobalBestWithinBudget() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(120, 71);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		Tour start = Tour.of(nodes, distances);
+		ParallelTempering tempering = new ParallelTempering(distances, 4, 1, 700, 2000, 71);
+		Tour best = tempering.optimise(start, 300);
+		TourTest.assertPermutation(best, 120);
+		assertEquals(0, best.get(0));
+		assertTrue(best.length(distances) < start.length(distances) * 0.5);
+		// every epoch runs 2000 steps on each replica and tries at most two exchanges
+		assertTrue(tempering.getExchangesTried() > 0);
+		assertTrue(tempering.getMovesTried() >= tempering.getExchangesTried() / 2 * 2000);
+		assertTrue(tempering.getExchangesAccepted() <= tempering.getExchangesTried());
+		assertTrue(tempering.getMovesTried() > 0);
+	}
+
+	@Test
+	public void exchangesKeepEveryReplicaState() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(60, 73);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		// a flat ladder accepts almost every exchange
+		ParallelTempering tempering = new ParallelTempering(distances, 5, 500, 501, 200, 73);
+		tempering.optimise(Tour.of(nodes, distances), 200);
+		assertTrue(tempering.getExchangesAccepted() > 0);
+		int[] chainAt = tempering.getChainAtTemperature();
+		assertEquals(5, chainAt.length);
+		boolean[] seen = new boolean[5];
+		for (int chain : chainAt) {
+			// no chain's state is duplicated onto two temperatures or lost
+			assertFalse(seen[chain]);
+			seen[chain] = true;
+		}
+	}
+
+	@Test
+	public void ladderIsGeometric() {
+		DistanceMatrix distances = DistanceMatrix.of(DistanceMatrixTest.randomNodes(10, 72));
+		double[] temperatures = new ParallelTempering(distances, 3, 1, 100, 1000, 72).getTemperatures();
+		assertEquals(1, temperatures[0], 1e-9);
+		assertEquals(10, temperatures[1], 1e-9);
+		assertEquals(100, temperatures[2], 1e-9);
+		assertThrows(IllegalArgumentException.class, () -> new ParallelTempering(distances, 0, 1, 100, 1000, 72));
+	}
+}
@@ -0,0 +1,121 @@
+package com.project;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.project.model.Christofides;
+import com.project.model.Edge;
+import com.project.model.Graph;
+import com.project.model.Node;
+import com.project.model.PerfectMatching;
+
+public class PerfectMatchingTest {
+
+	private static double cost(List<Edge> edges) {
+		double cost = 0;
+		for (Edge e : edges) {
+			cost += e.getDistance();
+		}
+		return cost;
+	}
+
+	// every node in exactly one edge
+	private static void assertPerfect(List<Node> nodes, List<Edge> matching) {
+		assertEquals(nodes.size() / 2, matching.size());
+		Set<Node> covered = new HashSet<>();
+		for (Edge e : matching) {
+			assertTrue(covered.add(e.getSource()));
+			assertTrue(covered.add(e.getDestination()));
+		}
+		assertTrue(nodes.containsAll(covered));
+	}
+
+	// minimum perfect matching cost by dynamic programming over subsets, pairing the lowest free node
+	private static double optimum(List<Node> nodes) {
+		int n = nodes.size();
+		double[] best = new double[1 << n];
+		Arrays.fill(best, Double.MAX_VALUE);
+		best[0] = 0;
+		for (int used = 0; used < (1 << n) - 1; used++) {
+			if (best[used] == Double.MAX_VALUE) {
+				continue;
+			}
+			int i = Integer.numberOfTrailingZeros(~used);
+			for (int j = i + 1; j < n; j++) {
+				if ((used & (1 << j)) == 0) {
+					int next = used | (1 << i) | (1 << j);
+					double cost = best[used] + Graph.calculateDistance(nodes.get(i), nodes.get(j));
+					best[next] = Math.min(best[next], cost);
+				}
+			}
+		}
+		return best[(1 << n) - 1];
+	}
+
+	@Test
+	public void blossomMatchesBruteForce() {
+		for (int seed = 0; seed < 60; seed++) {
+			List<Node> nodes = new ArrayList<>(DistanceMatrixTest.randomNodes(2 + 2 * (seed % 6), 50 + seed));
+			if (seed % 3 == 0) {
+				// duplicates and equal distances
+				nodes.set(0, new Node("Copy", nodes.get(1).getLongitude(), nodes.get(1).getLatitude()));
+			}
+			List<Edge> matching = new PerfectMatching(PerfectMatching.Mode.BLOSSOM).match(nodes);
+			assertPerfect(nodes, matching);
+			// weights are rounded to decimetres
+			assertEquals(optimum(nodes), cost(matching), 0.05 * nodes.size());
+		}
+	}
+
+	@Test
+	public void greedyIsPerfectAndCloseToBlossom() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(600, 51);
+		PerfectMatching greedy = new PerfectMatching(PerfectMatching.Mode.GREEDY);
+		List<Edge> approximate = greedy.match(nodes);
+		List<Edge> exact = new PerfectMatching(PerfectMatching.Mode.BLOSSOM).match(nodes);
+		assertPerfect(nodes, approximate);
+		assertPerfect(nodes, exact);
+		assertTrue(greedy.getImprovements() > 0);
+		assertTrue(cost(exact) <= cost(approximate) + 0.05 * nodes.size());
+		assertTrue(cost(approximate) < 1.1 * cost(exact));
+	}
+
+	@Test
+	public void oddCountLeavesOneNode() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(101, 52);
+		for (PerfectMatching.Mode mode : PerfectMatching.Mode.values()) {
+			List<Edge> matching = new PerfectMatching(mode).match(nodes);
+			assertEquals(50, matching.size());
+			assertPerfect(nodes, matching);
+		}
+		assertTrue(new PerfectMatching(PerfectMatching.Mode.GREEDY).match(nodes.subList(0, 1)).isEmpty());
+		assertThrows(IllegalArgumentException.class, () -> new PerfectMatching(PerfectMatching.Mode.GREEDY, 0));
+	}
+
+	@Test
+	public void christofidesToursWithEitherMatching() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(400, 53);
+		Graph graph = new Graph(nodes);
+		graph.connectAllNodes();
+		List<Edge> mst = Christofides.findMST(graph, Graph.MstAlgorithm.PRIM);
+		List<Node> odd = Christofides.findOddDegreeVertices(graph, mst);
+		assertEquals(PerfectMatching.Mode.BLOSSOM, Christofides.matchingMode(odd.size()));
+		for (PerfectMatching.Mode mode : PerfectMatching.Mode.values()) {
+			List<Edge> matching = Christofides.getMinimumWeightPerfectMatching(odd, mode);
+			assertPerfect(odd, matching);
+			assertEquals(cost(matching), cost(new Graph(odd).getMinimumWeightPerfectMatching(mode)), 1e-6);
+			List<Node> tour = Christofides.generateTSPTour(Christofides.eulerTour(graph, mst, matching));
+			assertEquals(nodes.size(), tour.size());
+			assertEquals(new HashSet<>(nodes), new HashSet<>(tour));
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package com.project;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.project.model.DistanceMatrix;
+import com.project.model.IteratedLocalSearch;
+import com.project.model.NeighborLists;
+import com.project.model.Node;
+import com.project.model.RandomSwap;
+import com.project.model.Tour;
+import com.project.model.TwoOpt;
+
+public class RandomSwapTest {
+
+	@Test
+	public void swapDeltaMatchesFullRecomputation() {
+		for (int n = 4; n <= 9; n++) {
+			List<Node> nodes = DistanceMatrixTest.randomNodes(n, 110 + n);
+			DistanceMatrix distances = DistanceMatrix.of(nodes);
+			int[] tour = Tour.of(nodes, distances).order();
+			double before = Tour.length(tour, distances);
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < n; j++) {
+					int[] swapped = tour.clone();
+					swapped[i] = tour[j];
+					swapped[j] = tour[i];
+					assertEquals(Tour.length(swapped, distances) - before,
+							RandomSwap.swapDelta(tour, i, j, distances), 1e-6, n + ": " + i + "," + j);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void doubleBridgeReportsItsChange() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(30, 120);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		RandomSwap perturbation = new RandomSwap(distances, 5);
+		Tour tour = Tour.of(nodes, distances);
+		for (int k = 0; k < 200; k++) {
+			double before = tour.length(distances);
+			double change = perturbation.doubleBridge(tour.order());
+			TourTest.assertPermutation(tour, 30);
+			assertEquals(0, tour.get(0));
+			assertEquals(tour.length(distances) - before, change, 1e-6);
+		}
+	}
+
+	@Test
+	public void climbingNeverLengthensTheTour() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(200, 121);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		Tour start = Tour.of(nodes, distances);
+		int[] before = start.order().clone();
+		RandomSwap climber = new RandomSwap(distances, 6);
+		Tour result = climber.optimise(start, 30000);
+		assertArrayEquals(before, start.order());
+		TourTest.assertPermutation(result, 200);
+		assertEquals(0, result.get(0));
+		assertTrue(result.length(distances) < start.length(distances));
+		assertEquals(30000, climber.getMovesTried());
+
+		Tour timed = new RandomSwap(distances, 7).optimiseFor(start, 50);
+		assertTrue(timed.length(distances) < start.length(distances));
+	}
+
+	@Test
+	public void iteratedLocalSearchBeatsTwoOpt() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(300, 122);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		Tour start = Tour.of(nodes, distances);
+		Tour twoOpt = new TwoOpt(distances).optimise(start.copy());
+		IteratedLocalSearch ils = new IteratedLocalSearch(distances, NeighborLists.nearest(distances, 8), 8);
+		Tour result = ils.optimise(start, 300);
+		TourTest.assertPermutation(result, 300);
+		assertEquals(0, result.get(0));
+		assertTrue(result.length(distances) < twoOpt.length(distances));
+		assertTrue(ils.getKicks() > 0);
+	}
+}
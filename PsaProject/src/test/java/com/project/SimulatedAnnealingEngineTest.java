@@ -0,0 +1,113 @@
+package com.project;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.project.model.AnytimeAnnealing;
+import com.project.model.Christofides;
+import com.project.model.DistanceMatrix;
+import com.project.model.Node;
+import com.project.model.SimulatedAnnealing;
+import com.project.model.Tour;
+
+public class SimulatedAnnealingEngineTest {
+
+	@Test
+	public void incrementalCostMatchesTourLength() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(60, 61);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		SimulatedAnnealing annealing = new SimulatedAnnealing(distances, Tour.of(nodes, distances), 61);
+		// hot enough that most proposals of every kind are accepted
+		for (int step = 0; step < 20000; step++) {
+			annealing.step(1e6);
+		}
+		Tour current = annealing.getCurrent();
+		TourTest.assertPermutation(current, 60);
+		assertEquals(0, current.get(0));
+		assertEquals(current.length(distances), annealing.getCost(), 1e-3);
+		assertEquals(annealing.getBest().length(distances), annealing.getBestCost(), 1e-3);
+		assertTrue(annealing.getMovesAccepted() > 10000);
+	}
+
+	@Test
+	public void returnsTheBestTourNotTheLastOne() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(80, 62);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		Tour start = Tour.of(nodes, distances);
+		SimulatedAnnealing annealing = new SimulatedAnnealing(distances, start, 62);
+		Tour best = annealing.anneal(2000, 1, 0.0001);
+		TourTest.assertPermutation(best, 80);
+		assertEquals(best.length(distances), annealing.getBestCost(), 1e-3);
+		assertTrue(annealing.getBestCost() <= annealing.getCost());
+		assertTrue(best.length(distances) < start.length(distances));
+	}
+
+	@Test
+	public void christofidesEntryPointImproves() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(100, 63);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		Tour start = Tour.of(nodes, distances);
+		Tour result = Christofides.simulatedAnnealingOptimizeTour(start, distances);
+		TourTest.assertPermutation(result, 100);
+		assertTrue(result.length(distances) < start.length(distances));
+	}
+
+	@Test
+	public void anytimeAnnealingKeepsToItsBudget() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(150, 64);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		Tour start = Tour.of(nodes, distances);
+		AnytimeAnnealing annealing = new AnytimeAnnealing(distances, 64);
+		long begin = System.currentTimeMillis();
+		Tour best = annealing.optimise(start, 300);
+		// the whole budget is used; how long past it the last block runs depends on the machine
+		assertTrue(System.currentTimeMillis() - begin >= 300);
+		TourTest.assertPermutation(best, 150);
+		assertTrue(best.length(distances) < start.length(distances) * 0.5);
+		assertTrue(annealing.getInitialTemperature() > annealing.getFinalTemperature());
+		assertTrue(annealing.getMovesTried() > 0);
+	}
+
+	@Test
+	public void anytimeAnnealingStopsOnRequest() throws InterruptedException {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(150, 65);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		Tour start = Tour.of(nodes, distances);
+		AnytimeAnnealing annealing = new AnytimeAnnealing(distances, 65);
+		Tour[] result = new Tour[1];
+		Thread worker = new Thread(() -> result[0] = annealing.optimise(start, 60000));
+		worker.start();
+		Thread.sleep(200);
+		assertTrue(annealing.getBestSoFar() != null);
+		annealing.stop();
+		worker.join(5000);
+		assertFalse(worker.isAlive());
+		TourTest.assertPermutation(result[0], 150);
+		assertTrue(result[0].length(distances) < start.length(distances));
+	}
+
+	@Test
+	public void anytimeAnnealingKeepsAnEarlyStop() throws InterruptedException {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(150, 66);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		Tour start = Tour.of(nodes, distances);
+		AnytimeAnnealing annealing = new AnytimeAnnealing(distances, 66);
+		// stopped before the worker even starts, so the long budget is never used
+		annealing.stop();
+		Tour[] result = new Tour[1];
+		Thread worker = new Thread(() -> result[0] = annealing.optimise(start, 60000));
+		worker.start();
+		worker.join(5000);
+		assertFalse(worker.isAlive());
+		assertEquals(0, annealing.getMovesTried());
+		TourTest.assertPermutation(result[0], 150);
+		annealing.reset();
+		annealing.optimise(start, 50);
+		assertTrue(annealing.getMovesTried() > 0);
+	}
+}
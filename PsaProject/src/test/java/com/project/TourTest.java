@@ -0,0 +1,103 @@
+package com.project;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.project.model.Christofides;
+import com.project.model.DistanceMatrix;
+import com.project.model.Graph;
+import com.project.model.Node;
+import com.project.model.NodeStore;
+import com.project.model.Tour;
+
+public class TourTest {
+
+	public static void assertPermutation(Tour tour, int size) {
+		int[] sorted = tour.order().clone();
+		Arrays.sort(sorted);
+		int[] expected = new int[size];
+		for (int i = 0; i < size; i++) {
+			expected[i] = i;
+		}
+		assertArrayEquals(expected, sorted);
+	}
+
+	@Test
+	public void nodeStoreRoundTrip() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(25, 21);
+		NodeStore store = NodeStore.of(nodes);
+		assertEquals(nodes.get(7).getLatitude(), store.latitude(7));
+		assertEquals(nodes.get(7).getCrimeId(), store.id(7));
+		Tour tour = Tour.of(nodes, store);
+		List<Node> back = tour.toNodes();
+		for (int i = 0; i < nodes.size(); i++) {
+			assertSame(nodes.get(i), back.get(i));
+		}
+	}
+
+	@Test
+	public void lengthIncludesClosingEdge() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(10, 22);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		Tour tour = Tour.of(nodes, distances);
+		double expected = 0;
+		for (int i = 0; i < nodes.size(); i++) {
+			expected += Graph.calculateDistance(nodes.get(i), nodes.get((i + 1) % nodes.size()));
+		}
+		assertEquals(expected, tour.length(distances), 1e-6);
+		assertEquals(expected, Christofides.calculateTourLength(nodes, distances), 1e-6);
+	}
+
+	@Test
+	public void reverseAndSwap() {
+		NodeStore store = NodeStore.of(DistanceMatrixTest.randomNodes(6, 23));
+		Tour tour = new Tour(store, new int[] { 0, 1, 2, 3, 4, 5 });
+		tour.reverse(1, 4);
+		assertArrayEquals(new int[] { 0, 4, 3, 2, 1, 5 }, tour.order());
+		tour.swap(0, 5);
+		assertArrayEquals(new int[] { 5, 4, 3, 2, 1, 0 }, tour.order());
+	}
+
+	@Test
+	public void copySharesNodesButNotTheOrder() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(8, 25);
+		Tour tour = Tour.of(nodes, NodeStore.of(nodes));
+		Tour copy = tour.copy();
+		assertSame(tour.getNodeStore(), copy.getNodeStore());
+		copy.swap(0, 7);
+		assertEquals(0, tour.get(0));
+		assertEquals(7, copy.get(0));
+		assertSame(tour.toNodes().get(7), copy.toNodes().get(0));
+	}
+
+	@Test
+	public void randomSwapLeavesItsInputAlone() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(40, 26);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		Tour start = Tour.of(nodes, distances);
+		int[] before = start.order().clone();
+		Tour result = Christofides.randomSwapOptimise(start, 2000, distances);
+		assertArrayEquals(before, start.order());
+		assertPermutation(result, 40);
+		assertTrue(result.length(distances) <= start.length(distances));
+	}
+
+	@Test
+	public void solversRunOnIntTours() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(60, 24);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		Tour start = Tour.of(nodes, distances);
+		double before = start.length(distances);
+		Tour twoOpt = Christofides.twoOpt(start.copy(), distances);
+		assertPermutation(twoOpt, 60);
+		assertTrue(twoOpt.length(distances) < before);
+		assertPermutation(Christofides.randomSwapOptimise(start.copy(), 500, distances), 60);
+	}
+}
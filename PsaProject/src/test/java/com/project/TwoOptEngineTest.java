@@ -0,0 +1,117 @@
+package com.project;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.project.model.DistanceMatrix;
+import com.project.model.NeighborLists;
+import com.project.model.Node;
+import com.project.model.Tour;
+import com.project.model.TwoOpt;
+
+public class TwoOptEngineTest {
+
+	// true when no reversal of positions i..j (i >= 1) shortens the tour
+	public static boolean isTwoOptOptimal(Tour tour, DistanceMatrix distances) {
+		int[] t = tour.order();
+		int n = t.length;
+		for (int i = 1; i < n - 1; i++) {
+			for (int j = i + 1; j < n; j++) {
+				double delta = distances.distance(t[i - 1], t[j]) + distances.distance(t[i], t[(j + 1) % n])
+						- distances.distance(t[i - 1], t[i]) - distances.distance(t[j], t[(j + 1) % n]);
+				if (delta < -1e-6) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private void checkStrategy(TwoOpt.Strategy strategy) {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(150, 31);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		Tour tour = Tour.of(nodes, distances);
+		double before = tour.length(distances);
+		TwoOpt twoOpt = new TwoOpt(distances, strategy);
+		twoOpt.optimise(tour);
+		TourTest.assertPermutation(tour, 150);
+		assertEquals(0, tour.get(0));
+		assertTrue(tour.length(distances) < before);
+		assertTrue(isTwoOptOptimal(tour, distances));
+		assertTrue(twoOpt.getMovesApplied() > 0);
+		assertTrue(twoOpt.getMovesEvaluated() > twoOpt.getMovesApplied());
+	}
+
+	@Test
+	public void firstImprovementReachesLocalOptimum() {
+		checkStrategy(TwoOpt.Strategy.FIRST_IMPROVEMENT);
+	}
+
+	@Test
+	public void bestImprovementReachesLocalOptimum() {
+		checkStrategy(TwoOpt.Strategy.BEST_IMPROVEMENT);
+	}
+
+	@Test
+	public void neighborListsAreSortedNearest() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(80, 32);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		NeighborLists neighbors = NeighborLists.nearest(distances, 6);
+		for (int i = 0; i < 80; i++) {
+			assertEquals(6, neighbors.count(i));
+			double worst = 0;
+			for (int r = 0; r < 6; r++) {
+				int c = neighbors.get(i, r);
+				assertTrue(c != i);
+				assertTrue(distances.distance(i, c) >= worst);
+				worst = distances.distance(i, c);
+			}
+			// nothing outside the list is closer than its last entry
+			for (int j = 0; j < 80; j++) {
+				if (j != i) {
+					boolean listed = false;
+					for (int r = 0; r < 6; r++) {
+						listed |= neighbors.get(i, r) == j;
+					}
+					assertTrue(listed || distances.distance(i, j) >= worst);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void neighborListSearchIsCloseToFullTwoOpt() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(400, 33);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		Tour full = new TwoOpt(distances).optimise(Tour.of(nodes, distances));
+		Tour tour = Tour.of(nodes, distances);
+		TwoOpt twoOpt = new TwoOpt(distances, TwoOpt.Strategy.NEIGHBOR_LISTS);
+		twoOpt.optimise(tour);
+		TourTest.assertPermutation(tour, 400);
+		assertEquals(0, tour.get(0));
+		assertTrue(tour.length(distances) < full.length(distances) * 1.05);
+		assertTrue(twoOpt.getMovesApplied() > 0);
+	}
+
+	@Test
+	public void neighborListSearchSkipsCitiesOffTheTour() {
+		List<Node> nodes = DistanceMatrixTest.randomNodes(100, 34);
+		DistanceMatrix distances = DistanceMatrix.of(nodes);
+		int[] evens = new int[50];
+		for (int i = 0; i < 50; i++) {
+			evens[i] = 2 * i;
+		}
+		Tour tour = new Tour(distances.getNodeStore(), evens);
+		double before = tour.length(distances);
+		new TwoOpt(distances, NeighborLists.nearest(distances, 8), false).optimise(tour);
+		assertTrue(tour.length(distances) < before);
+		assertEquals(0, tour.get(0));
+		for (int i = 0; i < 50; i++) {
+			assertEquals(0, tour.get(i) % 2);
+		}
+	}
+}